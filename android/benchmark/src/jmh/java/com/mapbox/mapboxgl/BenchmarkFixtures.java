@@ -0,0 +1,146 @@
+package com.mapbox.mapboxgl;
+
+import com.google.gson.JsonObject;
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.FeatureCollection;
+import com.mapbox.geojson.LineString;
+import com.mapbox.geojson.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/** Deterministic input data shaped like what the Dart side sends over the method channel. */
+class BenchmarkFixtures {
+  private static final long SEED = 42;
+
+  /** Point features with an id and a few properties, as typically used for markers. */
+  static FeatureCollection points(int count) {
+    final Random random = new Random(SEED);
+    final List<Feature> features = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      features.add(point(random, "feature-" + i, i));
+    }
+    return FeatureCollection.fromFeatures(features);
+  }
+
+  /** Line features with the given number of vertices each. */
+  static FeatureCollection lines(int count, int vertices) {
+    final Random random = new Random(SEED);
+    final List<Feature> features = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final List<Point> points = new ArrayList<>(vertices);
+      for (int j = 0; j < vertices; j++) {
+        points.add(randomPoint(random));
+      }
+      features.add(Feature.fromGeometry(LineString.fromLngLats(points), null, "line-" + i));
+    }
+    return FeatureCollection.fromFeatures(features);
+  }
+
+  static Feature point(Random random, String id, int rank) {
+    final JsonObject properties = new JsonObject();
+    properties.addProperty("name", "Feature " + rank);
+    properties.addProperty("rank", rank);
+    properties.addProperty("selected", rank % 7 == 0);
+    return Feature.fromGeometry(randomPoint(random), properties, id);
+  }
+
+  /** The packed layout of {@link #points} as decoded by {@link BinaryGeoJsonDecoder}. */
+  static Map<String, Object> binaryPoints(int count) {
+    final FeatureCollection featureCollection = points(count);
+    final byte[] geometryTypes = new byte[count];
+    final double[] coordinates = new double[count * 2];
+    final List<String> ids = new ArrayList<>(count);
+    final List<Object> names = new ArrayList<>(count);
+    final List<Object> ranks = new ArrayList<>(count);
+    final List<Object> selected = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final Feature feature = featureCollection.features().get(i);
+      final Point point = (Point) feature.geometry();
+      geometryTypes[i] = (byte) BinaryGeoJsonDecoder.TYPE_POINT;
+      coordinates[i * 2] = point.longitude();
+      coordinates[i * 2 + 1] = point.latitude();
+      ids.add(feature.id());
+      names.add(feature.getStringProperty("name"));
+      ranks.add(feature.getNumberProperty("rank"));
+      selected.add(feature.getBooleanProperty("selected"));
+    }
+    final Map<String, Object> data = new HashMap<>();
+    data.put("sourceId", "points");
+    data.put("geometryTypes", geometryTypes);
+    data.put("parts", new int[0]);
+    data.put("coordinates", coordinates);
+    data.put("ids", ids);
+    data.put("propertyKeys", Arrays.asList("name", "rank", "selected"));
+    data.put("propertyValues", Arrays.asList(names, ranks, selected));
+    return data;
+  }
+
+  /** Layer properties as sent by the method channel: every value is a JSON encoded expression. */
+  static Map<String, String> symbolLayerProperties() {
+    final Map<String, String> properties = new HashMap<>();
+    properties.put("icon-image", "[\"get\",\"icon\"]");
+    properties.put("icon-size", "[\"interpolate\",[\"linear\"],[\"zoom\"],10,0.5,16,1.2]");
+    properties.put("icon-allow-overlap", "true");
+    properties.put("icon-anchor", "\"bottom\"");
+    properties.put("icon-offset", "[\"literal\",[0,-4]]");
+    properties.put("text-field", "[\"format\",[\"get\",\"name\"],{\"font-scale\":1.2}]");
+    properties.put("text-font", "[\"literal\",[\"Open Sans Semibold\",\"Arial Unicode MS Bold\"]]");
+    properties.put("text-size", "[\"interpolate\",[\"linear\"],[\"zoom\"],10,10,16,14]");
+    properties.put("text-color", "[\"case\",[\"get\",\"selected\"],\"#ff0000\",\"#333333\"]");
+    properties.put("text-halo-color", "\"#ffffff\"");
+    properties.put("text-halo-width", "1.5");
+    properties.put("text-offset", "[\"literal\",[0,0.6]]");
+    properties.put("text-anchor", "\"top\"");
+    properties.put("symbol-sort-key", "[\"get\",\"rank\"]");
+    properties.put("visibility", "\"visible\"");
+    return properties;
+  }
+
+  static Map<String, String> lineLayerProperties() {
+    final Map<String, String> properties = new HashMap<>();
+    properties.put("line-color", "[\"match\",[\"get\",\"class\"],\"primary\",\"#f00\",\"#999\"]");
+    properties.put("line-width", "[\"interpolate\",[\"exponential\",1.5],[\"zoom\"],5,1,18,24]");
+    properties.put("line-opacity", "0.8");
+    properties.put("line-cap", "\"round\"");
+    properties.put("line-join", "\"round\"");
+    properties.put("line-dasharray", "[\"literal\",[2,1]]");
+    return properties;
+  }
+
+  static Map<String, Object> geojsonSourceProperties() {
+    final Map<String, Object> properties = new HashMap<>();
+    properties.put("type", "geojson");
+    properties.put("buffer", 64);
+    properties.put("cluster", true);
+    properties.put("clusterMaxZoom", 14);
+    properties.put("clusterRadius", 50);
+    properties.put("lineMetrics", false);
+    properties.put("maxZoom", 18);
+    properties.put("tolerance", 0.375);
+    return properties;
+  }
+
+  static Map<String, Object> vectorSourceProperties() {
+    final Map<String, Object> properties = new HashMap<>();
+    properties.put("type", "vector");
+    properties.put(
+        "tiles",
+        Arrays.asList(
+            "https://a.tiles.example.com/{z}/{x}/{y}.pbf",
+            "https://b.tiles.example.com/{z}/{x}/{y}.pbf"));
+    properties.put("bounds", Arrays.asList(-180.0, -85.0511, 180.0, 85.0511));
+    properties.put("scheme", "xyz");
+    properties.put("minzoom", 0);
+    properties.put("maxzoom", 14);
+    properties.put("attribution", "© Example contributors");
+    return properties;
+  }
+
+  private static Point randomPoint(Random random) {
+    return Point.fromLngLat(random.nextDouble() * 360 - 180, random.nextDouble() * 170 - 85);
+  }
+}
@@ -0,0 +1,78 @@
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+import com.mapbox.mapboxsdk.camera.CameraUpdate;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Camera conversions, run for every camera update and every camera move event. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertBenchmark {
+  private final MapboxMap mapboxMap = new MapboxMap();
+  private final float density = 2.75f;
+
+  private List<Object> newCameraPosition;
+  private List<Object> newLatLngBounds;
+  private List<Object> zoomBy;
+  private CameraPosition cameraPosition;
+
+  @Setup
+  public void setup() {
+    final Map<String, Object> position = new HashMap<>();
+    position.put("bearing", 12.5);
+    position.put("target", Arrays.asList(48.8566, 2.3522));
+    position.put("tilt", 30.0);
+    position.put("zoom", 14.2);
+    newCameraPosition = Arrays.asList("newCameraPosition", position);
+    newLatLngBounds =
+        Arrays.asList(
+            "newLatLngBounds",
+            Arrays.asList(Arrays.asList(48.8, 2.2), Arrays.asList(48.9, 2.5)),
+            16,
+            16,
+            16,
+            16);
+    zoomBy = Arrays.asList("zoomBy", 1.5, Arrays.asList(120.0, 240.0));
+    cameraPosition = new CameraPosition(new LatLng(48.8566, 2.3522), 14.2, 30.0, 12.5);
+  }
+
+  @Benchmark
+  public CameraUpdate toCameraUpdateNewCameraPosition() {
+    return Convert.toCameraUpdate(newCameraPosition, mapboxMap, density);
+  }
+
+  @Benchmark
+  public CameraUpdate toCameraUpdateNewLatLngBounds() {
+    return Convert.toCameraUpdate(newLatLngBounds, mapboxMap, density);
+  }
+
+  @Benchmark
+  public CameraUpdate toCameraUpdateZoomBy() {
+    return Convert.toCameraUpdate(zoomBy, mapboxMap, density);
+  }
+
+  @Benchmark
+  public Object toJsonCameraPosition() {
+    return Convert.toJson(cameraPosition);
+  }
+}
@@ -0,0 +1,47 @@
+package com.mapbox.mapboxgl;
+
+import com.mapbox.geojson.FeatureCollection;
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Bounding box computation used when moving the camera to fit a feature collection. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoJSONUtilsBenchmark {
+  @Param({"100", "10000"})
+  public int featureCount;
+
+  private FeatureCollection points;
+  private FeatureCollection lines;
+
+  @Setup
+  public void setup() {
+    points = BenchmarkFixtures.points(featureCount);
+    lines = BenchmarkFixtures.lines(featureCount / 10, 50);
+  }
+
+  @Benchmark
+  public LatLngBounds toLatLngBoundsPoints() {
+    return GeoJSONUtils.toLatLngBounds(points);
+  }
+
+  @Benchmark
+  public LatLngBounds toLatLngBoundsLines() {
+    return GeoJSONUtils.toLatLngBounds(lines);
+  }
+}
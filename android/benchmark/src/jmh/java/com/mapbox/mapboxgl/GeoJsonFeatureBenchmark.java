@@ -0,0 +1,88 @@
+package com.mapbox.mapboxgl;
+
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.FeatureCollection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The GeoJSON source update path on the plugin side: parsing the data sent by Dart, patching
+ * features in the {@link GeoJsonFeatureStore} and building the collection handed to the source.
+ * Handing the collection to the native renderer is not covered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoJsonFeatureBenchmark {
+  private static final int BATCH_SIZE = 100;
+
+  @Param({"1000", "10000"})
+  public int featureCount;
+
+  private String featureCollectionJson;
+  private Map<String, Object> binaryFeatureCollection;
+  private GeoJsonFeatureStore featureStore;
+  private List<String> updatedFeatures;
+  private int nextUpdate = 0;
+
+  @Setup
+  public void setup() {
+    final FeatureCollection featureCollection = BenchmarkFixtures.points(featureCount);
+    featureCollectionJson = featureCollection.toJson();
+    binaryFeatureCollection = BenchmarkFixtures.binaryPoints(featureCount);
+    featureStore = new GeoJsonFeatureStore(featureCollection);
+
+    final Random random = new Random(7);
+    updatedFeatures = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      final int index = random.nextInt(featureCount);
+      updatedFeatures.add(BenchmarkFixtures.point(random, "feature-" + index, index).toJson());
+    }
+  }
+
+  /** A single {@code source#setFeature} call, as made when dragging or animating one feature. */
+  @Benchmark
+  public FeatureCollection setSingleFeature() {
+    final String geojsonFeature = updatedFeatures.get(nextUpdate++ % BATCH_SIZE);
+    featureStore.upsert(Feature.fromJson(geojsonFeature));
+    return featureStore.toFeatureCollection();
+  }
+
+  /** A {@code source#setFeatures} call changing {@value #BATCH_SIZE} features at once. */
+  @Benchmark
+  public FeatureCollection setFeatureBatch() {
+    for (String geojsonFeature : updatedFeatures) {
+      featureStore.upsert(Feature.fromJson(geojsonFeature));
+    }
+    return featureStore.toFeatureCollection();
+  }
+
+  /** Parsing a full {@code source#setGeoJson} payload. */
+  @Benchmark
+  public FeatureCollection parseGeoJson() {
+    return FeatureCollection.fromJson(featureCollectionJson);
+  }
+
+  /** Decoding the same features sent through {@code source#setBinary}. */
+  @Benchmark
+  public FeatureCollection decodeBinary() {
+    return BinaryGeoJsonDecoder.decode(binaryFeatureCollection);
+  }
+}
@@ -0,0 +1,116 @@
+package com.mapbox.mapboxgl;
+
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.LineString;
+import com.mapbox.geojson.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hit-testing taps against the {@link GeoJsonFeatureIndex} of a source, and building the index when
+ * the data of the source changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoJsonFeatureIndexBenchmark {
+  private static final int TAP_COUNT = 64;
+  // Roughly 20 pixels at zoom 14.
+  private static final double TAP_SIZE = 0.002;
+
+  @Param({"1000", "10000", "100000"})
+  public int featureCount;
+
+  private List<Feature> points;
+  private List<Feature> lines;
+  private GeoJsonFeatureIndex pointIndex;
+  private GeoJsonFeatureIndex lineIndex;
+  private double[] taps;
+  private int nextTap = 0;
+
+  @Setup
+  public void setup() {
+    points = BenchmarkFixtures.points(featureCount).features();
+    lines = localLines(featureCount / 10, 20);
+    pointIndex = new GeoJsonFeatureIndex(points);
+    lineIndex = new GeoJsonFeatureIndex(lines);
+
+    // Half of the taps are on a feature, the others most likely on empty map.
+    final Random random = new Random(7);
+    taps = new double[TAP_COUNT * 2];
+    for (int i = 0; i < TAP_COUNT; i++) {
+      if (i % 2 == 0) {
+        final Point point = (Point) points.get(random.nextInt(featureCount)).geometry();
+        taps[i * 2] = point.longitude();
+        taps[i * 2 + 1] = point.latitude();
+      } else {
+        taps[i * 2] = random.nextDouble() * 360 - 180;
+        taps[i * 2 + 1] = random.nextDouble() * 170 - 85;
+      }
+    }
+  }
+
+  /** A tap on a layer of a point source. */
+  @Benchmark
+  public Feature queryPoints() {
+    final int tap = nextTap++ % TAP_COUNT;
+    return query(pointIndex, tap);
+  }
+
+  /** A tap on a layer of a line source, which needs the exact segment test. */
+  @Benchmark
+  public Feature queryLines() {
+    final int tap = nextTap++ % TAP_COUNT;
+    return query(lineIndex, tap);
+  }
+
+  /** Rebuilding the index after the data of a point source changed. */
+  @Benchmark
+  public GeoJsonFeatureIndex buildPoints() {
+    return new GeoJsonFeatureIndex(points);
+  }
+
+  /** Lines of a few kilometers, like roads or tracks, spread over the whole world. */
+  private static List<Feature> localLines(int count, int vertices) {
+    final Random random = new Random(11);
+    final List<Feature> features = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      double longitude = random.nextDouble() * 360 - 180;
+      double latitude = random.nextDouble() * 170 - 85;
+      final List<Point> points = new ArrayList<>(vertices);
+      for (int j = 0; j < vertices; j++) {
+        points.add(Point.fromLngLat(longitude, latitude));
+        longitude += random.nextDouble() * 0.01 - 0.005;
+        latitude += random.nextDouble() * 0.01 - 0.005;
+      }
+      features.add(Feature.fromGeometry(LineString.fromLngLats(points), null, "line-" + i));
+    }
+    return features;
+  }
+
+  private Feature query(GeoJsonFeatureIndex index, int tap) {
+    final double longitude = taps[tap * 2];
+    final double latitude = taps[tap * 2 + 1];
+    return index.queryTopmost(
+        longitude - TAP_SIZE / 2,
+        latitude - TAP_SIZE / 2,
+        longitude + TAP_SIZE / 2,
+        latitude + TAP_SIZE / 2);
+  }
+}
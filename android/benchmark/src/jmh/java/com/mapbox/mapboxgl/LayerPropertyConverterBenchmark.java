@@ -0,0 +1,50 @@
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.style.layers.PropertyValue;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Parsing of layer property expressions, run for every added layer and property change. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayerPropertyConverterBenchmark {
+  /** 0 disables the {@link ExpressionCache}, so every property is parsed again. */
+  @Param({"0", "512"})
+  public int expressionCacheSize;
+
+  private Map<String, String> symbolProperties;
+  private Map<String, String> lineProperties;
+
+  @Setup
+  public void setup() {
+    ExpressionCache.getInstance().clear();
+    ExpressionCache.getInstance().setMaxSize(expressionCacheSize);
+    symbolProperties = BenchmarkFixtures.symbolLayerProperties();
+    lineProperties = BenchmarkFixtures.lineLayerProperties();
+  }
+
+  @Benchmark
+  public PropertyValue[] interpretSymbolLayerProperties() {
+    return LayerPropertyConverter.interpretSymbolLayerProperties(symbolProperties);
+  }
+
+  @Benchmark
+  public PropertyValue[] interpretLineLayerProperties() {
+    return LayerPropertyConverter.interpretLineLayerProperties(lineProperties);
+  }
+}
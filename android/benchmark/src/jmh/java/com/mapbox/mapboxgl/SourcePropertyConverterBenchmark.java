@@ -0,0 +1,44 @@
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.style.sources.GeoJsonOptions;
+import com.mapbox.mapboxsdk.style.sources.TileSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Conversion of source properties, run for every source added through {@code style#addSource}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SourcePropertyConverterBenchmark {
+  private Map<String, Object> geojsonProperties;
+  private Map<String, Object> vectorProperties;
+
+  @Setup
+  public void setup() {
+    geojsonProperties = BenchmarkFixtures.geojsonSourceProperties();
+    vectorProperties = BenchmarkFixtures.vectorSourceProperties();
+  }
+
+  @Benchmark
+  public GeoJsonOptions buildGeojsonOptions() {
+    return SourcePropertyConverter.buildGeojsonOptions(geojsonProperties);
+  }
+
+  @Benchmark
+  public TileSet buildTileset() {
+    return SourcePropertyConverter.buildTileset(vectorProperties);
+  }
+}
@@ -0,0 +1,8 @@
+package android.content;
+
+import android.content.res.Resources;
+
+/** JVM stub of the Android class, only covers what the benchmarked plugin code uses. */
+public abstract class Context {
+  public abstract Resources getResources();
+}
@@ -0,0 +1,12 @@
+package android.content.res;
+
+import android.util.DisplayMetrics;
+
+/** JVM stub of the Android class, only covers what the benchmarked plugin code uses. */
+public class Resources {
+  private final DisplayMetrics displayMetrics = new DisplayMetrics();
+
+  public DisplayMetrics getDisplayMetrics() {
+    return displayMetrics;
+  }
+}
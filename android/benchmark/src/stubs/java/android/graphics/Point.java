@@ -0,0 +1,12 @@
+package android.graphics;
+
+/** JVM stub of the Android class, only covers what the benchmarked plugin code uses. */
+public class Point {
+  public int x;
+  public int y;
+
+  public Point(int x, int y) {
+    this.x = x;
+    this.y = y;
+  }
+}
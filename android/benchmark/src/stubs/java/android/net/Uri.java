@@ -0,0 +1,19 @@
+package android.net;
+
+/** JVM stub of the Android class, only covers what the benchmarked plugin code uses. */
+public final class Uri {
+  private final String uriString;
+
+  private Uri(String uriString) {
+    this.uriString = uriString;
+  }
+
+  public static Uri parse(String uriString) {
+    return new Uri(uriString);
+  }
+
+  @Override
+  public String toString() {
+    return uriString;
+  }
+}
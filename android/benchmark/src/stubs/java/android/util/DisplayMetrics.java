@@ -0,0 +1,6 @@
+package android.util;
+
+/** JVM stub of the Android class, only covers what the benchmarked plugin code uses. */
+public class DisplayMetrics {
+  public float density = 1f;
+}
@@ -0,0 +1,49 @@
+package com.mapbox.mapboxsdk.camera;
+
+import com.mapbox.mapboxsdk.geometry.LatLng;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public final class CameraPosition {
+  public final double bearing;
+  public final LatLng target;
+  public final double tilt;
+  public final double zoom;
+
+  public CameraPosition(LatLng target, double zoom, double tilt, double bearing) {
+    this.target = target;
+    this.zoom = zoom;
+    this.tilt = tilt;
+    this.bearing = bearing;
+  }
+
+  public static final class Builder {
+    private double bearing = -1;
+    private LatLng target = null;
+    private double tilt = -1;
+    private double zoom = -1;
+
+    public Builder bearing(double bearing) {
+      this.bearing = bearing;
+      return this;
+    }
+
+    public Builder target(LatLng target) {
+      this.target = target;
+      return this;
+    }
+
+    public Builder tilt(double tilt) {
+      this.tilt = tilt;
+      return this;
+    }
+
+    public Builder zoom(double zoom) {
+      this.zoom = zoom;
+      return this;
+    }
+
+    public CameraPosition build() {
+      return new CameraPosition(target, zoom, tilt, bearing);
+    }
+  }
+}
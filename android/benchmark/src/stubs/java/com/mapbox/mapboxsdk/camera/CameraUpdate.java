@@ -0,0 +1,8 @@
+package com.mapbox.mapboxsdk.camera;
+
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+
+/** JVM stub of the Mapbox SDK interface, only covers what the benchmarked plugin code uses. */
+public interface CameraUpdate {
+  CameraPosition getCameraPosition(MapboxMap mapboxMap);
+}
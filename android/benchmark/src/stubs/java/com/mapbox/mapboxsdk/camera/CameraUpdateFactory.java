@@ -0,0 +1,108 @@
+package com.mapbox.mapboxsdk.camera;
+
+import android.graphics.Point;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+
+/**
+ * JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. Like the SDK
+ * it only captures the arguments, the camera is computed when the update is applied.
+ */
+public final class CameraUpdateFactory {
+
+  public static CameraUpdate newCameraPosition(CameraPosition cameraPosition) {
+    return new PositionUpdate(cameraPosition);
+  }
+
+  public static CameraUpdate newLatLng(LatLng latLng) {
+    return new PositionUpdate(new CameraPosition.Builder().target(latLng).build());
+  }
+
+  public static CameraUpdate newLatLngBounds(
+      LatLngBounds bounds, int paddingLeft, int paddingTop, int paddingRight, int paddingBottom) {
+    return new BoundsUpdate(bounds, paddingLeft, paddingTop, paddingRight, paddingBottom);
+  }
+
+  public static CameraUpdate newLatLngZoom(LatLng latLng, double zoom) {
+    return new PositionUpdate(new CameraPosition.Builder().target(latLng).zoom(zoom).build());
+  }
+
+  public static CameraUpdate zoomBy(double amount) {
+    return new ZoomUpdate(ZoomUpdate.ZOOM_BY, amount, null);
+  }
+
+  public static CameraUpdate zoomBy(double amount, Point focus) {
+    return new ZoomUpdate(ZoomUpdate.ZOOM_BY, amount, focus);
+  }
+
+  public static CameraUpdate zoomIn() {
+    return new ZoomUpdate(ZoomUpdate.ZOOM_IN, 0, null);
+  }
+
+  public static CameraUpdate zoomOut() {
+    return new ZoomUpdate(ZoomUpdate.ZOOM_OUT, 0, null);
+  }
+
+  public static CameraUpdate zoomTo(double zoom) {
+    return new ZoomUpdate(ZoomUpdate.ZOOM_TO, zoom, null);
+  }
+
+  public static CameraUpdate bearingTo(double bearing) {
+    return new PositionUpdate(new CameraPosition.Builder().bearing(bearing).build());
+  }
+
+  public static CameraUpdate tiltTo(double tilt) {
+    return new PositionUpdate(new CameraPosition.Builder().tilt(tilt).build());
+  }
+
+  static final class PositionUpdate implements CameraUpdate {
+    private final CameraPosition cameraPosition;
+
+    PositionUpdate(CameraPosition cameraPosition) {
+      this.cameraPosition = cameraPosition;
+    }
+
+    @Override
+    public CameraPosition getCameraPosition(MapboxMap mapboxMap) {
+      return cameraPosition;
+    }
+  }
+
+  static final class BoundsUpdate implements CameraUpdate {
+    private final LatLngBounds bounds;
+    private final int[] padding;
+
+    BoundsUpdate(LatLngBounds bounds, int left, int top, int right, int bottom) {
+      this.bounds = bounds;
+      this.padding = new int[] {left, top, right, bottom};
+    }
+
+    @Override
+    public CameraPosition getCameraPosition(MapboxMap mapboxMap) {
+      return null;
+    }
+  }
+
+  static final class ZoomUpdate implements CameraUpdate {
+    static final int ZOOM_IN = 0;
+    static final int ZOOM_OUT = 1;
+    static final int ZOOM_BY = 2;
+    static final int ZOOM_TO = 3;
+
+    private final int type;
+    private final double zoom;
+    private final Point focus;
+
+    ZoomUpdate(int type, double zoom, Point focus) {
+      this.type = type;
+      this.zoom = zoom;
+      this.focus = focus;
+    }
+
+    @Override
+    public CameraPosition getCameraPosition(MapboxMap mapboxMap) {
+      return null;
+    }
+  }
+}
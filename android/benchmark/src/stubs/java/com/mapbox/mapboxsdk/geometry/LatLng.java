@@ -0,0 +1,20 @@
+package com.mapbox.mapboxsdk.geometry;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public class LatLng {
+  private final double latitude;
+  private final double longitude;
+
+  public LatLng(double latitude, double longitude) {
+    this.latitude = latitude;
+    this.longitude = longitude;
+  }
+
+  public double getLatitude() {
+    return latitude;
+  }
+
+  public double getLongitude() {
+    return longitude;
+  }
+}
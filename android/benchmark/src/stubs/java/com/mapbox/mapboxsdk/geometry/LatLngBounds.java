@@ -0,0 +1,70 @@
+package com.mapbox.mapboxsdk.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public class LatLngBounds {
+  private final double latitudeNorth;
+  private final double longitudeEast;
+  private final double latitudeSouth;
+  private final double longitudeWest;
+
+  private LatLngBounds(double north, double east, double south, double west) {
+    this.latitudeNorth = north;
+    this.longitudeEast = east;
+    this.latitudeSouth = south;
+    this.longitudeWest = west;
+  }
+
+  public static LatLngBounds from(double north, double east, double south, double west) {
+    return new LatLngBounds(north, east, south, west);
+  }
+
+  public double getLatNorth() {
+    return latitudeNorth;
+  }
+
+  public double getLonEast() {
+    return longitudeEast;
+  }
+
+  public double getLatSouth() {
+    return latitudeSouth;
+  }
+
+  public double getLonWest() {
+    return longitudeWest;
+  }
+
+  public static final class Builder {
+    private final List<LatLng> latLngList = new ArrayList<>();
+
+    public Builder includes(List<LatLng> latLngs) {
+      latLngList.addAll(latLngs);
+      return this;
+    }
+
+    public Builder include(LatLng latLng) {
+      latLngList.add(latLng);
+      return this;
+    }
+
+    public LatLngBounds build() {
+      if (latLngList.size() < 2) {
+        throw new IllegalStateException("Cannot create a LatLngBounds from less than 2 points");
+      }
+      double north = -90;
+      double east = -180;
+      double south = 90;
+      double west = 180;
+      for (LatLng latLng : latLngList) {
+        north = Math.max(north, latLng.getLatitude());
+        south = Math.min(south, latLng.getLatitude());
+        east = Math.max(east, latLng.getLongitude());
+        west = Math.min(west, latLng.getLongitude());
+      }
+      return new LatLngBounds(north, east, south, west);
+    }
+  }
+}
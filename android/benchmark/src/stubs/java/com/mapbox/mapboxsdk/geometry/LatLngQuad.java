@@ -0,0 +1,16 @@
+package com.mapbox.mapboxsdk.geometry;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public class LatLngQuad {
+  private final LatLng topLeft;
+  private final LatLng topRight;
+  private final LatLng bottomRight;
+  private final LatLng bottomLeft;
+
+  public LatLngQuad(LatLng topLeft, LatLng topRight, LatLng bottomRight, LatLng bottomLeft) {
+    this.topLeft = topLeft;
+    this.topRight = topRight;
+    this.bottomRight = bottomRight;
+    this.bottomLeft = bottomLeft;
+  }
+}
@@ -0,0 +1,6 @@
+package com.mapbox.mapboxsdk.maps;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public class MapboxMap {
+  public void scrollBy(float x, float y) {}
+}
@@ -0,0 +1,22 @@
+package com.mapbox.mapboxsdk.maps;
+
+import com.mapbox.mapboxsdk.style.sources.Source;
+import java.util.HashMap;
+import java.util.Map;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public class Style {
+  private final Map<String, Source> sources = new HashMap<>();
+
+  public void addSource(Source source) {
+    sources.put(source.getId(), source);
+  }
+
+  public Source getSource(String id) {
+    return sources.get(id);
+  }
+
+  public boolean removeSource(String id) {
+    return sources.remove(id) != null;
+  }
+}
@@ -0,0 +1,111 @@
+package com.mapbox.mapboxsdk.style.expressions;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. The {@link
+ * Converter} builds the same tree of operators and literals as the SDK does.
+ */
+public class Expression {
+  private final String operator;
+  private final Expression[] arguments;
+
+  Expression() {
+    this.operator = null;
+    this.arguments = null;
+  }
+
+  public Expression(String operator, Expression... arguments) {
+    this.operator = operator;
+    this.arguments = arguments;
+  }
+
+  public static Expression literal(Object object) {
+    return new ExpressionLiteral(object);
+  }
+
+  public String getOperator() {
+    return operator;
+  }
+
+  public Expression[] getArguments() {
+    return arguments;
+  }
+
+  public static class ExpressionLiteral extends Expression {
+    private final Object literal;
+
+    public ExpressionLiteral(Object object) {
+      this.literal = object;
+    }
+
+    public Object getLiteral() {
+      return literal;
+    }
+  }
+
+  public static final class Converter {
+
+    public static Expression convert(JsonArray jsonArray) {
+      if (jsonArray.size() == 0) {
+        throw new IllegalArgumentException("Can't convert empty json array to expression");
+      }
+
+      final String operator = jsonArray.get(0).getAsString();
+      final List<Expression> arguments = new ArrayList<>();
+
+      for (int i = 1; i < jsonArray.size(); i++) {
+        final JsonElement jsonElement = jsonArray.get(i);
+        if (operator.equals("literal") && jsonElement.isJsonArray()) {
+          final JsonArray nestedArray = jsonElement.getAsJsonArray();
+          final Object[] array = new Object[nestedArray.size()];
+          for (int j = 0; j < nestedArray.size(); j++) {
+            array[j] = convertToValue(nestedArray.get(j));
+          }
+          arguments.add(new ExpressionLiteral(array));
+        } else {
+          arguments.add(convert(jsonElement));
+        }
+      }
+      return new Expression(operator, arguments.toArray(new Expression[0]));
+    }
+
+    public static Expression convert(JsonElement jsonElement) {
+      if (jsonElement.isJsonArray()) {
+        return convert(jsonElement.getAsJsonArray());
+      } else if (jsonElement.isJsonNull()) {
+        return new ExpressionLiteral("");
+      }
+      return new ExpressionLiteral(convertToValue(jsonElement));
+    }
+
+    private static Object convertToValue(JsonElement jsonElement) {
+      if (jsonElement.isJsonPrimitive()) {
+        final JsonPrimitive primitive = jsonElement.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+          return primitive.getAsBoolean();
+        } else if (primitive.isNumber()) {
+          return primitive.getAsFloat();
+        }
+        return primitive.getAsString();
+      } else if (jsonElement.isJsonObject()) {
+        final JsonObject jsonObject = jsonElement.getAsJsonObject();
+        final Map<String, Object> map = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : jsonObject.entrySet()) {
+          map.put(entry.getKey(), convertToValue(entry.getValue()));
+        }
+        return map;
+      } else if (jsonElement.isJsonArray()) {
+        return convert(jsonElement.getAsJsonArray());
+      }
+      return "";
+    }
+  }
+}
@@ -0,0 +1,491 @@
+package com.mapbox.mapboxsdk.style.layers;
+
+import com.mapbox.mapboxsdk.style.expressions.Expression;
+
+/**
+ * JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. Contains the
+ * factory methods referenced by LayerPropertyConverter; add new ones when the converter is
+ * regenerated with more properties.
+ */
+public class PropertyFactory {
+
+  public static PropertyValue<Expression> iconOpacity(Expression value) {
+    return new PropertyValue<>("icon-opacity", value);
+  }
+
+  public static PropertyValue<Expression> iconColor(Expression value) {
+    return new PropertyValue<>("icon-color", value);
+  }
+
+  public static PropertyValue<Expression> iconHaloColor(Expression value) {
+    return new PropertyValue<>("icon-halo-color", value);
+  }
+
+  public static PropertyValue<Expression> iconHaloWidth(Expression value) {
+    return new PropertyValue<>("icon-halo-width", value);
+  }
+
+  public static PropertyValue<Expression> iconHaloBlur(Expression value) {
+    return new PropertyValue<>("icon-halo-blur", value);
+  }
+
+  public static PropertyValue<Expression> iconTranslate(Expression value) {
+    return new PropertyValue<>("icon-translate", value);
+  }
+
+  public static PropertyValue<Expression> iconTranslateAnchor(Expression value) {
+    return new PropertyValue<>("icon-translate-anchor", value);
+  }
+
+  public static PropertyValue<Expression> textOpacity(Expression value) {
+    return new PropertyValue<>("text-opacity", value);
+  }
+
+  public static PropertyValue<Expression> textColor(Expression value) {
+    return new PropertyValue<>("text-color", value);
+  }
+
+  public static PropertyValue<Expression> textHaloColor(Expression value) {
+    return new PropertyValue<>("text-halo-color", value);
+  }
+
+  public static PropertyValue<Expression> textHaloWidth(Expression value) {
+    return new PropertyValue<>("text-halo-width", value);
+  }
+
+  public static PropertyValue<Expression> textHaloBlur(Expression value) {
+    return new PropertyValue<>("text-halo-blur", value);
+  }
+
+  public static PropertyValue<Expression> textTranslate(Expression value) {
+    return new PropertyValue<>("text-translate", value);
+  }
+
+  public static PropertyValue<Expression> textTranslateAnchor(Expression value) {
+    return new PropertyValue<>("text-translate-anchor", value);
+  }
+
+  public static PropertyValue<Expression> symbolPlacement(Expression value) {
+    return new PropertyValue<>("symbol-placement", value);
+  }
+
+  public static PropertyValue<Expression> symbolSpacing(Expression value) {
+    return new PropertyValue<>("symbol-spacing", value);
+  }
+
+  public static PropertyValue<Expression> symbolAvoidEdges(Expression value) {
+    return new PropertyValue<>("symbol-avoid-edges", value);
+  }
+
+  public static PropertyValue<Expression> symbolSortKey(Expression value) {
+    return new PropertyValue<>("symbol-sort-key", value);
+  }
+
+  public static PropertyValue<Expression> symbolZOrder(Expression value) {
+    return new PropertyValue<>("symbol-z-order", value);
+  }
+
+  public static PropertyValue<Expression> iconAllowOverlap(Expression value) {
+    return new PropertyValue<>("icon-allow-overlap", value);
+  }
+
+  public static PropertyValue<Expression> iconIgnorePlacement(Expression value) {
+    return new PropertyValue<>("icon-ignore-placement", value);
+  }
+
+  public static PropertyValue<Expression> iconOptional(Expression value) {
+    return new PropertyValue<>("icon-optional", value);
+  }
+
+  public static PropertyValue<Expression> iconRotationAlignment(Expression value) {
+    return new PropertyValue<>("icon-rotation-alignment", value);
+  }
+
+  public static PropertyValue<Expression> iconSize(Expression value) {
+    return new PropertyValue<>("icon-size", value);
+  }
+
+  public static PropertyValue<Expression> iconTextFit(Expression value) {
+    return new PropertyValue<>("icon-text-fit", value);
+  }
+
+  public static PropertyValue<Expression> iconTextFitPadding(Expression value) {
+    return new PropertyValue<>("icon-text-fit-padding", value);
+  }
+
+  public static PropertyValue<Expression> iconRotate(Expression value) {
+    return new PropertyValue<>("icon-rotate", value);
+  }
+
+  public static PropertyValue<Expression> iconPadding(Expression value) {
+    return new PropertyValue<>("icon-padding", value);
+  }
+
+  public static PropertyValue<Expression> iconKeepUpright(Expression value) {
+    return new PropertyValue<>("icon-keep-upright", value);
+  }
+
+  public static PropertyValue<Expression> iconOffset(Expression value) {
+    return new PropertyValue<>("icon-offset", value);
+  }
+
+  public static PropertyValue<Expression> iconAnchor(Expression value) {
+    return new PropertyValue<>("icon-anchor", value);
+  }
+
+  public static PropertyValue<Expression> iconPitchAlignment(Expression value) {
+    return new PropertyValue<>("icon-pitch-alignment", value);
+  }
+
+  public static PropertyValue<Expression> textPitchAlignment(Expression value) {
+    return new PropertyValue<>("text-pitch-alignment", value);
+  }
+
+  public static PropertyValue<Expression> textRotationAlignment(Expression value) {
+    return new PropertyValue<>("text-rotation-alignment", value);
+  }
+
+  public static PropertyValue<Expression> textField(Expression value) {
+    return new PropertyValue<>("text-field", value);
+  }
+
+  public static PropertyValue<Expression> textFont(Expression value) {
+    return new PropertyValue<>("text-font", value);
+  }
+
+  public static PropertyValue<Expression> textSize(Expression value) {
+    return new PropertyValue<>("text-size", value);
+  }
+
+  public static PropertyValue<Expression> textMaxWidth(Expression value) {
+    return new PropertyValue<>("text-max-width", value);
+  }
+
+  public static PropertyValue<Expression> textLineHeight(Expression value) {
+    return new PropertyValue<>("text-line-height", value);
+  }
+
+  public static PropertyValue<Expression> textLetterSpacing(Expression value) {
+    return new PropertyValue<>("text-letter-spacing", value);
+  }
+
+  public static PropertyValue<Expression> textJustify(Expression value) {
+    return new PropertyValue<>("text-justify", value);
+  }
+
+  public static PropertyValue<Expression> textRadialOffset(Expression value) {
+    return new PropertyValue<>("text-radial-offset", value);
+  }
+
+  public static PropertyValue<Expression> textVariableAnchor(Expression value) {
+    return new PropertyValue<>("text-variable-anchor", value);
+  }
+
+  public static PropertyValue<Expression> textAnchor(Expression value) {
+    return new PropertyValue<>("text-anchor", value);
+  }
+
+  public static PropertyValue<Expression> textMaxAngle(Expression value) {
+    return new PropertyValue<>("text-max-angle", value);
+  }
+
+  public static PropertyValue<Expression> textWritingMode(Expression value) {
+    return new PropertyValue<>("text-writing-mode", value);
+  }
+
+  public static PropertyValue<Expression> textRotate(Expression value) {
+    return new PropertyValue<>("text-rotate", value);
+  }
+
+  public static PropertyValue<Expression> textPadding(Expression value) {
+    return new PropertyValue<>("text-padding", value);
+  }
+
+  public static PropertyValue<Expression> textKeepUpright(Expression value) {
+    return new PropertyValue<>("text-keep-upright", value);
+  }
+
+  public static PropertyValue<Expression> textTransform(Expression value) {
+    return new PropertyValue<>("text-transform", value);
+  }
+
+  public static PropertyValue<Expression> textOffset(Expression value) {
+    return new PropertyValue<>("text-offset", value);
+  }
+
+  public static PropertyValue<Expression> textAllowOverlap(Expression value) {
+    return new PropertyValue<>("text-allow-overlap", value);
+  }
+
+  public static PropertyValue<Expression> textIgnorePlacement(Expression value) {
+    return new PropertyValue<>("text-ignore-placement", value);
+  }
+
+  public static PropertyValue<Expression> textOptional(Expression value) {
+    return new PropertyValue<>("text-optional", value);
+  }
+
+  public static PropertyValue<Expression> iconImage(Expression value) {
+    return new PropertyValue<>("icon-image", value);
+  }
+
+  public static PropertyValue<String> iconImage(String value) {
+    return new PropertyValue<>("icon-image", value);
+  }
+
+  public static PropertyValue<String> visibility(String value) {
+    return new PropertyValue<>("visibility", value);
+  }
+
+  public static PropertyValue<Expression> circleRadius(Expression value) {
+    return new PropertyValue<>("circle-radius", value);
+  }
+
+  public static PropertyValue<Expression> circleColor(Expression value) {
+    return new PropertyValue<>("circle-color", value);
+  }
+
+  public static PropertyValue<Expression> circleBlur(Expression value) {
+    return new PropertyValue<>("circle-blur", value);
+  }
+
+  public static PropertyValue<Expression> circleOpacity(Expression value) {
+    return new PropertyValue<>("circle-opacity", value);
+  }
+
+  public static PropertyValue<Expression> circleTranslate(Expression value) {
+    return new PropertyValue<>("circle-translate", value);
+  }
+
+  public static PropertyValue<Expression> circleTranslateAnchor(Expression value) {
+    return new PropertyValue<>("circle-translate-anchor", value);
+  }
+
+  public static PropertyValue<Expression> circlePitchScale(Expression value) {
+    return new PropertyValue<>("circle-pitch-scale", value);
+  }
+
+  public static PropertyValue<Expression> circlePitchAlignment(Expression value) {
+    return new PropertyValue<>("circle-pitch-alignment", value);
+  }
+
+  public static PropertyValue<Expression> circleStrokeWidth(Expression value) {
+    return new PropertyValue<>("circle-stroke-width", value);
+  }
+
+  public static PropertyValue<Expression> circleStrokeColor(Expression value) {
+    return new PropertyValue<>("circle-stroke-color", value);
+  }
+
+  public static PropertyValue<Expression> circleStrokeOpacity(Expression value) {
+    return new PropertyValue<>("circle-stroke-opacity", value);
+  }
+
+  public static PropertyValue<Expression> circleSortKey(Expression value) {
+    return new PropertyValue<>("circle-sort-key", value);
+  }
+
+  public static PropertyValue<Expression> lineOpacity(Expression value) {
+    return new PropertyValue<>("line-opacity", value);
+  }
+
+  public static PropertyValue<Expression> lineColor(Expression value) {
+    return new PropertyValue<>("line-color", value);
+  }
+
+  public static PropertyValue<Expression> lineTranslate(Expression value) {
+    return new PropertyValue<>("line-translate", value);
+  }
+
+  public static PropertyValue<Expression> lineTranslateAnchor(Expression value) {
+    return new PropertyValue<>("line-translate-anchor", value);
+  }
+
+  public static PropertyValue<Expression> lineWidth(Expression value) {
+    return new PropertyValue<>("line-width", value);
+  }
+
+  public static PropertyValue<Expression> lineGapWidth(Expression value) {
+    return new PropertyValue<>("line-gap-width", value);
+  }
+
+  public static PropertyValue<Expression> lineOffset(Expression value) {
+    return new PropertyValue<>("line-offset", value);
+  }
+
+  public static PropertyValue<Expression> lineBlur(Expression value) {
+    return new PropertyValue<>("line-blur", value);
+  }
+
+  public static PropertyValue<Expression> lineDasharray(Expression value) {
+    return new PropertyValue<>("line-dasharray", value);
+  }
+
+  public static PropertyValue<Expression> linePattern(Expression value) {
+    return new PropertyValue<>("line-pattern", value);
+  }
+
+  public static PropertyValue<Expression> lineGradient(Expression value) {
+    return new PropertyValue<>("line-gradient", value);
+  }
+
+  public static PropertyValue<Expression> lineCap(Expression value) {
+    return new PropertyValue<>("line-cap", value);
+  }
+
+  public static PropertyValue<Expression> lineJoin(Expression value) {
+    return new PropertyValue<>("line-join", value);
+  }
+
+  public static PropertyValue<Expression> lineMiterLimit(Expression value) {
+    return new PropertyValue<>("line-miter-limit", value);
+  }
+
+  public static PropertyValue<Expression> lineRoundLimit(Expression value) {
+    return new PropertyValue<>("line-round-limit", value);
+  }
+
+  public static PropertyValue<Expression> lineSortKey(Expression value) {
+    return new PropertyValue<>("line-sort-key", value);
+  }
+
+  public static PropertyValue<Expression> fillAntialias(Expression value) {
+    return new PropertyValue<>("fill-antialias", value);
+  }
+
+  public static PropertyValue<Expression> fillOpacity(Expression value) {
+    return new PropertyValue<>("fill-opacity", value);
+  }
+
+  public static PropertyValue<Expression> fillColor(Expression value) {
+    return new PropertyValue<>("fill-color", value);
+  }
+
+  public static PropertyValue<Expression> fillOutlineColor(Expression value) {
+    return new PropertyValue<>("fill-outline-color", value);
+  }
+
+  public static PropertyValue<Expression> fillTranslate(Expression value) {
+    return new PropertyValue<>("fill-translate", value);
+  }
+
+  public static PropertyValue<Expression> fillTranslateAnchor(Expression value) {
+    return new PropertyValue<>("fill-translate-anchor", value);
+  }
+
+  public static PropertyValue<Expression> fillPattern(Expression value) {
+    return new PropertyValue<>("fill-pattern", value);
+  }
+
+  public static PropertyValue<Expression> fillSortKey(Expression value) {
+    return new PropertyValue<>("fill-sort-key", value);
+  }
+
+  public static PropertyValue<Expression> fillExtrusionOpacity(Expression value) {
+    return new PropertyValue<>("fill-extrusion-opacity", value);
+  }
+
+  public static PropertyValue<Expression> fillExtrusionColor(Expression value) {
+    return new PropertyValue<>("fill-extrusion-color", value);
+  }
+
+  public static PropertyValue<Expression> fillExtrusionTranslate(Expression value) {
+    return new PropertyValue<>("fill-extrusion-translate", value);
+  }
+
+  public static PropertyValue<Expression> fillExtrusionTranslateAnchor(Expression value) {
+    return new PropertyValue<>("fill-extrusion-translate-anchor", value);
+  }
+
+  public static PropertyValue<Expression> fillExtrusionPattern(Expression value) {
+    return new PropertyValue<>("fill-extrusion-pattern", value);
+  }
+
+  public static PropertyValue<Expression> fillExtrusionHeight(Expression value) {
+    return new PropertyValue<>("fill-extrusion-height", value);
+  }
+
+  public static PropertyValue<Expression> fillExtrusionBase(Expression value) {
+    return new PropertyValue<>("fill-extrusion-base", value);
+  }
+
+  public static PropertyValue<Expression> fillExtrusionVerticalGradient(Expression value) {
+    return new PropertyValue<>("fill-extrusion-vertical-gradient", value);
+  }
+
+  public static PropertyValue<Expression> rasterOpacity(Expression value) {
+    return new PropertyValue<>("raster-opacity", value);
+  }
+
+  public static PropertyValue<Expression> rasterHueRotate(Expression value) {
+    return new PropertyValue<>("raster-hue-rotate", value);
+  }
+
+  public static PropertyValue<Expression> rasterBrightnessMin(Expression value) {
+    return new PropertyValue<>("raster-brightness-min", value);
+  }
+
+  public static PropertyValue<Expression> rasterBrightnessMax(Expression value) {
+    return new PropertyValue<>("raster-brightness-max", value);
+  }
+
+  public static PropertyValue<Expression> rasterSaturation(Expression value) {
+    return new PropertyValue<>("raster-saturation", value);
+  }
+
+  public static PropertyValue<Expression> rasterContrast(Expression value) {
+    return new PropertyValue<>("raster-contrast", value);
+  }
+
+  public static PropertyValue<Expression> rasterResampling(Expression value) {
+    return new PropertyValue<>("raster-resampling", value);
+  }
+
+  public static PropertyValue<Expression> rasterFadeDuration(Expression value) {
+    return new PropertyValue<>("raster-fade-duration", value);
+  }
+
+  public static PropertyValue<Expression> hillshadeIlluminationDirection(Expression value) {
+    return new PropertyValue<>("hillshade-illumination-direction", value);
+  }
+
+  public static PropertyValue<Expression> hillshadeIlluminationAnchor(Expression value) {
+    return new PropertyValue<>("hillshade-illumination-anchor", value);
+  }
+
+  public static PropertyValue<Expression> hillshadeExaggeration(Expression value) {
+    return new PropertyValue<>("hillshade-exaggeration", value);
+  }
+
+  public static PropertyValue<Expression> hillshadeShadowColor(Expression value) {
+    return new PropertyValue<>("hillshade-shadow-color", value);
+  }
+
+  public static PropertyValue<Expression> hillshadeHighlightColor(Expression value) {
+    return new PropertyValue<>("hillshade-highlight-color", value);
+  }
+
+  public static PropertyValue<Expression> hillshadeAccentColor(Expression value) {
+    return new PropertyValue<>("hillshade-accent-color", value);
+  }
+
+  public static PropertyValue<Expression> heatmapRadius(Expression value) {
+    return new PropertyValue<>("heatmap-radius", value);
+  }
+
+  public static PropertyValue<Expression> heatmapWeight(Expression value) {
+    return new PropertyValue<>("heatmap-weight", value);
+  }
+
+  public static PropertyValue<Expression> heatmapIntensity(Expression value) {
+    return new PropertyValue<>("heatmap-intensity", value);
+  }
+
+  public static PropertyValue<Expression> heatmapColor(Expression value) {
+    return new PropertyValue<>("heatmap-color", value);
+  }
+
+  public static PropertyValue<Expression> heatmapOpacity(Expression value) {
+    return new PropertyValue<>("heatmap-opacity", value);
+  }
+}
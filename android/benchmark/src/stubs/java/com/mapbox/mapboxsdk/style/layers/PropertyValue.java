@@ -0,0 +1,12 @@
+package com.mapbox.mapboxsdk.style.layers;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public class PropertyValue<T> {
+  public final String name;
+  public final T value;
+
+  public PropertyValue(String name, T value) {
+    this.name = name;
+    this.value = value;
+  }
+}
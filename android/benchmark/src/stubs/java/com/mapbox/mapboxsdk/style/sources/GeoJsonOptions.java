@@ -0,0 +1,47 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+import java.util.HashMap;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public class GeoJsonOptions extends HashMap<String, Object> {
+
+  public GeoJsonOptions withMinZoom(int minZoom) {
+    this.put("minzoom", minZoom);
+    return this;
+  }
+
+  public GeoJsonOptions withMaxZoom(int maxZoom) {
+    this.put("maxzoom", maxZoom);
+    return this;
+  }
+
+  public GeoJsonOptions withBuffer(int buffer) {
+    this.put("buffer", buffer);
+    return this;
+  }
+
+  public GeoJsonOptions withLineMetrics(boolean lineMetrics) {
+    this.put("lineMetrics", lineMetrics);
+    return this;
+  }
+
+  public GeoJsonOptions withTolerance(float tolerance) {
+    this.put("tolerance", tolerance);
+    return this;
+  }
+
+  public GeoJsonOptions withCluster(boolean cluster) {
+    this.put("cluster", cluster);
+    return this;
+  }
+
+  public GeoJsonOptions withClusterMaxZoom(int clusterMaxZoom) {
+    this.put("clusterMaxZoom", clusterMaxZoom);
+    return this;
+  }
+
+  public GeoJsonOptions withClusterRadius(int clusterRadius) {
+    this.put("clusterRadius", clusterRadius);
+    return this;
+  }
+}
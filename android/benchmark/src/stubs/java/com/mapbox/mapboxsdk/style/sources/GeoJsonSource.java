@@ -0,0 +1,34 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+import com.mapbox.geojson.FeatureCollection;
+import java.net.URI;
+
+/**
+ * JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. The data is
+ * only referenced, the cost of handing it to the native renderer is not part of the benchmarks.
+ */
+public class GeoJsonSource extends Source {
+  private FeatureCollection featureCollection;
+  private URI uri;
+
+  public GeoJsonSource(String id) {
+    super(id);
+  }
+
+  public GeoJsonSource(String id, GeoJsonOptions options) {
+    super(id);
+  }
+
+  public GeoJsonSource(String id, URI uri, GeoJsonOptions options) {
+    super(id);
+    this.uri = uri;
+  }
+
+  public void setGeoJson(FeatureCollection featureCollection) {
+    this.featureCollection = featureCollection;
+  }
+
+  public FeatureCollection getFeatureCollection() {
+    return featureCollection;
+  }
+}
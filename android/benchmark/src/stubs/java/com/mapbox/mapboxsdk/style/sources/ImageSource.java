@@ -0,0 +1,11 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+import com.mapbox.mapboxsdk.geometry.LatLngQuad;
+import java.net.URI;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public class ImageSource extends Source {
+  public ImageSource(String id, LatLngQuad coordinates, URI uri) {
+    super(id);
+  }
+}
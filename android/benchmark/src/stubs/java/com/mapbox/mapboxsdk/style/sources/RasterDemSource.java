@@ -0,0 +1,14 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+import java.net.URI;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public class RasterDemSource extends Source {
+  public RasterDemSource(String id, URI uri) {
+    super(id);
+  }
+
+  public RasterDemSource(String id, TileSet tileSet) {
+    super(id);
+  }
+}
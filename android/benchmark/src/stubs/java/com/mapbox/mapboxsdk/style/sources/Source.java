@@ -0,0 +1,14 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public abstract class Source {
+  private final String id;
+
+  protected Source(String id) {
+    this.id = id;
+  }
+
+  public String getId() {
+    return id;
+  }
+}
@@ -0,0 +1,37 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public class TileSet {
+  private final String tilejson;
+  private final String[] tiles;
+  private String attribution;
+  private String scheme;
+  private Float minZoom;
+  private Float maxZoom;
+  private Float[] bounds;
+
+  public TileSet(String tilejson, String... tiles) {
+    this.tilejson = tilejson;
+    this.tiles = tiles;
+  }
+
+  public void setAttribution(String attribution) {
+    this.attribution = attribution;
+  }
+
+  public void setScheme(String scheme) {
+    this.scheme = scheme;
+  }
+
+  public void setMinZoom(float minZoom) {
+    this.minZoom = minZoom;
+  }
+
+  public void setMaxZoom(float maxZoom) {
+    this.maxZoom = maxZoom;
+  }
+
+  public void setBounds(Float... bounds) {
+    this.bounds = bounds;
+  }
+}
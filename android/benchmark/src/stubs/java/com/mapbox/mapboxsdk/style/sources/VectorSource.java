@@ -0,0 +1,14 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+import android.net.Uri;
+
+/** JVM stub of the Mapbox SDK class, only covers what the benchmarked plugin code uses. */
+public class VectorSource extends Source {
+  public VectorSource(String id, Uri uri) {
+    super(id);
+  }
+
+  public VectorSource(String id, TileSet tileSet) {
+    super(id);
+  }
+}
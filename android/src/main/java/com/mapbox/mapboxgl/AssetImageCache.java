@@ -0,0 +1,236 @@
+package com.mapbox.mapboxgl;
+
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LRU cache of the bitmaps decoded from Flutter assets for missing style images, keyed by image id
+ * and density bucket.
+ *
+ * <p>Styles report the same missing images every time they are loaded, so decoded bitmaps are kept
+ * across style reloads and shared by all maps. The style copies the pixels of a bitmap when it is
+ * added, so cached bitmaps can be handed to any number of styles, and evicted ones can be decoded
+ * into again if bitmap reuse is enabled. Image ids without a matching asset are remembered as well,
+ * so they are not looked up again.
+ */
+class AssetImageCache {
+  static final int MAX_MISSING_IMAGES = 256;
+  static final int MAX_REUSABLE_BITMAPS = 8;
+
+  private static final AssetImageCache instance = new AssetImageCache(defaultMaxBytes());
+
+  private final LinkedHashMap<String, Bitmap> bitmaps = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<String, Boolean> missingImages =
+      new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+          return size() > MAX_MISSING_IMAGES;
+        }
+      };
+  // Evicted bitmaps whose memory can be reused for decoding, only kept if reuse is enabled.
+  private final List<Bitmap> reusableBitmaps = new ArrayList<>();
+  private long maxBytes;
+  private long sizeBytes = 0;
+  private boolean reuseBitmaps = false;
+  private int maxDimension = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+  private long reuseCount = 0;
+
+  AssetImageCache(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  static AssetImageCache getInstance() {
+    return instance;
+  }
+
+  private static long defaultMaxBytes() {
+    return Runtime.getRuntime().maxMemory() / 16;
+  }
+
+  /**
+   * Returns the bitmap for the image id in the best resolution available for the density, decoding
+   * it on a miss. Returns null if there is no asset for the image id.
+   */
+  synchronized Bitmap get(AssetManager assets, String imageId, float density) {
+    final int densityBucket = Math.max(1, (int) Math.ceil(density));
+    final String key = densityBucket + "/" + imageId;
+    Bitmap bitmap = bitmaps.get(key);
+    if (bitmap != null) {
+      hitCount++;
+      return bitmap;
+    }
+    if (missingImages.containsKey(key)) {
+      hitCount++;
+      return null;
+    }
+    missCount++;
+    bitmap = decodeScaledImage(assets, imageId, densityBucket);
+    if (bitmap == null) {
+      missingImages.put(key, Boolean.TRUE);
+    } else if (maxBytes > 0) {
+      bitmaps.put(key, bitmap);
+      sizeBytes += bitmap.getByteCount();
+      trimToSize(maxBytes);
+    }
+    return bitmap;
+  }
+
+  /** Applies the options of a {@code style#setImageCacheOptions} call. */
+  synchronized void setOptions(Map<?, ?> options) {
+    final Object maxBytes = options.get("maxBytes");
+    if (maxBytes != null) {
+      this.maxBytes = Math.max(0, ((Number) maxBytes).longValue());
+      trimToSize(this.maxBytes);
+    }
+    final Object reuseBitmaps = options.get("reuseBitmaps");
+    if (reuseBitmaps != null) {
+      this.reuseBitmaps = Convert.toBoolean(reuseBitmaps);
+      if (!this.reuseBitmaps) {
+        reusableBitmaps.clear();
+      }
+    }
+    final Object maxDimension = options.get("maxDimension");
+    if (maxDimension != null) {
+      this.maxDimension = Math.max(0, Convert.toInt(maxDimension));
+      // cached bitmaps may have been decoded with a different limit
+      trimToSize(0);
+      missingImages.clear();
+    }
+  }
+
+  synchronized void clear() {
+    trimToSize(0);
+    missingImages.clear();
+    reusableBitmaps.clear();
+  }
+
+  synchronized Map<String, Object> getStats() {
+    final Map<String, Object> stats = new HashMap<>();
+    stats.put("hits", hitCount);
+    stats.put("misses", missCount);
+    stats.put("evictions", evictionCount);
+    stats.put("reused", reuseCount);
+    stats.put("size", bitmaps.size());
+    stats.put("missingImages", missingImages.size());
+    stats.put("bytes", sizeBytes);
+    stats.put("maxBytes", maxBytes);
+    return stats;
+  }
+
+  private void trimToSize(long maxBytes) {
+    final Iterator<Bitmap> eldest = bitmaps.values().iterator();
+    while (sizeBytes > maxBytes && eldest.hasNext()) {
+      final Bitmap bitmap = eldest.next();
+      eldest.remove();
+      sizeBytes -= bitmap.getByteCount();
+      evictionCount++;
+      if (reuseBitmaps && bitmap.isMutable() && reusableBitmaps.size() < MAX_REUSABLE_BITMAPS) {
+        reusableBitmaps.add(bitmap);
+      }
+    }
+  }
+
+  /**
+   * Decodes the asset with the highest resolution that is not above the density bucket.
+   *
+   * <p>"On devices with a device pixel ratio of 1.8, the asset .../2.0x/my_icon.png would be
+   * chosen. For a device pixel ratio of 2.7, the asset .../3.0x/my_icon.png would be chosen."
+   * Source: https://flutter.dev/docs/development/ui/assets-and-images#resolution-aware
+   */
+  private Bitmap decodeScaledImage(AssetManager assets, String imageId, int densityBucket) {
+    final int nameStart = imageId.lastIndexOf('/') + 1;
+    for (int i = densityBucket; i > 0; i--) {
+      final String assetPath;
+      if (i == 1) {
+        // If density is 1.0x then simply take the default asset path
+        assetPath = MapboxMapsPlugin.flutterAssets.getAssetFilePathByName(imageId);
+      } else {
+        // <directory asset>/<ratio>/<image name> where ratio is 2.0x, 3.0x, ...
+        assetPath =
+            MapboxMapsPlugin.flutterAssets.getAssetFilePathByName(
+                imageId.substring(0, nameStart)
+                    + ((float) i)
+                    + "x/"
+                    + imageId.substring(nameStart));
+      }
+      try {
+        return decode(assets, assetPath);
+      } catch (IOException e) {
+        // No asset for this ratio, try the next lower one
+      }
+    }
+    return null;
+  }
+
+  private Bitmap decode(AssetManager assets, String assetPath) throws IOException {
+    final BitmapFactory.Options options = new BitmapFactory.Options();
+    options.inSampleSize = 1;
+    if (maxDimension > 0 || reuseBitmaps) {
+      options.inJustDecodeBounds = true;
+      decodeAsset(assets, assetPath, options);
+      options.inJustDecodeBounds = false;
+      while (maxDimension > 0
+          && Math.max(options.outWidth, options.outHeight) / options.inSampleSize > maxDimension) {
+        options.inSampleSize *= 2;
+      }
+      if (reuseBitmaps) {
+        options.inMutable = true;
+        options.inBitmap =
+            takeReusableBitmap(
+                (options.outWidth / options.inSampleSize)
+                    * (options.outHeight / options.inSampleSize)
+                    * 4);
+      }
+    }
+    Bitmap bitmap;
+    try {
+      bitmap = decodeAsset(assets, assetPath, options);
+      if (options.inBitmap != null) {
+        reuseCount++;
+      }
+    } catch (IllegalArgumentException e) {
+      // the reused bitmap does not fit after all
+      options.inBitmap = null;
+      bitmap = decodeAsset(assets, assetPath, options);
+    }
+    if (bitmap != null && options.inSampleSize > 1) {
+      // keep the size the image is drawn with, only its resolution is reduced
+      bitmap.setDensity(bitmap.getDensity() / options.inSampleSize);
+    }
+    return bitmap;
+  }
+
+  private Bitmap takeReusableBitmap(int byteCount) {
+    for (int i = 0; i < reusableBitmaps.size(); i++) {
+      if (reusableBitmaps.get(i).getAllocationByteCount() >= byteCount) {
+        return reusableBitmaps.remove(i);
+      }
+    }
+    return null;
+  }
+
+  private static Bitmap decodeAsset(
+      AssetManager assets, String assetPath, BitmapFactory.Options options) throws IOException {
+    // Read path (throws exception if doesn't exist).
+    final AssetFileDescriptor assetFileDescriptor = assets.openFd(assetPath);
+    try {
+      final InputStream assetStream = assetFileDescriptor.createInputStream();
+      return BitmapFactory.decodeStream(assetStream, null, options);
+    } finally {
+      assetFileDescriptor.close(); // Close for memory
+    }
+  }
+}
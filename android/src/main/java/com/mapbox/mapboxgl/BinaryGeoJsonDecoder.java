@@ -0,0 +1,176 @@
+package com.mapbox.mapboxgl;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.FeatureCollection;
+import com.mapbox.geojson.Geometry;
+import com.mapbox.geojson.LineString;
+import com.mapbox.geojson.MultiLineString;
+import com.mapbox.geojson.MultiPoint;
+import com.mapbox.geojson.MultiPolygon;
+import com.mapbox.geojson.Point;
+import com.mapbox.geojson.Polygon;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes the packed feature layout sent by the Dart side into GeoJSON features, without going
+ * through a JSON string.
+ *
+ * <p>The layout consists of
+ *
+ * <ul>
+ *   <li>{@code geometryTypes}: one type code per feature, see the {@code TYPE_*} constants,
+ *   <li>{@code coordinates}: all coordinates as flat longitude/latitude pairs,
+ *   <li>{@code parts}: the counts describing how the coordinates are grouped: nothing for a point,
+ *       the number of points for a line string or multi point, the number of lines or rings
+ *       followed by their point counts for a multi line string or polygon, and the number of
+ *       polygons followed by the polygon counts for a multi polygon,
+ *   <li>{@code ids}: an optional id per feature,
+ *   <li>{@code propertyKeys} and {@code propertyValues}: an optional property table with one column
+ *       of values per key and one row per feature.
+ * </ul>
+ */
+class BinaryGeoJsonDecoder {
+  static final int TYPE_POINT = 1;
+  static final int TYPE_LINE_STRING = 2;
+  static final int TYPE_POLYGON = 3;
+  static final int TYPE_MULTI_POINT = 4;
+  static final int TYPE_MULTI_LINE_STRING = 5;
+  static final int TYPE_MULTI_POLYGON = 6;
+
+  private final byte[] geometryTypes;
+  private final int[] parts;
+  private final double[] coordinates;
+  private final List<String> ids;
+  private final List<String> propertyKeys;
+  private final List<List<Object>> propertyValues;
+  private final Gson gson = new Gson();
+  private int partIndex = 0;
+  private int coordinateIndex = 0;
+
+  private BinaryGeoJsonDecoder(Map<String, Object> data) {
+    this.geometryTypes = (byte[]) data.get("geometryTypes");
+    this.parts = data.get("parts") != null ? (int[]) data.get("parts") : new int[0];
+    this.coordinates = (double[]) data.get("coordinates");
+    this.ids = (List<String>) data.get("ids");
+    this.propertyKeys = (List<String>) data.get("propertyKeys");
+    this.propertyValues = (List<List<Object>>) data.get("propertyValues");
+  }
+
+  /** Decodes the arguments of a {@code source#addBinary} or {@code source#setBinary} call. */
+  static FeatureCollection decode(Map<String, Object> data) {
+    return new BinaryGeoJsonDecoder(data).decode();
+  }
+
+  private FeatureCollection decode() {
+    if (geometryTypes == null || coordinates == null) {
+      throw new IllegalArgumentException("geometryTypes and coordinates are required");
+    }
+    if (coordinates.length % 2 != 0) {
+      throw new IllegalArgumentException("coordinates must contain longitude/latitude pairs");
+    }
+    final List<Feature> features = new ArrayList<>(geometryTypes.length);
+    for (int i = 0; i < geometryTypes.length; i++) {
+      final Geometry geometry = readGeometry(geometryTypes[i]);
+      final String id = ids != null ? ids.get(i) : null;
+      features.add(Feature.fromGeometry(geometry, readProperties(i), id));
+    }
+    if (coordinateIndex != coordinates.length || partIndex != parts.length) {
+      throw new IllegalArgumentException("coordinates or parts do not match the geometry types");
+    }
+    return FeatureCollection.fromFeatures(features);
+  }
+
+  private Geometry readGeometry(int type) {
+    switch (type) {
+      case TYPE_POINT:
+        return readPoint();
+      case TYPE_LINE_STRING:
+        return LineString.fromLngLats(readPoints());
+      case TYPE_POLYGON:
+        return Polygon.fromLngLats(readLines());
+      case TYPE_MULTI_POINT:
+        return MultiPoint.fromLngLats(readPoints());
+      case TYPE_MULTI_LINE_STRING:
+        return MultiLineString.fromLngLats(readLines());
+      case TYPE_MULTI_POLYGON:
+        {
+          final int count = readPart();
+          final List<List<List<Point>>> polygons = new ArrayList<>(count);
+          for (int i = 0; i < count; i++) {
+            polygons.add(readLines());
+          }
+          return MultiPolygon.fromLngLats(polygons);
+        }
+      default:
+        throw new IllegalArgumentException("Unknown geometry type " + type);
+    }
+  }
+
+  private int readPart() {
+    if (partIndex >= parts.length) {
+      throw new IllegalArgumentException("parts do not match the geometry types");
+    }
+    return parts[partIndex++];
+  }
+
+  private Point readPoint() {
+    if (coordinateIndex + 2 > coordinates.length) {
+      throw new IllegalArgumentException("coordinates do not match the geometry types");
+    }
+    final double longitude = coordinates[coordinateIndex++];
+    final double latitude = coordinates[coordinateIndex++];
+    return Point.fromLngLat(longitude, latitude);
+  }
+
+  private List<Point> readPoints() {
+    final int count = readPart();
+    final List<Point> points = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      points.add(readPoint());
+    }
+    return points;
+  }
+
+  private List<List<Point>> readLines() {
+    final int count = readPart();
+    final List<List<Point>> lines = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      lines.add(readPoints());
+    }
+    return lines;
+  }
+
+  private JsonObject readProperties(int featureIndex) {
+    final JsonObject properties = new JsonObject();
+    if (propertyKeys == null || propertyValues == null) {
+      return properties;
+    }
+    for (int i = 0; i < propertyKeys.size(); i++) {
+      final Object value = propertyValues.get(i).get(featureIndex);
+      if (value != null) {
+        properties.add(propertyKeys.get(i), toJsonElement(value));
+      }
+    }
+    return properties;
+  }
+
+  private JsonElement toJsonElement(Object value) {
+    if (value instanceof String) {
+      return new JsonPrimitive((String) value);
+    } else if (value instanceof Number) {
+      return new JsonPrimitive((Number) value);
+    } else if (value instanceof Boolean) {
+      return new JsonPrimitive((Boolean) value);
+    } else if (value == null) {
+      return JsonNull.INSTANCE;
+    }
+    return gson.toJsonTree(value);
+  }
+}
@@ -3,47 +3,192 @@ package com.mapbox.mapboxgl;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Base64;
 import android.util.Log;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /** Created by nickitaliano on 10/9/17. */
 public class BitmapUtils {
   private static final String LOG_TAG = "BitmapUtils";
+  private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+  private static ExecutorService encoderExecutor;
+
+  /** The format, quality and destination of an encoded bitmap. */
+  static class EncodeOptions {
+    static final String OUTPUT_FILE = "file";
+    static final String OUTPUT_BASE64 = "base64";
+    static final String OUTPUT_BYTES = "bytes";
+
+    final Bitmap.CompressFormat format;
+    final int quality;
+    final String output;
+    final String filePath;
+
+    /**
+     * @param format "jpeg", "png" or "webp", JPEG if null
+     * @param quality 0 to 100, ignored for PNG, 100 if null
+     * @param output one of the {@code OUTPUT_} constants
+     * @param filePath the file written in file mode, a new file in the cache directory if null
+     */
+    EncodeOptions(String format, Integer quality, String output, String filePath) {
+      this.format = toCompressFormat(format);
+      this.quality = quality != null ? Math.max(0, Math.min(100, quality)) : 100;
+      this.output = output;
+      this.filePath = filePath;
+    }
+
+    /** Reads the options of a {@code snapshot#takeSnapshot} call. */
+    static EncodeOptions fromArguments(Map<?, ?> arguments) {
+      final String output;
+      if (arguments.containsKey("output")) {
+        output = (String) arguments.get("output");
+      } else if (Boolean.TRUE.equals(arguments.get("writeToDisk"))) {
+        output = OUTPUT_FILE;
+      } else {
+        output = OUTPUT_BASE64;
+      }
+      final Object quality = arguments.get("quality");
+      return new EncodeOptions(
+          (String) arguments.get("format"),
+          quality != null ? ((Number) quality).intValue() : null,
+          output,
+          (String) arguments.get("filePath"));
+    }
+  }
+
+  interface EncodeCallback {
+    /**
+     * Called on the main thread with the file URI, the base64 data URI or the bytes of the encoded
+     * bitmap, or with null if encoding failed.
+     */
+    void onEncoded(Object result);
+  }
 
   public static String createTempFile(Context context, Bitmap bitmap) {
-    File tempFile = null;
-    FileOutputStream outputStream = null;
+    return createTempFile(context, bitmap, Bitmap.CompressFormat.JPEG, 100);
+  }
 
+  public static String createBase64(Bitmap bitmap) {
+    return createBase64(bitmap, Bitmap.CompressFormat.JPEG, 100);
+  }
+
+  static String createTempFile(
+      Context context, Bitmap bitmap, Bitmap.CompressFormat format, int quality) {
+    final File tempFile;
     try {
-      tempFile = File.createTempFile(LOG_TAG, ".jpeg", context.getCacheDir());
-      outputStream = new FileOutputStream(tempFile);
+      tempFile = File.createTempFile(LOG_TAG, "." + extension(format), context.getCacheDir());
     } catch (IOException e) {
       Log.w(LOG_TAG, e.getLocalizedMessage());
+      return null;
     }
+    return writeToFile(bitmap, tempFile, format, quality);
+  }
 
-    if (tempFile == null) {
+  /** Streams the encoded bitmap to the file and returns the file URI, or null on failure. */
+  static String writeToFile(Bitmap bitmap, File file, Bitmap.CompressFormat format, int quality) {
+    OutputStream outputStream = null;
+    try {
+      outputStream = new BufferedOutputStream(new FileOutputStream(file), FILE_BUFFER_SIZE);
+      if (!bitmap.compress(format, quality, outputStream)) {
+        return null;
+      }
+    } catch (IOException e) {
+      Log.w(LOG_TAG, e.getLocalizedMessage());
       return null;
+    } finally {
+      closeSnapshotOutputStream(outputStream);
     }
+    return Uri.fromFile(file).toString();
+  }
 
-    bitmap.compress(Bitmap.CompressFormat.JPEG, 100, outputStream);
-    closeSnapshotOutputStream(outputStream);
-    return Uri.fromFile(tempFile).toString();
+  static String createBase64(Bitmap bitmap, Bitmap.CompressFormat format, int quality) {
+    return toDataUri(createBytes(bitmap, format, quality), format);
   }
 
-  public static String createBase64(Bitmap bitmap) {
-    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-    bitmap.compress(Bitmap.CompressFormat.JPEG, 100, outputStream);
-    byte[] bitmapBytes = outputStream.toByteArray();
-    closeSnapshotOutputStream(outputStream);
-    String base64Prefix = "data:image/jpeg;base64,";
+  static String toDataUri(byte[] bitmapBytes, Bitmap.CompressFormat format) {
+    String base64Prefix = "data:image/" + extension(format) + ";base64,";
     return base64Prefix + Base64.encodeToString(bitmapBytes, Base64.NO_WRAP);
   }
 
+  /** Returns the encoded bitmap, which is sent over the channel without any further conversion. */
+  static byte[] createBytes(Bitmap bitmap, Bitmap.CompressFormat format, int quality) {
+    // Start with a fraction of the raw size, so the buffer rarely grows and copies more than once.
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bitmap.getByteCount() / 8);
+    bitmap.compress(format, quality, outputStream);
+    return outputStream.toByteArray();
+  }
+
+  /** Encodes the bitmap on a background thread as described by the options. */
+  static void encodeAsync(
+      Context context, Bitmap bitmap, EncodeOptions options, EncodeCallback callback) {
+    final Handler mainHandler = new Handler(Looper.getMainLooper());
+    getEncoderExecutor()
+        .execute(
+            () -> {
+              final Object result = encode(context, bitmap, options);
+              mainHandler.post(() -> callback.onEncoded(result));
+            });
+  }
+
+  static Object encode(Context context, Bitmap bitmap, EncodeOptions options) {
+    switch (options.output) {
+      case EncodeOptions.OUTPUT_BYTES:
+        return createBytes(bitmap, options.format, options.quality);
+      case EncodeOptions.OUTPUT_BASE64:
+        return createBase64(bitmap, options.format, options.quality);
+      default:
+        if (options.filePath != null) {
+          return writeToFile(bitmap, new File(options.filePath), options.format, options.quality);
+        }
+        return createTempFile(context, bitmap, options.format, options.quality);
+    }
+  }
+
+  static synchronized ExecutorService getEncoderExecutor() {
+    if (encoderExecutor == null) {
+      encoderExecutor =
+          Executors.newSingleThreadExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "BitmapEncoder");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return encoderExecutor;
+  }
+
+  @SuppressWarnings("deprecation")
+  static Bitmap.CompressFormat toCompressFormat(String format) {
+    if ("png".equals(format)) {
+      return Bitmap.CompressFormat.PNG;
+    } else if ("webp".equals(format)) {
+      return Bitmap.CompressFormat.WEBP;
+    }
+    return Bitmap.CompressFormat.JPEG;
+  }
+
+  static String extension(Bitmap.CompressFormat format) {
+    switch (format) {
+      case PNG:
+        return "png";
+      case JPEG:
+        return "jpeg";
+      default:
+        return "webp";
+    }
+  }
+
   private static void closeSnapshotOutputStream(OutputStream outputStream) {
     if (outputStream == null) {
       return;
@@ -0,0 +1,121 @@
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+import java.util.Map;
+
+/**
+ * Decides which camera moves are sent to Dart as {@code camera#onMove} events.
+ *
+ * <p>By default every move is sent. Events can be limited to a maximum rate and to moves that
+ * change the camera by at least a minimum amount since the last sent event. The final position is
+ * not lost by skipping events, it is always part of the following {@code camera#onIdle} event.
+ */
+class CameraMoveEventFilter {
+  static final int LATITUDE = 0;
+  static final int LONGITUDE = 1;
+  static final int ZOOM = 2;
+  static final int BEARING = 3;
+  static final int TILT = 4;
+
+  private long minIntervalMillis = 0;
+  private double minZoomDelta = 0;
+  private double minBearingDelta = 0;
+  private double minTiltDelta = 0;
+  private double minTargetDelta = 0;
+  private boolean compact = false;
+
+  private final double[] lastSent = new double[5];
+  private final double[] payload = new double[5];
+  private boolean hasLastSent = false;
+  private long lastSentMillis = 0;
+
+  /** Applies the options of a {@code camera#setMoveEventOptions} call. */
+  void setOptions(Map<?, ?> options) {
+    final Object maxRate = options.get("maxRate");
+    minIntervalMillis =
+        maxRate != null && Convert.toDouble(maxRate) > 0
+            ? Math.round(1000 / Convert.toDouble(maxRate))
+            : 0;
+    minZoomDelta = toDelta(options.get("minZoomDelta"));
+    minBearingDelta = toDelta(options.get("minBearingDelta"));
+    minTiltDelta = toDelta(options.get("minTiltDelta"));
+    minTargetDelta = toDelta(options.get("minTargetDelta"));
+    final Object compact = options.get("compact");
+    this.compact = compact != null && Convert.toBoolean(compact);
+    reset();
+  }
+
+  /** Whether events are sent as {@code [latitude, longitude, zoom, bearing, tilt]}. */
+  boolean isCompact() {
+    return compact;
+  }
+
+  /** Makes sure the next move is sent, e.g. because a new gesture has started. */
+  void reset() {
+    hasLastSent = false;
+  }
+
+  /**
+   * Returns true if the move to the given position should be sent, and remembers it as the last
+   * sent position in that case.
+   */
+  boolean accept(CameraPosition position, long nowMillis) {
+    if (position == null || position.target == null) {
+      return false;
+    }
+    final double latitude = position.target.getLatitude();
+    final double longitude = position.target.getLongitude();
+    if (hasLastSent) {
+      if (nowMillis - lastSentMillis < minIntervalMillis) {
+        return false;
+      }
+      if (hasMinDelta() && !changed(position, latitude, longitude)) {
+        return false;
+      }
+    }
+    lastSent[LATITUDE] = latitude;
+    lastSent[LONGITUDE] = longitude;
+    lastSent[ZOOM] = position.zoom;
+    lastSent[BEARING] = position.bearing;
+    lastSent[TILT] = position.tilt;
+    lastSentMillis = nowMillis;
+    hasLastSent = true;
+    return true;
+  }
+
+  private boolean hasMinDelta() {
+    return minZoomDelta > 0 || minBearingDelta > 0 || minTiltDelta > 0 || minTargetDelta > 0;
+  }
+
+  /** Whether the position changed by at least one of the minimum deltas that are set. */
+  private boolean changed(CameraPosition position, double latitude, double longitude) {
+    return (minZoomDelta > 0 && Math.abs(position.zoom - lastSent[ZOOM]) >= minZoomDelta)
+        || (minBearingDelta > 0
+            && angleDelta(position.bearing, lastSent[BEARING]) >= minBearingDelta)
+        || (minTiltDelta > 0 && Math.abs(position.tilt - lastSent[TILT]) >= minTiltDelta)
+        || (minTargetDelta > 0
+            && (Math.abs(latitude - lastSent[LATITUDE]) >= minTargetDelta
+                || angleDelta(longitude, lastSent[LONGITUDE]) >= minTargetDelta));
+  }
+
+  /**
+   * Returns the last accepted position in the compact layout. The array is reused for every event,
+   * which is fine as the method channel encodes the arguments right away.
+   */
+  double[] getCompactPayload() {
+    System.arraycopy(lastSent, 0, payload, 0, payload.length);
+    return payload;
+  }
+
+  private static double toDelta(Object value) {
+    return value != null ? Math.max(0, Convert.toDouble(value)) : 0;
+  }
+
+  /**
+   * The difference of two angles in degrees, taking the wrap around at 360 degrees into account.
+   */
+  private static double angleDelta(double a, double b) {
+    final double delta = Math.abs(a - b) % 360;
+    return delta > 180 ? 360 - delta : delta;
+  }
+}
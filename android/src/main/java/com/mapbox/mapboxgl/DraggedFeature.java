@@ -0,0 +1,89 @@
+package com.mapbox.mapboxgl;
+
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.Geometry;
+import com.mapbox.geojson.GeometryCollection;
+import com.mapbox.geojson.LineString;
+import com.mapbox.geojson.MultiLineString;
+import com.mapbox.geojson.MultiPoint;
+import com.mapbox.geojson.MultiPolygon;
+import com.mapbox.geojson.Point;
+import com.mapbox.geojson.Polygon;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A feature of a GeoJSON source that is moved by the plugin itself while it is dragged.
+ *
+ * <p>The geometry is always translated from its state at the start of the drag, so rounding errors
+ * do not add up over the many move events of a drag.
+ */
+class DraggedFeature {
+  final String sourceId;
+  private final Feature feature;
+
+  DraggedFeature(String sourceId, Feature feature) {
+    this.sourceId = sourceId;
+    this.feature = feature;
+  }
+
+  /** Returns the feature moved by the given distance from where the drag started. */
+  Feature translatedBy(double deltaLng, double deltaLat) {
+    return Feature.fromGeometry(
+        translate(feature.geometry(), deltaLng, deltaLat), feature.properties(), feature.id());
+  }
+
+  private static Geometry translate(Geometry geometry, double deltaLng, double deltaLat) {
+    if (geometry instanceof Point) {
+      return translate((Point) geometry, deltaLng, deltaLat);
+    } else if (geometry instanceof MultiPoint) {
+      return MultiPoint.fromLngLats(
+          translatePoints(((MultiPoint) geometry).coordinates(), deltaLng, deltaLat));
+    } else if (geometry instanceof LineString) {
+      return LineString.fromLngLats(
+          translatePoints(((LineString) geometry).coordinates(), deltaLng, deltaLat));
+    } else if (geometry instanceof MultiLineString) {
+      return MultiLineString.fromLngLats(
+          translateLines(((MultiLineString) geometry).coordinates(), deltaLng, deltaLat));
+    } else if (geometry instanceof Polygon) {
+      return Polygon.fromLngLats(
+          translateLines(((Polygon) geometry).coordinates(), deltaLng, deltaLat));
+    } else if (geometry instanceof MultiPolygon) {
+      final List<List<List<Point>>> polygons = ((MultiPolygon) geometry).coordinates();
+      final List<List<List<Point>>> translated = new ArrayList<>(polygons.size());
+      for (List<List<Point>> polygon : polygons) {
+        translated.add(translateLines(polygon, deltaLng, deltaLat));
+      }
+      return MultiPolygon.fromLngLats(translated);
+    } else if (geometry instanceof GeometryCollection) {
+      final List<Geometry> geometries = ((GeometryCollection) geometry).geometries();
+      final List<Geometry> translated = new ArrayList<>(geometries.size());
+      for (Geometry child : geometries) {
+        translated.add(translate(child, deltaLng, deltaLat));
+      }
+      return GeometryCollection.fromGeometries(translated);
+    }
+    return geometry;
+  }
+
+  private static Point translate(Point point, double deltaLng, double deltaLat) {
+    return Point.fromLngLat(point.longitude() + deltaLng, point.latitude() + deltaLat);
+  }
+
+  private static List<Point> translatePoints(List<Point> points, double deltaLng, double deltaLat) {
+    final List<Point> translated = new ArrayList<>(points.size());
+    for (Point point : points) {
+      translated.add(translate(point, deltaLng, deltaLat));
+    }
+    return translated;
+  }
+
+  private static List<List<Point>> translateLines(
+      List<List<Point>> lines, double deltaLng, double deltaLat) {
+    final List<List<Point>> translated = new ArrayList<>(lines.size());
+    for (List<Point> line : lines) {
+      translated.add(translatePoints(line, deltaLng, deltaLat));
+    }
+    return translated;
+  }
+}
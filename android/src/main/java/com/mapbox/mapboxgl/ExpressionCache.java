@@ -0,0 +1,98 @@
+package com.mapbox.mapboxgl;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mapbox.mapboxsdk.style.expressions.Expression;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of parsed style expressions, keyed by the JSON string sent from Dart.
+ *
+ * <p>Layer properties and filters are sent as JSON strings and usually repeat a lot, e.g. when a
+ * theme is switched back and forth. Parsed expressions are never modified after conversion, so the
+ * same instance can be handed to any number of layers. The cache is shared by all maps.
+ */
+class ExpressionCache {
+  static final int DEFAULT_MAX_SIZE = 512;
+
+  private static final ExpressionCache instance = new ExpressionCache(DEFAULT_MAX_SIZE);
+
+  /** A parsed JSON value together with the expression converted from it. */
+  static final class ParsedExpression {
+    final JsonElement json;
+    final Expression expression;
+
+    ParsedExpression(JsonElement json, Expression expression) {
+      this.json = json;
+      this.expression = expression;
+    }
+  }
+
+  private final JsonParser parser = new JsonParser();
+  private final LinkedHashMap<String, ParsedExpression> entries;
+  private int maxSize;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  ExpressionCache(int maxSize) {
+    this.maxSize = maxSize;
+    this.entries =
+        new LinkedHashMap<String, ParsedExpression>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, ParsedExpression> eldest) {
+            if (size() > ExpressionCache.this.maxSize) {
+              evictionCount++;
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  static ExpressionCache getInstance() {
+    return instance;
+  }
+
+  /** Returns the parsed expression for the JSON string, parsing and converting it on a miss. */
+  synchronized ParsedExpression get(String json) {
+    ParsedExpression parsed = entries.get(json);
+    if (parsed != null) {
+      hitCount++;
+      return parsed;
+    }
+    missCount++;
+    final JsonElement jsonElement = parser.parse(json);
+    parsed = new ParsedExpression(jsonElement, Expression.Converter.convert(jsonElement));
+    if (maxSize > 0) {
+      entries.put(json, parsed);
+    }
+    return parsed;
+  }
+
+  /** Sets the maximum number of cached expressions, 0 disables the cache. */
+  synchronized void setMaxSize(int maxSize) {
+    this.maxSize = Math.max(0, maxSize);
+    while (entries.size() > this.maxSize) {
+      final String eldest = entries.keySet().iterator().next();
+      entries.remove(eldest);
+      evictionCount++;
+    }
+  }
+
+  synchronized void clear() {
+    entries.clear();
+  }
+
+  synchronized Map<String, Object> getStats() {
+    final Map<String, Object> stats = new HashMap<>();
+    stats.put("hits", hitCount);
+    stats.put("misses", missCount);
+    stats.put("evictions", evictionCount);
+    stats.put("size", entries.size());
+    stats.put("maxSize", maxSize);
+    return stats;
+  }
+}
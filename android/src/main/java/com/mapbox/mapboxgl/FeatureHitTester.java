@@ -0,0 +1,217 @@
+package com.mapbox.mapboxgl;
+
+import android.graphics.PointF;
+import android.graphics.RectF;
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.FeatureCollection;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+import com.mapbox.mapboxsdk.maps.Projection;
+import com.mapbox.mapboxsdk.maps.Style;
+import com.mapbox.mapboxsdk.style.layers.Layer;
+import com.mapbox.mapboxsdk.style.layers.Property;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the topmost feature of the interactive layers at a screen location.
+ *
+ * <p>The interactive layers are kept in rendering order, top first, and only re-read from the style
+ * after layers have been added, removed or hidden. All interactive layers are queried with a single
+ * rendered feature query. Layers of GeoJSON sources with a hit test index are answered from that
+ * index instead, without querying the renderer at all.
+ */
+class FeatureHitTester {
+  /** A feature found by a hit test, with the sources of the layers it may belong to, top first. */
+  static final class Hit {
+    final Feature feature;
+    final List<String> sourceIds;
+
+    Hit(Feature feature, List<String> sourceIds) {
+      this.feature = feature;
+      this.sourceIds = sourceIds;
+    }
+  }
+
+  /** An interactive layer as it was in the style when the layer order was read. */
+  private static final class HitLayer {
+    final String id;
+    final String sourceId;
+    final boolean visible;
+    final float minZoom;
+    final float maxZoom;
+
+    HitLayer(Layer layer, String sourceId) {
+      this.id = layer.getId();
+      this.sourceId = sourceId;
+      this.visible = !Property.NONE.equals(layer.getVisibility().getValue());
+      this.minZoom = layer.getMinZoom();
+      this.maxZoom = layer.getMaxZoom();
+    }
+
+    boolean isVisibleAt(double zoom) {
+      return visible && zoom >= minZoom && zoom < maxZoom;
+    }
+  }
+
+  private final Map<String, String> interactiveLayerSources = new HashMap<>();
+  private final Set<String> indexedSources = new HashSet<>();
+  private final Map<String, GeoJsonFeatureIndex> indexBySource = new HashMap<>();
+  private List<HitLayer> orderedLayers;
+
+  void addInteractiveLayer(String layerId, String sourceId) {
+    interactiveLayerSources.put(layerId, sourceId);
+    orderedLayers = null;
+  }
+
+  void removeLayer(String layerId) {
+    if (interactiveLayerSources.remove(layerId) != null) {
+      orderedLayers = null;
+    }
+  }
+
+  /** Re-reads the layer order on the next query, e.g. after the visibility of a layer changed. */
+  void invalidateLayerOrder() {
+    orderedLayers = null;
+  }
+
+  /**
+   * Enables or disables the hit test index of a GeoJSON source. The index is built from the given
+   * features, if known, and otherwise with the next data update of the source.
+   */
+  void setSourceIndexed(String sourceId, boolean enabled, FeatureCollection featureCollection) {
+    if (enabled) {
+      indexedSources.add(sourceId);
+      if (featureCollection != null) {
+        updateIndex(sourceId, featureCollection);
+      }
+    } else {
+      indexedSources.remove(sourceId);
+      indexBySource.remove(sourceId);
+    }
+  }
+
+  /** Rebuilds the index of the source with its new data, if the source is indexed. */
+  void updateIndex(String sourceId, FeatureCollection featureCollection) {
+    if (!indexedSources.contains(sourceId)) {
+      return;
+    }
+    final List<Feature> features = featureCollection.features();
+    indexBySource.put(
+        sourceId,
+        new GeoJsonFeatureIndex(features != null ? features : Collections.<Feature>emptyList()));
+  }
+
+  /** Drops the index data of a removed or replaced source, the source stays indexed. */
+  void releaseSource(String sourceId) {
+    indexBySource.remove(sourceId);
+  }
+
+  /** Drops all index data and settings that belong to the previous style. */
+  void clearSources() {
+    indexedSources.clear();
+    indexBySource.clear();
+    orderedLayers = null;
+  }
+
+  /** Returns the topmost interactive feature within the given screen rectangle, or null. */
+  Hit queryFirstFeature(MapboxMap mapboxMap, Style style, RectF rect) {
+    final List<HitLayer> layers = getOrderedLayers(style);
+    if (layers.isEmpty()) {
+      return null;
+    }
+    final List<HitLayer> renderedLayers = new ArrayList<>();
+    double[] bounds = null;
+    for (HitLayer layer : layers) {
+      final GeoJsonFeatureIndex index = indexBySource.get(layer.sourceId);
+      if (index == null) {
+        renderedLayers.add(layer);
+        continue;
+      }
+      // Layers above this one have to be checked first to keep the result in rendering order.
+      final Hit hit = queryRenderedFeature(mapboxMap, rect, renderedLayers);
+      if (hit != null) {
+        return hit;
+      }
+      renderedLayers.clear();
+      if (!layer.isVisibleAt(mapboxMap.getCameraPosition().zoom)) {
+        continue;
+      }
+      if (bounds == null) {
+        bounds = toBounds(mapboxMap.getProjection(), rect);
+      }
+      final Feature indexed = index.queryTopmost(bounds[0], bounds[1], bounds[2], bounds[3]);
+      if (indexed != null) {
+        return new Hit(indexed, Collections.singletonList(layer.sourceId));
+      }
+    }
+    return queryRenderedFeature(mapboxMap, rect, renderedLayers);
+  }
+
+  private List<HitLayer> getOrderedLayers(Style style) {
+    if (orderedLayers == null) {
+      final List<HitLayer> layers = new ArrayList<>();
+      for (Layer layer : style.getLayers()) {
+        final String id = layer.getId();
+        if (interactiveLayerSources.containsKey(id)) {
+          layers.add(new HitLayer(layer, interactiveLayerSources.get(id)));
+        }
+      }
+      Collections.reverse(layers);
+      orderedLayers = layers;
+    }
+    return orderedLayers;
+  }
+
+  private static Hit queryRenderedFeature(MapboxMap mapboxMap, RectF rect, List<HitLayer> layers) {
+    if (layers.isEmpty()) {
+      // an empty layer list would query all layers of the style
+      return null;
+    }
+    final String[] layerIds = new String[layers.size()];
+    for (int i = 0; i < layerIds.length; i++) {
+      layerIds[i] = layers.get(i).id;
+    }
+    final List<Feature> features = mapboxMap.queryRenderedFeatures(rect, layerIds);
+    if (features.isEmpty()) {
+      return null;
+    }
+    // rendered features do not tell their layer, so any of the queried sources is a candidate
+    final List<String> sourceIds = new ArrayList<>(layers.size());
+    for (HitLayer layer : layers) {
+      if (layer.sourceId != null && !sourceIds.contains(layer.sourceId)) {
+        sourceIds.add(layer.sourceId);
+      }
+    }
+    return new Hit(features.get(0), sourceIds);
+  }
+
+  /** The geographic bounding box of the screen rectangle as minLng, minLat, maxLng, maxLat. */
+  private static double[] toBounds(Projection projection, RectF rect) {
+    final double[] bounds = {
+      Double.POSITIVE_INFINITY,
+      Double.POSITIVE_INFINITY,
+      Double.NEGATIVE_INFINITY,
+      Double.NEGATIVE_INFINITY
+    };
+    final PointF[] corners = {
+      new PointF(rect.left, rect.top),
+      new PointF(rect.right, rect.top),
+      new PointF(rect.right, rect.bottom),
+      new PointF(rect.left, rect.bottom)
+    };
+    for (PointF corner : corners) {
+      final LatLng latLng = projection.fromScreenLocation(corner);
+      bounds[0] = Math.min(bounds[0], latLng.getLongitude());
+      bounds[1] = Math.min(bounds[1], latLng.getLatitude());
+      bounds[2] = Math.max(bounds[2], latLng.getLongitude());
+      bounds[3] = Math.max(bounds[3], latLng.getLatitude());
+    }
+    return bounds;
+  }
+}
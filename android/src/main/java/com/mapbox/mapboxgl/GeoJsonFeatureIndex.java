@@ -0,0 +1,325 @@
+package com.mapbox.mapboxgl;
+
+import com.mapbox.geojson.CoordinateContainer;
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.Geometry;
+import com.mapbox.geojson.GeometryCollection;
+import com.mapbox.geojson.LineString;
+import com.mapbox.geojson.MultiLineString;
+import com.mapbox.geojson.MultiPoint;
+import com.mapbox.geojson.MultiPolygon;
+import com.mapbox.geojson.Point;
+import com.mapbox.geojson.Polygon;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Static packed R-tree over the features of a GeoJSON source, used to hit-test taps without a
+ * rendered feature query.
+ *
+ * <p>Features are sorted along a Hilbert curve by the center of their bounding box and grouped into
+ * nodes of {@link #NODE_SIZE} entries, level by level up to a single root. The tree is immutable;
+ * it is rebuilt whenever the data of the source changes.
+ */
+class GeoJsonFeatureIndex {
+  static final int NODE_SIZE = 16;
+
+  private static final int HILBERT_BITS = 15;
+  private static final int HILBERT_MAX = (1 << HILBERT_BITS) - 1;
+
+  private final Feature[] features;
+  // minX, minY, maxX, maxY of every node, leaves first and the root last.
+  private final double[] boxes;
+  // Leaves point to a feature, other nodes to the position of their first child.
+  private final int[] indices;
+  // Exclusive end position of each level.
+  private final int[] levelEnds;
+
+  GeoJsonFeatureIndex(List<Feature> featureList) {
+    features = featureList.toArray(new Feature[0]);
+    final double[] itemBoxes = new double[features.length * 4];
+    int itemCount = 0;
+    final int[] itemFeatures = new int[features.length];
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    final double[] box = new double[4];
+    for (int i = 0; i < features.length; i++) {
+      if (features[i] == null || !computeBox(features[i].geometry(), box)) {
+        continue;
+      }
+      System.arraycopy(box, 0, itemBoxes, itemCount * 4, 4);
+      itemFeatures[itemCount++] = i;
+      minX = Math.min(minX, box[0]);
+      minY = Math.min(minY, box[1]);
+      maxX = Math.max(maxX, box[2]);
+      maxY = Math.max(maxY, box[3]);
+    }
+
+    // Sort the items by the Hilbert value of their center, which keeps nearby items in one node.
+    final long[] order = new long[itemCount];
+    final double width = maxX - minX > 0 ? maxX - minX : 1;
+    final double height = maxY - minY > 0 ? maxY - minY : 1;
+    for (int i = 0; i < itemCount; i++) {
+      final double centerX = (itemBoxes[i * 4] + itemBoxes[i * 4 + 2]) / 2;
+      final double centerY = (itemBoxes[i * 4 + 1] + itemBoxes[i * 4 + 3]) / 2;
+      final int x = (int) Math.floor(HILBERT_MAX * (centerX - minX) / width);
+      final int y = (int) Math.floor(HILBERT_MAX * (centerY - minY) / height);
+      order[i] = (hilbert(x, y) << 32) | i;
+    }
+    Arrays.sort(order);
+
+    int nodeCount = itemCount;
+    int levelSize = itemCount;
+    int levelCount = 1;
+    while (levelSize > 1) {
+      levelSize = (levelSize + NODE_SIZE - 1) / NODE_SIZE;
+      nodeCount += levelSize;
+      levelCount++;
+    }
+    boxes = new double[nodeCount * 4];
+    indices = new int[nodeCount];
+    levelEnds = new int[levelCount];
+
+    for (int i = 0; i < itemCount; i++) {
+      final int item = (int) order[i];
+      System.arraycopy(itemBoxes, item * 4, boxes, i * 4, 4);
+      indices[i] = itemFeatures[item];
+    }
+    levelEnds[0] = itemCount;
+
+    int levelStart = 0;
+    int position = itemCount;
+    for (int level = 1; level < levelCount; level++) {
+      final int levelEnd = levelEnds[level - 1];
+      for (int child = levelStart; child < levelEnd; child += NODE_SIZE) {
+        final int childEnd = Math.min(child + NODE_SIZE, levelEnd);
+        double nodeMinX = Double.POSITIVE_INFINITY;
+        double nodeMinY = Double.POSITIVE_INFINITY;
+        double nodeMaxX = Double.NEGATIVE_INFINITY;
+        double nodeMaxY = Double.NEGATIVE_INFINITY;
+        for (int j = child; j < childEnd; j++) {
+          nodeMinX = Math.min(nodeMinX, boxes[j * 4]);
+          nodeMinY = Math.min(nodeMinY, boxes[j * 4 + 1]);
+          nodeMaxX = Math.max(nodeMaxX, boxes[j * 4 + 2]);
+          nodeMaxY = Math.max(nodeMaxY, boxes[j * 4 + 3]);
+        }
+        boxes[position * 4] = nodeMinX;
+        boxes[position * 4 + 1] = nodeMinY;
+        boxes[position * 4 + 2] = nodeMaxX;
+        boxes[position * 4 + 3] = nodeMaxY;
+        indices[position] = child;
+        position++;
+      }
+      levelStart = levelEnd;
+      levelEnds[level] = position;
+    }
+  }
+
+  int size() {
+    return levelEnds[0];
+  }
+
+  /**
+   * Returns the feature that intersects the given box and comes last in the source, i.e. the one
+   * that is drawn on top, or null if no feature intersects the box.
+   */
+  Feature queryTopmost(double minX, double minY, double maxX, double maxY) {
+    if (size() == 0) {
+      return null;
+    }
+    final double[] query = {minX, minY, maxX, maxY};
+    final double[] clip = new double[2];
+    final int[] stack = new int[levelEnds.length * NODE_SIZE * 2];
+    int stackSize = 0;
+    int best = -1;
+    stack[stackSize++] = boxes.length / 4 - 1;
+    stack[stackSize++] = levelEnds.length - 1;
+    while (stackSize > 0) {
+      final int level = stack[--stackSize];
+      final int node = stack[--stackSize];
+      if (level == 0) {
+        final int feature = indices[node];
+        if (feature > best && intersects(features[feature].geometry(), query, clip)) {
+          best = feature;
+        }
+        continue;
+      }
+      final int childEnd = Math.min(indices[node] + NODE_SIZE, levelEnds[level - 1]);
+      for (int child = indices[node]; child < childEnd; child++) {
+        if (boxes[child * 4] <= maxX
+            && boxes[child * 4 + 1] <= maxY
+            && boxes[child * 4 + 2] >= minX
+            && boxes[child * 4 + 3] >= minY) {
+          stack[stackSize++] = child;
+          stack[stackSize++] = level - 1;
+        }
+      }
+    }
+    return best >= 0 ? features[best] : null;
+  }
+
+  /** Computes the bounding box of the geometry, returns false for empty geometries. */
+  private static boolean computeBox(Geometry geometry, double[] box) {
+    box[0] = Double.POSITIVE_INFINITY;
+    box[1] = Double.POSITIVE_INFINITY;
+    box[2] = Double.NEGATIVE_INFINITY;
+    box[3] = Double.NEGATIVE_INFINITY;
+    extendBox(geometry, box);
+    return box[0] <= box[2];
+  }
+
+  private static void extendBox(Object value, double[] box) {
+    if (value instanceof Point) {
+      final Point point = (Point) value;
+      box[0] = Math.min(box[0], point.longitude());
+      box[1] = Math.min(box[1], point.latitude());
+      box[2] = Math.max(box[2], point.longitude());
+      box[3] = Math.max(box[3], point.latitude());
+    } else if (value instanceof GeometryCollection) {
+      for (Geometry child : ((GeometryCollection) value).geometries()) {
+        extendBox(child, box);
+      }
+    } else if (value instanceof CoordinateContainer) {
+      extendBox(((CoordinateContainer<?>) value).coordinates(), box);
+    } else if (value instanceof List) {
+      for (Object child : (List<?>) value) {
+        extendBox(child, box);
+      }
+    }
+  }
+
+  private static boolean intersects(Geometry geometry, double[] query, double[] clip) {
+    if (geometry instanceof Point) {
+      return contains(query, (Point) geometry);
+    } else if (geometry instanceof MultiPoint) {
+      for (Point point : ((MultiPoint) geometry).coordinates()) {
+        if (contains(query, point)) {
+          return true;
+        }
+      }
+    } else if (geometry instanceof LineString) {
+      return lineIntersects(((LineString) geometry).coordinates(), query, clip);
+    } else if (geometry instanceof MultiLineString) {
+      for (List<Point> line : ((MultiLineString) geometry).coordinates()) {
+        if (lineIntersects(line, query, clip)) {
+          return true;
+        }
+      }
+    } else if (geometry instanceof Polygon) {
+      return polygonIntersects(((Polygon) geometry).coordinates(), query, clip);
+    } else if (geometry instanceof MultiPolygon) {
+      for (List<List<Point>> polygon : ((MultiPolygon) geometry).coordinates()) {
+        if (polygonIntersects(polygon, query, clip)) {
+          return true;
+        }
+      }
+    } else if (geometry instanceof GeometryCollection) {
+      for (Geometry child : ((GeometryCollection) geometry).geometries()) {
+        if (intersects(child, query, clip)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean contains(double[] query, Point point) {
+    return point.longitude() >= query[0]
+        && point.latitude() >= query[1]
+        && point.longitude() <= query[2]
+        && point.latitude() <= query[3];
+  }
+
+  private static boolean polygonIntersects(List<List<Point>> rings, double[] query, double[] clip) {
+    for (List<Point> ring : rings) {
+      if (lineIntersects(ring, query, clip)) {
+        return true;
+      }
+    }
+    // No edge crosses the query box, so it is either completely inside or outside the polygon.
+    final double x = (query[0] + query[2]) / 2;
+    final double y = (query[1] + query[3]) / 2;
+    boolean inside = false;
+    for (List<Point> ring : rings) {
+      for (int i = 0, j = ring.size() - 1; i < ring.size(); j = i++) {
+        final Point a = ring.get(i);
+        final Point b = ring.get(j);
+        if ((a.latitude() > y) != (b.latitude() > y)
+            && x
+                < (b.longitude() - a.longitude())
+                        * (y - a.latitude())
+                        / (b.latitude() - a.latitude())
+                    + a.longitude()) {
+          inside = !inside;
+        }
+      }
+    }
+    return inside;
+  }
+
+  private static boolean lineIntersects(List<Point> line, double[] query, double[] clip) {
+    for (int i = 0; i < line.size(); i++) {
+      final Point a = line.get(i);
+      if (contains(query, a)) {
+        return true;
+      }
+      if (i > 0 && segmentIntersects(line.get(i - 1), a, query, clip)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Liang-Barsky clipping of the segment against the query box. */
+  private static boolean segmentIntersects(Point a, Point b, double[] query, double[] clip) {
+    final double dx = b.longitude() - a.longitude();
+    final double dy = b.latitude() - a.latitude();
+    clip[0] = 0;
+    clip[1] = 1;
+    return clipEdge(-dx, a.longitude() - query[0], clip)
+        && clipEdge(dx, query[2] - a.longitude(), clip)
+        && clipEdge(-dy, a.latitude() - query[1], clip)
+        && clipEdge(dy, query[3] - a.latitude(), clip);
+  }
+
+  private static boolean clipEdge(double p, double q, double[] clip) {
+    if (p == 0) {
+      return q >= 0;
+    }
+    final double r = q / p;
+    if (p < 0) {
+      if (r > clip[1]) {
+        return false;
+      }
+      clip[0] = Math.max(clip[0], r);
+    } else {
+      if (r < clip[0]) {
+        return false;
+      }
+      clip[1] = Math.min(clip[1], r);
+    }
+    return true;
+  }
+
+  /** Position of the point on a Hilbert curve covering a 2^15 x 2^15 grid. */
+  private static long hilbert(int x, int y) {
+    long d = 0;
+    for (int s = 1 << (HILBERT_BITS - 1); s > 0; s >>= 1) {
+      final int rx = (x & s) > 0 ? 1 : 0;
+      final int ry = (y & s) > 0 ? 1 : 0;
+      d += (long) s * s * ((3 * rx) ^ ry);
+      if (ry == 0) {
+        if (rx == 1) {
+          x = HILBERT_MAX - x;
+          y = HILBERT_MAX - y;
+        }
+        final int t = x;
+        x = y;
+        y = t;
+      }
+    }
+    return d;
+  }
+}
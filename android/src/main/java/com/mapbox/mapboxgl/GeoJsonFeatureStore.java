@@ -0,0 +1,184 @@
+package com.mapbox.mapboxgl;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.mapbox.geojson.CoordinateContainer;
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.FeatureCollection;
+import com.mapbox.geojson.Geometry;
+import com.mapbox.geojson.GeometryCollection;
+import com.mapbox.geojson.Point;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Id-indexed copy of the features of a GeoJSON source.
+ *
+ * <p>Features are kept in insertion order so the rendering order does not change when a single
+ * feature is updated. Lookups by id go through a hash index instead of scanning the list; removed
+ * features leave an empty slot that is compacted the next time the collection is built.
+ */
+class GeoJsonFeatureStore {
+  // Rough per object costs on a 32 bit ART heap, only used for diagnostics.
+  private static final long FEATURE_BYTES = 96;
+  private static final long GEOMETRY_BYTES = 48;
+  private static final long POINT_BYTES = 88;
+  private static final long PROPERTY_BYTES = 64;
+  private static final long SLOT_BYTES = 24;
+
+  private final List<Feature> features = new ArrayList<>();
+  private final Map<String, Integer> indexById = new HashMap<>();
+  private int removedCount = 0;
+
+  GeoJsonFeatureStore(FeatureCollection featureCollection) {
+    setFeatureCollection(featureCollection);
+  }
+
+  /** Replaces the content of the store. */
+  void setFeatureCollection(FeatureCollection featureCollection) {
+    features.clear();
+    indexById.clear();
+    removedCount = 0;
+    final List<Feature> newFeatures =
+        featureCollection != null ? featureCollection.features() : null;
+    if (newFeatures == null) {
+      return;
+    }
+    for (Feature feature : newFeatures) {
+      append(feature);
+    }
+  }
+
+  /**
+   * Replaces the feature with the same id, or appends it if no such feature exists. Features
+   * without an id are always appended.
+   */
+  void upsert(Feature feature) {
+    final String id = feature.id();
+    final Integer index = id != null ? indexById.get(id) : null;
+    if (index != null) {
+      features.set(index, feature);
+    } else {
+      append(feature);
+    }
+  }
+
+  /** Returns true if the store contained a feature with the given id. */
+  boolean remove(String id) {
+    final Integer index = indexById.remove(id);
+    if (index == null) {
+      return false;
+    }
+    features.set(index, null);
+    removedCount++;
+    return true;
+  }
+
+  Feature get(String id) {
+    final Integer index = indexById.get(id);
+    return index != null ? features.get(index) : null;
+  }
+
+  int size() {
+    return features.size() - removedCount;
+  }
+
+  /**
+   * Estimates the heap used by the stored features by counting features, coordinates and
+   * properties. This walks all features and is meant for diagnostics only.
+   */
+  long estimateHeapBytes() {
+    long bytes = features.size() * SLOT_BYTES + indexById.size() * SLOT_BYTES;
+    for (Feature feature : features) {
+      if (feature == null) {
+        continue;
+      }
+      bytes += FEATURE_BYTES + stringBytes(feature.id());
+      bytes += estimateGeometryBytes(feature.geometry());
+      final JsonObject properties = feature.properties();
+      if (properties != null) {
+        for (Map.Entry<String, JsonElement> property : properties.entrySet()) {
+          bytes += PROPERTY_BYTES + stringBytes(property.getKey());
+          final JsonElement value = property.getValue();
+          if (value.isJsonPrimitive() && value.getAsJsonPrimitive().isString()) {
+            bytes += stringBytes(value.getAsString());
+          }
+        }
+      }
+    }
+    return bytes;
+  }
+
+  private static long estimateGeometryBytes(Geometry geometry) {
+    if (geometry == null) {
+      return 0;
+    }
+    if (geometry instanceof GeometryCollection) {
+      long bytes = GEOMETRY_BYTES;
+      for (Geometry child : ((GeometryCollection) geometry).geometries()) {
+        bytes += estimateGeometryBytes(child);
+      }
+      return bytes;
+    }
+    if (geometry instanceof CoordinateContainer) {
+      return GEOMETRY_BYTES
+          + countPoints(((CoordinateContainer<?>) geometry).coordinates()) * POINT_BYTES;
+    }
+    return GEOMETRY_BYTES;
+  }
+
+  private static long countPoints(Object coordinates) {
+    if (coordinates instanceof Point) {
+      return 1;
+    }
+    long count = 0;
+    if (coordinates instanceof List) {
+      for (Object child : (List<?>) coordinates) {
+        count += countPoints(child);
+      }
+    }
+    return count;
+  }
+
+  private static long stringBytes(String value) {
+    return value != null ? 40 + 2L * value.length() : 0;
+  }
+
+  FeatureCollection toFeatureCollection() {
+    compact();
+    return FeatureCollection.fromFeatures(new ArrayList<>(features));
+  }
+
+  private void append(Feature feature) {
+    final String id = feature.id();
+    if (id != null && !indexById.containsKey(id)) {
+      // Like the former linear scan, duplicated ids resolve to the first feature.
+      indexById.put(id, features.size());
+    }
+    features.add(feature);
+  }
+
+  private void compact() {
+    if (removedCount == 0) {
+      return;
+    }
+    indexById.clear();
+    int target = 0;
+    for (int i = 0; i < features.size(); i++) {
+      final Feature feature = features.get(i);
+      if (feature == null) {
+        continue;
+      }
+      features.set(target, feature);
+      final String id = feature.id();
+      if (id != null && !indexById.containsKey(id)) {
+        indexById.put(id, target);
+      }
+      target++;
+    }
+    features.subList(target, features.size()).clear();
+    removedCount = 0;
+  }
+}
@@ -0,0 +1,288 @@
+package com.mapbox.mapboxgl;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Choreographer;
+import com.mapbox.geojson.FeatureCollection;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces updates of GeoJSON sources so that each source is updated at most once per frame.
+ *
+ * <p>Full data replacements are parsed on a background thread and handed back to the main thread
+ * once done. Only the latest replacement of a source is ever applied; older ones are skipped, even
+ * if their parsing finishes later, and are counted as coalesced. Feature level changes only mark
+ * the source as dirty, the actual data is taken from the {@link GeoJsonFeatureStore} when flushing.
+ *
+ * <p>The method call of a replacement is answered once its data has been parsed, or with an error
+ * if parsing failed. A failed replacement leaves the source and its pending feature changes as they
+ * were, and drops the feature changes that were waiting for it.
+ *
+ * <p>All methods must be called from the main thread.
+ */
+class GeoJsonUpdateScheduler {
+  private static final String TAG = "GeoJsonUpdateScheduler";
+  private static final int PARSER_THREAD_COUNT = 2;
+
+  private static ExecutorService parserExecutor;
+
+  interface Applier {
+    /** Replaces the content of the source's feature store. */
+    void setFeatureCollection(String sourceId, FeatureCollection featureCollection);
+
+    /** Pushes the current content of the source's feature store to the map. */
+    void applyFeatures(String sourceId);
+  }
+
+  private final Applier applier;
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private final Map<String, Long> parsingGeneration = new ConcurrentHashMap<>();
+  private final Map<String, List<Runnable>> deferredActions = new HashMap<>();
+  private final Set<String> dirtySources = new LinkedHashSet<>();
+  private long generation = 0;
+  private long flushIntervalMillis = 0;
+  private long lastFlushTimeMillis = 0;
+  private boolean flushScheduled = false;
+  private boolean disposed = false;
+
+  private long submittedCount = 0;
+  private long appliedCount = 0;
+  private long coalescedCount = 0;
+  private long flushCount = 0;
+
+  private final Choreographer.FrameCallback frameCallback =
+      new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+          flushScheduled = false;
+          flush();
+        }
+      };
+
+  GeoJsonUpdateScheduler(Applier applier) {
+    this.applier = applier;
+  }
+
+  private static synchronized ExecutorService getParserExecutor() {
+    if (parserExecutor == null) {
+      parserExecutor =
+          Executors.newFixedThreadPool(
+              PARSER_THREAD_COUNT,
+              new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                  Thread thread = new Thread(runnable, "GeoJsonParser-" + count.incrementAndGet());
+                  thread.setDaemon(true);
+                  return thread;
+                }
+              });
+    }
+    return parserExecutor;
+  }
+
+  /**
+   * Sets the minimum time between two flushes. With an interval of 0 pending updates are applied on
+   * the next frame.
+   */
+  void setFlushInterval(long flushIntervalMillis) {
+    this.flushIntervalMillis = Math.max(0, flushIntervalMillis);
+  }
+
+  /**
+   * Queues a full data replacement. The parser is run on a background thread; if another
+   * replacement of the same source is queued before the result is applied, this one is dropped.
+   *
+   * @param result answered once the data has been parsed, or null
+   */
+  void scheduleGeoJson(
+      String sourceId, Callable<FeatureCollection> parser, MethodChannel.Result result) {
+    submittedCount++;
+    final long requestGeneration = ++generation;
+    if (parsingGeneration.put(sourceId, requestGeneration) != null) {
+      coalescedCount++;
+    }
+
+    getParserExecutor()
+        .execute(
+            () -> {
+              if (!isLatest(sourceId, requestGeneration)) {
+                mainHandler.post(() -> onParsed(sourceId, requestGeneration, null, null, result));
+                return;
+              }
+              FeatureCollection featureCollection = null;
+              Exception error = null;
+              try {
+                featureCollection = parser.call();
+              } catch (Exception e) {
+                error = e;
+              }
+              final FeatureCollection parsed = featureCollection;
+              final Exception parseError = error;
+              mainHandler.post(
+                  () -> onParsed(sourceId, requestGeneration, parsed, parseError, result));
+            });
+  }
+
+  /** Marks the feature store of the source as changed. */
+  void scheduleFeatures(String sourceId) {
+    submittedCount++;
+    markDirty(sourceId);
+  }
+
+  /**
+   * Runs the action once the pending data replacement of the source has been applied, so that
+   * feature level changes operate on the latest data. Runs it right away if nothing is pending.
+   */
+  void runWhenParsed(String sourceId, Runnable action) {
+    if (!parsingGeneration.containsKey(sourceId)) {
+      action.run();
+      return;
+    }
+    List<Runnable> actions = deferredActions.get(sourceId);
+    if (actions == null) {
+      actions = new ArrayList<>();
+      deferredActions.put(sourceId, actions);
+    }
+    actions.add(action);
+  }
+
+  /** Returns true if the source has a data replacement or feature changes waiting. */
+  boolean isPending(String sourceId) {
+    return parsingGeneration.containsKey(sourceId) || dirtySources.contains(sourceId);
+  }
+
+  /** Drops all pending updates of the source, e.g. because it has been removed or replaced. */
+  void cancel(String sourceId) {
+    parsingGeneration.remove(sourceId);
+    deferredActions.remove(sourceId);
+    dirtySources.remove(sourceId);
+  }
+
+  void cancelAll() {
+    parsingGeneration.clear();
+    deferredActions.clear();
+    dirtySources.clear();
+  }
+
+  void flush() {
+    lastFlushTimeMillis = SystemClock.uptimeMillis();
+    if (dirtySources.isEmpty()) {
+      return;
+    }
+    flushCount++;
+
+    final List<String> sourceIds = new ArrayList<>(dirtySources);
+    dirtySources.clear();
+    for (String sourceId : sourceIds) {
+      try {
+        applier.applyFeatures(sourceId);
+        appliedCount++;
+      } catch (RuntimeException e) {
+        Log.e(TAG, "Failed to update source " + sourceId, e);
+      }
+    }
+  }
+
+  Map<String, Object> getStats() {
+    final Map<String, Object> stats = new HashMap<>();
+    stats.put("submitted", submittedCount);
+    stats.put("applied", appliedCount);
+    stats.put("coalesced", coalescedCount);
+    stats.put("flushes", flushCount);
+    stats.put("parsing", parsingGeneration.size());
+    stats.put("pending", dirtySources.size());
+    stats.put("flushInterval", flushIntervalMillis);
+    return stats;
+  }
+
+  void dispose() {
+    disposed = true;
+    Choreographer.getInstance().removeFrameCallback(frameCallback);
+    flushScheduled = false;
+    cancelAll();
+  }
+
+  private boolean isLatest(String sourceId, long requestGeneration) {
+    final Long latest = parsingGeneration.get(sourceId);
+    return latest != null && latest == requestGeneration;
+  }
+
+  private void onParsed(
+      String sourceId,
+      long requestGeneration,
+      FeatureCollection parsed,
+      Exception error,
+      MethodChannel.Result result) {
+    if (disposed || !isLatest(sourceId, requestGeneration)) {
+      // replaced by newer data, or the source is gone
+      if (result != null) {
+        result.success(null);
+      }
+      return;
+    }
+    parsingGeneration.remove(sourceId);
+    if (error != null || parsed == null) {
+      Log.e(TAG, "Failed to parse data of source " + sourceId, error);
+      final List<Runnable> dropped = deferredActions.remove(sourceId);
+      if (dropped != null) {
+        Log.w(TAG, "Dropped " + dropped.size() + " feature changes of source " + sourceId);
+      }
+      if (result != null) {
+        result.error(
+            "INVALID GEOJSON",
+            "The data of source " + sourceId + " could not be parsed: " + error,
+            null);
+      }
+      return;
+    }
+    applier.setFeatureCollection(sourceId, parsed);
+    // the new data replaces all earlier feature changes of this source
+    markDirty(sourceId);
+    if (result != null) {
+      result.success(null);
+    }
+
+    final List<Runnable> actions = deferredActions.remove(sourceId);
+    if (actions != null) {
+      for (Runnable action : actions) {
+        action.run();
+      }
+    }
+  }
+
+  private void markDirty(String sourceId) {
+    if (!dirtySources.add(sourceId)) {
+      coalescedCount++;
+    }
+    scheduleFlush();
+  }
+
+  private void scheduleFlush() {
+    if (flushScheduled || disposed) {
+      return;
+    }
+    flushScheduled = true;
+    final long delay = lastFlushTimeMillis + flushIntervalMillis - SystemClock.uptimeMillis();
+    if (delay > 0) {
+      Choreographer.getInstance().postFrameCallbackDelayed(frameCallback, delay);
+    } else {
+      Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+  }
+}
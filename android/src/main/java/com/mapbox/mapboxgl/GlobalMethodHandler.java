@@ -1,63 +1,31 @@
 package com.mapbox.mapboxgl;
 
 import android.content.Context;
-import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.mapbox.mapboxsdk.net.ConnectivityReceiver;
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.EventChannel;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
-import io.flutter.plugin.common.PluginRegistry;
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 class GlobalMethodHandler implements MethodChannel.MethodCallHandler {
-  private static final String TAG = GlobalMethodHandler.class.getSimpleName();
-  private static final String DATABASE_NAME = "mbgl-offline.db";
-  private static final int BUFFER_SIZE = 1024 * 2;
   @NonNull private final Context context;
   @NonNull private final BinaryMessenger messenger;
   @Nullable private FlutterPlugin.FlutterAssets flutterAssets;
+  private boolean forcedConnected = false;
 
   GlobalMethodHandler(@NonNull FlutterPlugin.FlutterPluginBinding binding) {
     this.context = binding.getApplicationContext();
     this.flutterAssets = binding.getFlutterAssets();
     this.messenger = binding.getBinaryMessenger();
-  }
-
-  private static void copy(InputStream input, OutputStream output) throws IOException {
-    final byte[] buffer = new byte[BUFFER_SIZE];
-    final BufferedInputStream in = new BufferedInputStream(input, BUFFER_SIZE);
-    final BufferedOutputStream out = new BufferedOutputStream(output, BUFFER_SIZE);
-    int count = 0;
-    int n = 0;
-    try {
-      while ((n = in.read(buffer, 0, BUFFER_SIZE)) != -1) {
-        out.write(buffer, 0, n);
-        count += n;
-      }
-      out.flush();
-    } finally {
-      try {
-        out.close();
-      } catch (IOException e) {
-        Log.e(TAG, e.getMessage(), e);
-      }
-      try {
-        in.close();
-      } catch (IOException e) {
-        Log.e(TAG, e.getMessage(), e);
-      }
-    }
+    new EventChannel(messenger, OfflineDownloadManager.EVENT_CHANNEL)
+        .setStreamHandler(OfflineDownloadManager.getInstance(context));
   }
 
   @Override
@@ -67,9 +35,7 @@ class GlobalMethodHandler implements MethodChannel.MethodCallHandler {
 
     switch (methodCall.method) {
       case "installOfflineMapTiles":
-        String tilesDb = methodCall.argument("tilesdb");
-        installOfflineMapTiles(tilesDb);
-        result.success(null);
+        installOfflineMapTiles(methodCall, result);
         break;
       case "setOffline":
         boolean offline = methodCall.argument("offline");
@@ -87,11 +53,29 @@ class GlobalMethodHandler implements MethodChannel.MethodCallHandler {
         Map<String, String> headers = (Map<String, String>) methodCall.argument("headers");
         MapboxHttpRequestUtil.setHttpHeaders(headers, result);
         break;
+      case "setHttpClientOptions":
+        MapboxHttpRequestUtil.setHttpClientOptions(
+            context, (Map<?, ?>) methodCall.arguments, result);
+        break;
+      case "getHttpClientOptions":
+        result.success(MapboxHttpRequestUtil.getHttpClientOptions());
+        break;
+      case "getNetworkStats":
+        result.success(NetworkStats.getInstance().getStats());
+        break;
+      case "resetNetworkStats":
+        NetworkStats.getInstance().reset();
+        result.success(null);
+        break;
+      case "setLocalTileSource":
+        setLocalTileSource(methodCall, result);
+        break;
       case "downloadOfflineRegion":
         // Get args from caller
         Map<String, Object> definitionMap = (Map<String, Object>) methodCall.argument("definition");
         Map<String, Object> metadataMap = (Map<String, Object>) methodCall.argument("metadata");
         String channelName = methodCall.argument("channelName");
+        Number progressEventsPerSecond = methodCall.argument("progressEventsPerSecond");
 
         // Prepare args
         OfflineChannelHandlerImpl channelHandler =
@@ -99,11 +83,22 @@ class GlobalMethodHandler implements MethodChannel.MethodCallHandler {
 
         // Start downloading
         OfflineManagerUtils.downloadRegion(
-            result, context, definitionMap, metadataMap, channelHandler);
+            result,
+            context,
+            definitionMap,
+            metadataMap,
+            progressEventsPerSecond != null ? progressEventsPerSecond.intValue() : 0,
+            channelHandler);
         break;
       case "getListOfRegions":
         OfflineManagerUtils.regionsList(result, context);
         break;
+      case "getOfflineRegionStatus":
+        OfflineManagerUtils.regionStatus(result, context, methodCall.<List<Number>>argument("ids"));
+        break;
+      case "getOfflineStorageReport":
+        OfflineManagerUtils.storageReport(result, context);
+        break;
       case "updateOfflineRegionMetadata":
         // Get download region arguments from caller
         Map<String, Object> metadata = (Map<String, Object>) methodCall.argument("metadata");
@@ -114,33 +109,171 @@ class GlobalMethodHandler implements MethodChannel.MethodCallHandler {
         OfflineManagerUtils.deleteRegion(
             result, context, methodCall.<Number>argument("id").longValue());
         break;
+      case "deleteOfflineRegions":
+        OfflineManagerUtils.deleteRegions(
+            result, context, methodCall.<List<Number>>argument("ids"));
+        break;
+      case "offlineDownloads#enqueue":
+        OfflineDownloadManager.getInstance(context)
+            .enqueue(
+                (Map<String, Object>) methodCall.argument("definition"),
+                (Map<String, Object>) methodCall.argument("metadata"),
+                methodCall.<Number>argument("priority").intValue(),
+                result);
+        break;
+      case "offlineDownloads#pause":
+        OfflineDownloadManager.getInstance(context)
+            .pause(methodCall.<Number>argument("id").longValue(), result);
+        break;
+      case "offlineDownloads#resume":
+        OfflineDownloadManager.getInstance(context)
+            .resume(
+                methodCall.<Number>argument("id").longValue(),
+                methodCall.<Number>argument("priority").intValue(),
+                result);
+        break;
+      case "offlineDownloads#cancel":
+        OfflineDownloadManager.getInstance(context)
+            .cancel(methodCall.<Number>argument("id").longValue(), result);
+        break;
+      case "offlineDownloads#setOptions":
+        OfflineDownloadManager.getInstance(context).setOptions((Map<?, ?>) methodCall.arguments);
+        result.success(null);
+        break;
+      case "offlineDownloads#list":
+        OfflineDownloadManager.getInstance(context).list(result);
+        break;
       default:
         result.notImplemented();
         break;
     }
   }
 
-  private void installOfflineMapTiles(String tilesDb) {
-    final File dest = new File(context.getFilesDir(), DATABASE_NAME);
-    try (InputStream input = openTilesDbFile(tilesDb);
-        OutputStream output = new FileOutputStream(dest)) {
-      copy(input, output);
-    } catch (IOException e) {
-      e.printStackTrace();
+  private void installOfflineMapTiles(MethodCall methodCall, MethodChannel.Result result) {
+    final String tilesDb = methodCall.argument("tilesdb");
+    final boolean isAsset = !tilesDb.startsWith("/"); // otherwise an absolute path
+    final String path;
+    if (!isAsset) {
+      path = tilesDb;
+    } else if (flutterAssets != null) {
+      path = flutterAssets.getAssetFilePathByName(tilesDb);
+    } else {
+      result.error("INSTALL_FAILED", "The Flutter assets are not available", null);
+      return;
     }
+    final boolean force = Boolean.TRUE.equals(methodCall.argument("force"));
+    final String sha256 = methodCall.argument("sha256");
+    final String channelName = methodCall.argument("channelName");
+    if (channelName == null) {
+      OfflineDatabaseInstaller.install(
+          context, path, isAsset, force, sha256, new InstallCallback(result, null, null));
+      return;
+    }
+    // start once Dart listens, so no progress is lost
+    final EventChannel eventChannel = new EventChannel(messenger, channelName);
+    eventChannel.setStreamHandler(
+        new EventChannel.StreamHandler() {
+          private boolean started = false;
+
+          @Override
+          public void onListen(Object arguments, EventChannel.EventSink events) {
+            if (started) {
+              return;
+            }
+            started = true;
+            OfflineDatabaseInstaller.install(
+                context,
+                path,
+                isAsset,
+                force,
+                sha256,
+                new InstallCallback(result, eventChannel, events));
+          }
+
+          @Override
+          public void onCancel(Object arguments) {}
+        });
   }
 
-  private InputStream openTilesDbFile(String tilesDb) throws IOException {
-    if (tilesDb.startsWith("/")) { // Absolute path.
-      return new FileInputStream(new File(tilesDb));
-    } else {
-      String assetKey;
-      if (flutterAssets != null) {
-        assetKey = flutterAssets.getAssetFilePathByName(tilesDb);
-      } else {
-        throw new IllegalStateException();
+  private void setLocalTileSource(MethodCall methodCall, MethodChannel.Result result) {
+    final String directory = methodCall.argument("directory");
+    String assetDirectory = null;
+    if (directory != null && !directory.startsWith("/")) {
+      if (flutterAssets == null) {
+        result.error("LOCAL_TILE_SOURCE_ERROR", "The Flutter assets are not available", null);
+        return;
       }
-      return context.getAssets().open(assetKey);
+      assetDirectory = flutterAssets.getAssetFilePathByName(directory);
+    }
+    final String mbtiles = methodCall.argument("mbtiles");
+    final boolean fallThrough = !Boolean.FALSE.equals(methodCall.argument("fallThrough"));
+    final Number latency = methodCall.argument("latency");
+    final Number bytesPerSecond = methodCall.argument("bytesPerSecond");
+    try {
+      LocalTileSource.getInstance()
+          .configure(
+              context,
+              mbtiles,
+              assetDirectory == null ? directory : null,
+              assetDirectory,
+              methodCall.argument("hosts"),
+              fallThrough,
+              latency != null ? Math.max(0, latency.longValue()) : 0,
+              bytesPerSecond != null ? Math.max(0, bytesPerSecond.longValue()) : 0);
+    } catch (IOException e) {
+      result.error("LOCAL_TILE_SOURCE_ERROR", e.getMessage(), null);
+      return;
+    }
+    MapboxHttpRequestUtil.installIfNeeded(context);
+    // the engine makes no requests without a network, even if they are all served locally
+    final boolean serveAll = (mbtiles != null || directory != null) && !fallThrough;
+    if (serveAll != forcedConnected) {
+      ConnectivityReceiver.instance(context).setConnected(serveAll ? true : null);
+      forcedConnected = serveAll;
+    }
+    result.success(null);
+  }
+
+  /** Completes the method call and reports progress on the event channel if there is one. */
+  private static class InstallCallback implements OfflineDatabaseInstaller.Callback {
+    private final MethodChannel.Result result;
+    @Nullable private final EventChannel eventChannel;
+    @Nullable private final EventChannel.EventSink events;
+
+    InstallCallback(
+        MethodChannel.Result result,
+        @Nullable EventChannel eventChannel,
+        @Nullable EventChannel.EventSink events) {
+      this.result = result;
+      this.eventChannel = eventChannel;
+      this.events = events;
+    }
+
+    @Override
+    public void onProgress(long copiedBytes, long totalBytes) {
+      if (events == null) return;
+      Map<String, Object> body = new HashMap<>();
+      body.put("copiedBytes", copiedBytes);
+      body.put("totalBytes", totalBytes);
+      events.success(body);
+    }
+
+    @Override
+    public void onDone(boolean installed) {
+      closeEventChannel();
+      result.success(installed);
+    }
+
+    @Override
+    public void onError(String message) {
+      closeEventChannel();
+      result.error("INSTALL_FAILED", message, null);
+    }
+
+    private void closeEventChannel() {
+      if (eventChannel == null) return;
+      events.endOfStream();
+      eventChannel.setStreamHandler(null);
     }
   }
 }
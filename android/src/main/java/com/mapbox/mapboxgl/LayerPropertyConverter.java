@@ -6,7 +6,6 @@ package com.mapbox.mapboxgl;
 import static com.mapbox.mapboxgl.Convert.toMap;
 
 import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
 import com.mapbox.mapboxsdk.style.expressions.Expression;
 import com.mapbox.mapboxsdk.style.layers.PropertyFactory;
 import com.mapbox.mapboxsdk.style.layers.PropertyValue;
@@ -18,11 +17,12 @@ class LayerPropertyConverter {
   static PropertyValue[] interpretSymbolLayerProperties(Object o) {
     final Map<String, String> data = (Map<String, String>) toMap(o);
     final List<PropertyValue> properties = new LinkedList();
-    final JsonParser parser = new JsonParser();
+    final ExpressionCache expressionCache = ExpressionCache.getInstance();
 
     for (Map.Entry<String, String> entry : data.entrySet()) {
-      final JsonElement jsonElement = parser.parse(entry.getValue());
-      Expression expression = Expression.Converter.convert(jsonElement);
+      final ExpressionCache.ParsedExpression parsed = expressionCache.get(entry.getValue());
+      final JsonElement jsonElement = parsed.json;
+      Expression expression = parsed.expression;
       switch (entry.getKey()) {
         case "icon-opacity":
           properties.add(PropertyFactory.iconOpacity(expression));
@@ -207,11 +207,12 @@ class LayerPropertyConverter {
   static PropertyValue[] interpretCircleLayerProperties(Object o) {
     final Map<String, String> data = (Map<String, String>) toMap(o);
     final List<PropertyValue> properties = new LinkedList();
-    final JsonParser parser = new JsonParser();
+    final ExpressionCache expressionCache = ExpressionCache.getInstance();
 
     for (Map.Entry<String, String> entry : data.entrySet()) {
-      final JsonElement jsonElement = parser.parse(entry.getValue());
-      Expression expression = Expression.Converter.convert(jsonElement);
+      final ExpressionCache.ParsedExpression parsed = expressionCache.get(entry.getValue());
+      final JsonElement jsonElement = parsed.json;
+      Expression expression = parsed.expression;
       switch (entry.getKey()) {
         case "circle-radius":
           properties.add(PropertyFactory.circleRadius(expression));
@@ -263,11 +264,12 @@ class LayerPropertyConverter {
   static PropertyValue[] interpretLineLayerProperties(Object o) {
     final Map<String, String> data = (Map<String, String>) toMap(o);
     final List<PropertyValue> properties = new LinkedList();
-    final JsonParser parser = new JsonParser();
+    final ExpressionCache expressionCache = ExpressionCache.getInstance();
 
     for (Map.Entry<String, String> entry : data.entrySet()) {
-      final JsonElement jsonElement = parser.parse(entry.getValue());
-      Expression expression = Expression.Converter.convert(jsonElement);
+      final ExpressionCache.ParsedExpression parsed = expressionCache.get(entry.getValue());
+      final JsonElement jsonElement = parsed.json;
+      Expression expression = parsed.expression;
       switch (entry.getKey()) {
         case "line-opacity":
           properties.add(PropertyFactory.lineOpacity(expression));
@@ -331,11 +333,12 @@ class LayerPropertyConverter {
   static PropertyValue[] interpretFillLayerProperties(Object o) {
     final Map<String, String> data = (Map<String, String>) toMap(o);
     final List<PropertyValue> properties = new LinkedList();
-    final JsonParser parser = new JsonParser();
+    final ExpressionCache expressionCache = ExpressionCache.getInstance();
 
     for (Map.Entry<String, String> entry : data.entrySet()) {
-      final JsonElement jsonElement = parser.parse(entry.getValue());
-      Expression expression = Expression.Converter.convert(jsonElement);
+      final ExpressionCache.ParsedExpression parsed = expressionCache.get(entry.getValue());
+      final JsonElement jsonElement = parsed.json;
+      Expression expression = parsed.expression;
       switch (entry.getKey()) {
         case "fill-antialias":
           properties.add(PropertyFactory.fillAntialias(expression));
@@ -375,11 +378,12 @@ class LayerPropertyConverter {
   static PropertyValue[] interpretFillExtrusionLayerProperties(Object o) {
     final Map<String, String> data = (Map<String, String>) toMap(o);
     final List<PropertyValue> properties = new LinkedList();
-    final JsonParser parser = new JsonParser();
+    final ExpressionCache expressionCache = ExpressionCache.getInstance();
 
     for (Map.Entry<String, String> entry : data.entrySet()) {
-      final JsonElement jsonElement = parser.parse(entry.getValue());
-      Expression expression = Expression.Converter.convert(jsonElement);
+      final ExpressionCache.ParsedExpression parsed = expressionCache.get(entry.getValue());
+      final JsonElement jsonElement = parsed.json;
+      Expression expression = parsed.expression;
       switch (entry.getKey()) {
         case "fill-extrusion-opacity":
           properties.add(PropertyFactory.fillExtrusionOpacity(expression));
@@ -419,11 +423,12 @@ class LayerPropertyConverter {
   static PropertyValue[] interpretRasterLayerProperties(Object o) {
     final Map<String, String> data = (Map<String, String>) toMap(o);
     final List<PropertyValue> properties = new LinkedList();
-    final JsonParser parser = new JsonParser();
+    final ExpressionCache expressionCache = ExpressionCache.getInstance();
 
     for (Map.Entry<String, String> entry : data.entrySet()) {
-      final JsonElement jsonElement = parser.parse(entry.getValue());
-      Expression expression = Expression.Converter.convert(jsonElement);
+      final ExpressionCache.ParsedExpression parsed = expressionCache.get(entry.getValue());
+      final JsonElement jsonElement = parsed.json;
+      Expression expression = parsed.expression;
       switch (entry.getKey()) {
         case "raster-opacity":
           properties.add(PropertyFactory.rasterOpacity(expression));
@@ -463,11 +468,12 @@ class LayerPropertyConverter {
   static PropertyValue[] interpretHillshadeLayerProperties(Object o) {
     final Map<String, String> data = (Map<String, String>) toMap(o);
     final List<PropertyValue> properties = new LinkedList();
-    final JsonParser parser = new JsonParser();
+    final ExpressionCache expressionCache = ExpressionCache.getInstance();
 
     for (Map.Entry<String, String> entry : data.entrySet()) {
-      final JsonElement jsonElement = parser.parse(entry.getValue());
-      Expression expression = Expression.Converter.convert(jsonElement);
+      final ExpressionCache.ParsedExpression parsed = expressionCache.get(entry.getValue());
+      final JsonElement jsonElement = parsed.json;
+      Expression expression = parsed.expression;
       switch (entry.getKey()) {
         case "hillshade-illumination-direction":
           properties.add(PropertyFactory.hillshadeIlluminationDirection(expression));
@@ -501,11 +507,12 @@ class LayerPropertyConverter {
   static PropertyValue[] interpretHeatmapLayerProperties(Object o) {
     final Map<String, String> data = (Map<String, String>) toMap(o);
     final List<PropertyValue> properties = new LinkedList();
-    final JsonParser parser = new JsonParser();
+    final ExpressionCache expressionCache = ExpressionCache.getInstance();
 
     for (Map.Entry<String, String> entry : data.entrySet()) {
-      final JsonElement jsonElement = parser.parse(entry.getValue());
-      Expression expression = Expression.Converter.convert(jsonElement);
+      final ExpressionCache.ParsedExpression parsed = expressionCache.get(entry.getValue());
+      final JsonElement jsonElement = parsed.json;
+      Expression expression = parsed.expression;
       switch (entry.getKey()) {
         case "heatmap-radius":
           properties.add(PropertyFactory.heatmapRadius(expression));
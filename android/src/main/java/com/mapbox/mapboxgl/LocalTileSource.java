@@ -0,0 +1,299 @@
+package com.mapbox.mapboxgl;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Interceptor of the http client that serves requests from a local store instead of the network,
+ * e.g. to benchmark map loads without a network or to ship tiles with the app.
+ *
+ * <p>Tiles are looked up in an MBTiles database by the {z}/{x}/{y} at the end of their path, and
+ * are unzipped if the database stores them compressed, as tippecanoe does by default. All
+ * resources, including tiles missing in the database, glyphs and sprites, are looked up in a
+ * directory as {@code <directory>/<host>/<path>} and then as {@code <directory>/<path>}, ignoring
+ * the query. The directory is either an absolute path or the key of a directory of Flutter assets.
+ * Resources that are not found are fetched from the network, or answered with a 404 if the store
+ * does not fall through. Served resources can be delayed by a latency and a bandwidth to simulate a
+ * network.
+ */
+class LocalTileSource implements Interceptor {
+  // how often a delayed response checks whether its call was cancelled
+  private static final long CANCEL_CHECK_MILLIS = 50;
+  private static final int BUFFER_SIZE = 16 * 1024;
+  private static final LocalTileSource instance = new LocalTileSource();
+
+  /** An immutable configuration, replaced as a whole so requests in flight keep theirs. */
+  private static class Store {
+    SQLiteDatabase mbtiles;
+    File directory;
+    AssetManager assets;
+    String assetDirectory;
+    Set<String> hosts;
+    boolean fallThrough;
+    long latencyMillis;
+    long bytesPerSecond;
+  }
+
+  private volatile Store store;
+
+  static LocalTileSource getInstance() {
+    return instance;
+  }
+
+  /**
+   * Configures the store, or disables it if neither a database nor a directory is given.
+   *
+   * @param mbtiles the absolute path of an MBTiles database, or null
+   * @param directory the absolute path of a directory, or null
+   * @param assetDirectory the path of a directory in the assets of the app, or null
+   * @param hosts the hosts served from the store, or null for all hosts
+   * @param bytesPerSecond the simulated bandwidth, 0 for no limit
+   */
+  synchronized void configure(
+      Context context,
+      String mbtiles,
+      String directory,
+      String assetDirectory,
+      List<String> hosts,
+      boolean fallThrough,
+      long latencyMillis,
+      long bytesPerSecond)
+      throws IOException {
+    Store next = null;
+    if (mbtiles != null || directory != null || assetDirectory != null) {
+      next = new Store();
+      if (mbtiles != null) {
+        try {
+          next.mbtiles =
+              SQLiteDatabase.openDatabase(
+                  mbtiles,
+                  null,
+                  SQLiteDatabase.OPEN_READONLY | SQLiteDatabase.NO_LOCALIZED_COLLATORS);
+        } catch (SQLiteException e) {
+          throw new IOException("Could not open " + mbtiles, e);
+        }
+      }
+      if (directory != null) {
+        next.directory = new File(directory).getCanonicalFile();
+        if (!next.directory.isDirectory()) {
+          throw new FileNotFoundException(directory + " is not a directory");
+        }
+      }
+      if (assetDirectory != null) {
+        next.assets = context.getAssets();
+        next.assetDirectory = assetDirectory;
+      }
+      next.hosts = hosts != null ? new HashSet<>(hosts) : null;
+      next.fallThrough = fallThrough;
+      next.latencyMillis = latencyMillis;
+      next.bytesPerSecond = bytesPerSecond;
+    }
+    final Store previous = store;
+    store = next;
+    if (previous != null && previous.mbtiles != null) {
+      // queries in flight keep the database open until they are done
+      previous.mbtiles.close();
+    }
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    final Store store = this.store;
+    final Request request = chain.request();
+    final HttpUrl url = request.url();
+    if (store == null
+        || !"GET".equals(request.method())
+        || (store.hosts != null && !store.hosts.contains(url.host()))) {
+      return chain.proceed(request);
+    }
+    byte[] bytes = null;
+    if (store.mbtiles != null && NetworkStats.TYPE_TILES.equals(NetworkStats.typeOf(url))) {
+      bytes = readTile(store.mbtiles, url);
+    }
+    if (bytes == null) {
+      bytes = readFile(store, url);
+    }
+    if (bytes == null && store.fallThrough) {
+      return chain.proceed(request);
+    }
+    delay(store, chain.call(), bytes != null ? bytes.length : 0);
+    final Response.Builder response =
+        new Response.Builder().request(request).protocol(Protocol.HTTP_1_1);
+    if (bytes == null) {
+      return response
+          .code(404)
+          .message("Not Found")
+          .body(ResponseBody.create(new byte[0], null))
+          .build();
+    }
+    return response
+        .code(200)
+        .message("OK")
+        .body(ResponseBody.create(bytes, MediaType.parse(contentType(url))))
+        .build();
+  }
+
+  /** Reads a tile of an MBTiles database, which stores its rows in TMS order. */
+  private static byte[] readTile(SQLiteDatabase database, HttpUrl url) throws IOException {
+    final int[] tile = NetworkStats.tileOf(url);
+    if (tile == null) {
+      return null;
+    }
+    final int z = tile[0];
+    final int x = tile[1];
+    final int y = tile[2];
+    final byte[] data;
+    try (Cursor cursor =
+        database.rawQuery(
+            "SELECT tile_data FROM tiles WHERE zoom_level = ? AND tile_column = ? AND tile_row = ?",
+            new String[] {
+              String.valueOf(z), String.valueOf(x), String.valueOf((1 << z) - 1 - y)
+            })) {
+      data = cursor.moveToFirst() ? cursor.getBlob(0) : null;
+    } catch (SQLiteException | IllegalStateException e) {
+      // a closed or broken database is treated as a missing tile
+      return null;
+    }
+    return data != null ? gunzipIfNeeded(data) : null;
+  }
+
+  /**
+   * Unzips gzip compressed data. The response is built by an interceptor of the application, so the
+   * client does not unzip it like a response of the network.
+   */
+  static byte[] gunzipIfNeeded(byte[] data) throws IOException {
+    if (data.length < 2 || (data[0] & 0xff) != 0x1f || (data[1] & 0xff) != 0x8b) {
+      return data;
+    }
+    try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(data))) {
+      return readFully(input);
+    }
+  }
+
+  private static byte[] readFile(Store store, HttpUrl url) throws IOException {
+    // the store must not be left through the path, segments are decoded so %2F is a separator
+    for (String segment : url.pathSegments()) {
+      if (segment.contains("/") || segment.equals("..")) {
+        return null;
+      }
+    }
+    final String decodedPath = join(url.pathSegments());
+    if (store.directory != null) {
+      for (File candidate :
+          new File[] {
+            new File(store.directory, url.host() + "/" + decodedPath),
+            new File(store.directory, decodedPath)
+          }) {
+        // symbolic links must not lead out of the directory either
+        final File file = candidate.getCanonicalFile();
+        if (!file.getPath().startsWith(store.directory.getPath() + File.separator)) {
+          continue;
+        }
+        if (file.isFile()) {
+          try (InputStream input = new FileInputStream(file)) {
+            return readFully(input);
+          }
+        }
+      }
+    }
+    if (store.assets != null) {
+      for (String assetPath :
+          new String[] {
+            store.assetDirectory + "/" + url.host() + "/" + decodedPath,
+            store.assetDirectory + "/" + decodedPath
+          }) {
+        try (InputStream input = store.assets.open(assetPath)) {
+          return readFully(input);
+        } catch (FileNotFoundException e) {
+          // try the next path
+        }
+      }
+    }
+    return null;
+  }
+
+  /** Waits for the simulated latency and transfer time, unless the call is cancelled. */
+  private static void delay(Store store, Call call, long bytes) throws IOException {
+    long delayMillis = store.latencyMillis;
+    if (store.bytesPerSecond > 0) {
+      delayMillis += bytes * 1000 / store.bytesPerSecond;
+    }
+    try {
+      while (delayMillis > 0) {
+        if (call.isCanceled()) {
+          throw new IOException("Canceled");
+        }
+        final long sleepMillis = Math.min(delayMillis, CANCEL_CHECK_MILLIS);
+        Thread.sleep(sleepMillis);
+        delayMillis -= sleepMillis;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted", e);
+    }
+  }
+
+  private static String join(List<String> segments) {
+    final StringBuilder path = new StringBuilder();
+    for (String segment : segments) {
+      if (path.length() > 0) {
+        path.append('/');
+      }
+      path.append(segment);
+    }
+    return path.toString();
+  }
+
+  private static byte[] readFully(InputStream input) throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[BUFFER_SIZE];
+    int read;
+    while ((read = input.read(buffer)) != -1) {
+      output.write(buffer, 0, read);
+    }
+    return output.toByteArray();
+  }
+
+  private static String contentType(HttpUrl url) {
+    final List<String> segments = url.pathSegments();
+    final String name = segments.get(segments.size() - 1);
+    if (name.endsWith(".json")) {
+      return "application/json";
+    }
+    if (name.endsWith(".png")) {
+      return "image/png";
+    }
+    if (name.endsWith(".jpg") || name.endsWith(".jpeg")) {
+      return "image/jpeg";
+    }
+    if (name.endsWith(".webp")) {
+      return "image/webp";
+    }
+    if (name.endsWith(".pbf") || name.endsWith(".mvt")) {
+      return "application/x-protobuf";
+    }
+    return "application/octet-stream";
+  }
+}
@@ -12,7 +12,10 @@ abstract class MapBoxUtils {
   private static final String TAG = "MapboxMapController";
 
   static Mapbox getMapbox(Context context, String accessToken) {
-    return Mapbox.getInstance(context, accessToken == null ? getAccessToken(context) : accessToken);
+    final Mapbox mapbox =
+        Mapbox.getInstance(context, accessToken == null ? getAccessToken(context) : accessToken);
+    MapboxHttpRequestUtil.installIfNeeded(context);
+    return mapbox;
   }
 
   private static String getAccessToken(@NonNull Context context) {
@@ -1,43 +1,250 @@
 package com.mapbox.mapboxgl;
 
+import android.content.Context;
+import android.util.Log;
 import com.mapbox.mapboxsdk.module.http.HttpRequestUtil;
 import io.flutter.plugin.common.MethodChannel;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 
+/**
+ * Manages the single OkHttp client used by the engine for all its requests.
+ *
+ * <p>The client is only rebuilt when its options are set. Headers are read by an interceptor of the
+ * client on every request, so setting them keeps the connection pool, and with it the open
+ * connections, instead of building a new client.
+ */
 abstract class MapboxHttpRequestUtil {
+  static final String CACHE_DIRECTORY = "mapbox_http_cache";
+
+  private static final String TAG = "MapboxHttpRequestUtil";
+  // the engine's default client allows 20 requests per host
+  private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 20;
+
+  private static volatile Map<String, String> headers = Collections.emptyMap();
+  private static OkHttpClient client;
+  // open caches by their max size, a cache stays open while a client in flight uses it
+  private static final Map<Long, Cache> caches = new HashMap<>();
+  // replaced clients that still have calls in flight
+  private static final List<OkHttpClient> retiredClients = new ArrayList<>();
+  private static boolean cacheDirectorySwept = false;
+  private static int maxIdleConnections = 5;
+  private static long keepAliveMillis = 5 * 60 * 1000;
+  private static boolean http2 = true;
+  private static long connectTimeoutMillis = 10000;
+  private static long readTimeoutMillis = 10000;
+  private static long writeTimeoutMillis = 10000;
+  private static int maxRequests = 64;
+  private static int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+  private static long cacheMaxBytes = 0;
 
   public static void setHttpHeaders(Map<String, String> headers, MethodChannel.Result result) {
-    HttpRequestUtil.setOkHttpClient(getOkHttpClient(headers, result).build());
+    MapboxHttpRequestUtil.headers =
+        headers != null ? new HashMap<>(headers) : Collections.<String, String>emptyMap();
+    synchronized (MapboxHttpRequestUtil.class) {
+      if (client == null) {
+        install(null);
+      }
+    }
     result.success(null);
   }
 
-  private static OkHttpClient.Builder getOkHttpClient(
-      Map<String, String> headers, MethodChannel.Result result) {
-    try {
-      return new OkHttpClient.Builder()
-          .addNetworkInterceptor(
-              chain -> {
-                Request.Builder builder = chain.request().newBuilder();
-                for (Map.Entry<String, String> header : headers.entrySet()) {
-                  if (header.getKey() == null || header.getKey().trim().isEmpty()) {
-                    continue;
+  /**
+   * Installs the client with the default options, which match the default client of the engine, so
+   * all requests are recorded by {@link NetworkStats}.
+   */
+  static synchronized void installIfNeeded(Context context) {
+    if (client == null) {
+      install(context);
+    }
+  }
+
+  /**
+   * Applies the options of a {@code setHttpClientOptions} call and installs a client built with
+   * them. Options that are not given keep their current value.
+   */
+  static synchronized void setHttpClientOptions(
+      Context context, Map<?, ?> options, MethodChannel.Result result) {
+    maxIdleConnections = intOption(options, "maxIdleConnections", maxIdleConnections);
+    keepAliveMillis = Math.max(1, longOption(options, "keepAlive", keepAliveMillis));
+    http2 = options.get("http2") != null ? Convert.toBoolean(options.get("http2")) : http2;
+    connectTimeoutMillis = longOption(options, "connectTimeout", connectTimeoutMillis);
+    readTimeoutMillis = longOption(options, "readTimeout", readTimeoutMillis);
+    writeTimeoutMillis = longOption(options, "writeTimeout", writeTimeoutMillis);
+    maxRequests = Math.max(1, intOption(options, "maxRequests", maxRequests));
+    maxRequestsPerHost = Math.max(1, intOption(options, "maxRequestsPerHost", maxRequestsPerHost));
+    cacheMaxBytes = longOption(options, "cacheMaxBytes", cacheMaxBytes);
+    final RequestScheduler scheduler = RequestScheduler.getInstance();
+    scheduler.setOptions(
+        options.get("prioritizeRequests") != null
+            ? Convert.toBoolean(options.get("prioritizeRequests"))
+            : scheduler.isPrioritizing(),
+        intOption(options, "maxTileRequestsPerHost", scheduler.getMaxTileRequestsPerHost()));
+    install(context);
+    result.success(null);
+  }
+
+  /** Returns the current options, in the units of {@code setHttpClientOptions}. */
+  static synchronized Map<String, Object> getHttpClientOptions() {
+    final Map<String, Object> options = new HashMap<>();
+    options.put("maxIdleConnections", maxIdleConnections);
+    options.put("keepAlive", keepAliveMillis);
+    options.put("http2", http2);
+    options.put("connectTimeout", connectTimeoutMillis);
+    options.put("readTimeout", readTimeoutMillis);
+    options.put("writeTimeout", writeTimeoutMillis);
+    options.put("maxRequests", maxRequests);
+    options.put("maxRequestsPerHost", maxRequestsPerHost);
+    options.put("cacheMaxBytes", cacheMaxBytes);
+    options.put("prioritizeRequests", RequestScheduler.getInstance().isPrioritizing());
+    options.put(
+        "maxTileRequestsPerHost", RequestScheduler.getInstance().getMaxTileRequestsPerHost());
+    return options;
+  }
+
+  private static void install(Context context) {
+    final Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+    final OkHttpClient.Builder builder =
+        new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(
+                new ConnectionPool(maxIdleConnections, keepAliveMillis, TimeUnit.MILLISECONDS))
+            .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+            .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+            .writeTimeout(writeTimeoutMillis, TimeUnit.MILLISECONDS)
+            .protocols(
+                http2
+                    ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                    : Collections.singletonList(Protocol.HTTP_1_1))
+            .cache(openCache(context))
+            .eventListenerFactory(NetworkStats.getInstance())
+            // local resources are served without waiting for other requests
+            .addInterceptor(LocalTileSource.getInstance())
+            .addInterceptor(RequestScheduler.getInstance())
+            .addNetworkInterceptor(
+                chain -> {
+                  final Map<String, String> headers = MapboxHttpRequestUtil.headers;
+                  if (headers.isEmpty()) {
+                    return chain.proceed(chain.request());
                   }
-                  if (header.getValue() == null || header.getValue().trim().isEmpty()) {
-                    builder.removeHeader(header.getKey());
-                  } else {
-                    builder.header(header.getKey(), header.getValue());
+                  Request.Builder request = chain.request().newBuilder();
+                  for (Map.Entry<String, String> header : headers.entrySet()) {
+                    if (header.getKey() == null || header.getKey().trim().isEmpty()) {
+                      continue;
+                    }
+                    if (header.getValue() == null || header.getValue().trim().isEmpty()) {
+                      request.removeHeader(header.getKey());
+                    } else {
+                      request.header(header.getKey(), header.getValue());
+                    }
                   }
-                }
-                return chain.proceed(builder.build());
-              });
-    } catch (Exception e) {
-      result.error(
-          "OK_HTTP_CLIENT_ERROR",
-          "An unexcepted error happened during creating http " + "client" + e.getMessage(),
-          null);
-      throw new RuntimeException(e);
+                  return chain.proceed(request.build());
+                });
+    final OkHttpClient previous = client;
+    client = RequestScheduler.getInstance().build(builder, dispatcher);
+    HttpRequestUtil.setOkHttpClient(client);
+    if (previous != null) {
+      // requests in flight finish on the previous client, its idle connections are not reused
+      previous.connectionPool().evictAll();
+      retiredClients.add(previous);
+      RequestScheduler.whenIdle(previous, () -> onRetiredClientIdle(previous));
     }
   }
+
+  /**
+   * Returns the disk cache of the options, or null if it is disabled. The engine has its own
+   * ambient cache, so this only helps for responses the engine does not cache itself.
+   *
+   * <p>Only one cache may use a directory at a time, and a cache of the previous client may still
+   * be in use by its calls in flight. Each size therefore has a directory of its own, and the cache
+   * of a previous size is deleted once no client in flight uses it anymore.
+   */
+  private static Cache openCache(Context context) {
+    Cache cache = cacheMaxBytes > 0 ? caches.get(cacheMaxBytes) : null;
+    if (cache == null && cacheMaxBytes > 0 && context != null) {
+      final File root = new File(context.getCacheDir(), CACHE_DIRECTORY);
+      final String name = String.valueOf(cacheMaxBytes);
+      if (!cacheDirectorySwept) {
+        // caches of other sizes left by an earlier run are not used by anyone
+        cacheDirectorySwept = true;
+        final File[] files = root.listFiles();
+        for (File file : files != null ? files : new File[0]) {
+          if (!file.getName().equals(name)) {
+            deleteRecursively(file);
+          }
+        }
+      }
+      cache = new Cache(new File(root, name), cacheMaxBytes);
+      caches.put(cacheMaxBytes, cache);
+    }
+    return cache;
+  }
+
+  /** Forgets a replaced client once its calls are done and deletes the caches no longer used. */
+  private static synchronized void onRetiredClientIdle(OkHttpClient retired) {
+    retiredClients.remove(retired);
+    final Iterator<Cache> iterator = caches.values().iterator();
+    while (iterator.hasNext()) {
+      final Cache cache = iterator.next();
+      if (isUsed(cache)) {
+        continue;
+      }
+      iterator.remove();
+      try {
+        cache.delete();
+      } catch (IOException e) {
+        Log.w(TAG, "Could not delete the http cache", e);
+      }
+    }
+  }
+
+  private static boolean isUsed(Cache cache) {
+    if (client != null && client.cache() == cache) {
+      return true;
+    }
+    for (OkHttpClient retired : retiredClients) {
+      if (retired.cache() == cache) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void deleteRecursively(File file) {
+    final File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    if (!file.delete()) {
+      Log.w(TAG, "Could not delete " + file);
+    }
+  }
+
+  private static int intOption(Map<?, ?> options, String name, int value) {
+    final Object option = options.get(name);
+    return option != null ? Math.max(0, ((Number) option).intValue()) : value;
+  }
+
+  private static long longOption(Map<?, ?> options, String name, long value) {
+    final Object option = options.get(name);
+    return option != null ? Math.max(0, ((Number) option).longValue()) : value;
+  }
 }
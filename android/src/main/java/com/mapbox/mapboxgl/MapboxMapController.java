@@ -11,13 +11,13 @@ import android.Manifest;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.pm.PackageManager;
-import android.content.res.AssetFileDescriptor;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.PointF;
 import android.graphics.RectF;
 import android.location.Location;
 import android.os.Build;
+import android.os.SystemClock;
 import android.util.DisplayMetrics;
 import android.util.Log;
 import android.view.Gravity;
@@ -30,7 +30,6 @@ import androidx.lifecycle.LifecycleOwner;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
 import com.mapbox.android.core.location.LocationEngine;
 import com.mapbox.android.core.location.LocationEngineCallback;
 import com.mapbox.android.core.location.LocationEngineProvider;
@@ -81,17 +80,15 @@ import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.platform.PlatformView;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
 /** Controller of a single MapboxMaps MapView instance. */
 @SuppressLint("MissingPermission")
@@ -116,12 +113,18 @@ final class MapboxMapController
   private final float density;
   private final Context context;
   private final String styleStringInitial;
-  private final Set<String> interactiveFeatureLayerIds;
-  private final Map<String, FeatureCollection> addedFeaturesByLayer;
+  private final FeatureHitTester featureHitTester;
+  private final Map<String, GeoJsonFeatureStore> addedFeaturesByLayer;
+  private final GeoJsonUpdateScheduler geoJsonUpdateScheduler;
+  private final Map<String, Boolean> geoJsonSourceMutability = new HashMap<>();
+  private boolean mutableGeoJsonSourcesOnly = false;
   private final Map<String, MapSnapshotter> mSnapshotterMap;
+  private final Map<String, SnapshotBatch> snapshotBatches = new HashMap<>();
+  private final BinaryMessenger messenger;
   private MapView mapView;
   private MapboxMap mapboxMap;
   private boolean trackCameraPosition = false;
+  private final CameraMoveEventFilter cameraMoveEventFilter = new CameraMoveEventFilter();
   private boolean myLocationEnabled = false;
   private int myLocationTrackingMode = 0;
   private int myLocationRenderMode = 0;
@@ -134,15 +137,20 @@ final class MapboxMapController
   private LocalizationPlugin localizationPlugin;
   private Style style;
   private Feature draggedFeature;
+  private DraggedFeature nativeDraggedFeature;
   private AndroidGesturesManager androidGesturesManager;
   private LatLng dragOrigin;
   private LatLng dragPrevious;
+  private boolean nativeFeatureMove = false;
+  private long minDragEventIntervalMillis = 0;
+  private long lastDragEventMillis = 0;
   private LatLngBounds bounds = null;
   Style.OnStyleLoaded onStyleLoadedCallback =
       new Style.OnStyleLoaded() {
         @Override
         public void onStyleLoaded(@NonNull Style style) {
           MapboxMapController.this.style = style;
+          featureHitTester.invalidateLayerOrder();
 
           updateMyLocationEnabled();
 
@@ -173,14 +181,34 @@ final class MapboxMapController
     this.dragEnabled = dragEnabled;
     this.styleStringInitial = styleStringInitial;
     this.mapView = new MapView(context, options);
-    this.interactiveFeatureLayerIds = new HashSet<>();
-    this.addedFeaturesByLayer = new HashMap<String, FeatureCollection>();
+    this.featureHitTester = new FeatureHitTester();
+    this.addedFeaturesByLayer = new HashMap<String, GeoJsonFeatureStore>();
+    this.geoJsonUpdateScheduler =
+        new GeoJsonUpdateScheduler(
+            new GeoJsonUpdateScheduler.Applier() {
+              @Override
+              public void setFeatureCollection(
+                  String sourceId, FeatureCollection featureCollection) {
+                GeoJsonFeatureStore featureStore = addedFeaturesByLayer.get(sourceId);
+                if (featureStore != null) {
+                  featureStore.setFeatureCollection(featureCollection);
+                } else {
+                  addedFeaturesByLayer.put(sourceId, new GeoJsonFeatureStore(featureCollection));
+                }
+              }
+
+              @Override
+              public void applyFeatures(String sourceId) {
+                applyGeoJsonFeatures(sourceId);
+              }
+            });
     this.density = context.getResources().getDisplayMetrics().density;
     this.lifecycleProvider = lifecycleProvider;
     if (dragEnabled) {
       this.androidGesturesManager = new AndroidGesturesManager(this.mapView.getContext(), false);
     }
     this.mSnapshotterMap = new HashMap<>();
+    this.messenger = messenger;
     methodChannel = new MethodChannel(messenger, "plugins.flutter.io/mapbox_maps_" + id);
     methodChannel.setMethodCallHandler(this);
   }
@@ -250,6 +278,12 @@ final class MapboxMapController
     // clear old layer id from the location Component
     clearLocationComponentLayer();
 
+    // pending source updates and feature copies belong to the old style
+    geoJsonUpdateScheduler.cancelAll();
+    addedFeaturesByLayer.clear();
+    geoJsonSourceMutability.clear();
+    featureHitTester.clearSources();
+
     // Check if json, url, absolute path or asset path:
     if (styleString == null || styleString.isEmpty()) {
       Log.e(TAG, "setStyleString - string empty or null");
@@ -355,40 +389,162 @@ final class MapboxMapController
     methodChannel.invokeMethod("map#onUserLocationUpdated", arguments);
   }
 
-  private void addGeoJsonSource(String sourceName, String source) {
-    FeatureCollection featureCollection = FeatureCollection.fromJson(source);
-    GeoJsonSource geoJsonSource = new GeoJsonSource(sourceName, featureCollection);
-    addedFeaturesByLayer.put(sourceName, featureCollection);
+  /**
+   * Adds an empty source right away, so layers can refer to it, and fills it once the data has been
+   * parsed in the background.
+   */
+  private void addGeoJsonSource(
+      String sourceName,
+      Callable<FeatureCollection> parser,
+      Boolean mutable,
+      MethodChannel.Result result) {
+    GeoJsonSource geoJsonSource = new GeoJsonSource(sourceName);
+    releaseGeoJsonSource(sourceName);
+    if (mutable != null) {
+      geoJsonSourceMutability.put(sourceName, mutable);
+    }
+    if (isGeoJsonSourceMutable(sourceName)) {
+      addedFeaturesByLayer.put(sourceName, new GeoJsonFeatureStore(null));
+    }
 
     style.addSource(geoJsonSource);
+    setGeoJsonSource(sourceName, parser, result);
   }
 
-  private void setGeoJsonSource(String sourceName, String geojson) {
-    FeatureCollection featureCollection = FeatureCollection.fromJson(geojson);
-    GeoJsonSource geoJsonSource = style.getSourceAs(sourceName);
-    addedFeaturesByLayer.put(sourceName, featureCollection);
-
-    geoJsonSource.setGeoJson(featureCollection);
+  /** Answers the result once the data has been parsed, with an error if it is malformed. */
+  private void setGeoJsonSource(
+      String sourceName, Callable<FeatureCollection> parser, MethodChannel.Result result) {
+    geoJsonUpdateScheduler.scheduleGeoJson(sourceName, parser, result);
   }
 
   private void setGeoJsonFeature(String sourceName, String geojsonFeature) {
-    Feature feature = Feature.fromJson(geojsonFeature);
-    FeatureCollection featureCollection = addedFeaturesByLayer.get(sourceName);
-    GeoJsonSource geoJsonSource = style.getSourceAs(sourceName);
-    if (featureCollection != null && geoJsonSource != null) {
-      final List<Feature> features = featureCollection.features();
-      for (int i = 0; i < features.size(); i++) {
-        final String id = features.get(i).id();
-        if (id.equals(feature.id())) {
-          features.set(i, feature);
-          break;
-        }
-      }
+    setGeoJsonFeatures(sourceName, Collections.singletonList(geojsonFeature));
+  }
+
+  /**
+   * Adds or replaces the given features in the source. The source itself is updated once on the
+   * next frame, no matter how many features were changed in between.
+   */
+  private void setGeoJsonFeatures(String sourceName, List<String> geojsonFeatures) {
+    if (geojsonFeatures == null) {
+      return;
+    }
+    geoJsonUpdateScheduler.runWhenParsed(
+        sourceName,
+        () -> {
+          GeoJsonFeatureStore featureStore = addedFeaturesByLayer.get(sourceName);
+          if (featureStore == null) {
+            Log.w(TAG, "No feature copy kept for source " + sourceName + ", is it mutable?");
+            return;
+          }
+          for (String geojsonFeature : geojsonFeatures) {
+            featureStore.upsert(Feature.fromJson(geojsonFeature));
+          }
+          geoJsonUpdateScheduler.scheduleFeatures(sourceName);
+        });
+  }
+
+  private void removeGeoJsonFeatures(String sourceName, List<String> featureIds) {
+    if (featureIds == null) {
+      return;
+    }
+    geoJsonUpdateScheduler.runWhenParsed(
+        sourceName,
+        () -> {
+          GeoJsonFeatureStore featureStore = addedFeaturesByLayer.get(sourceName);
+          if (featureStore == null) {
+            return;
+          }
+          boolean changed = false;
+          for (String featureId : featureIds) {
+            changed |= featureStore.remove(featureId);
+          }
+          if (changed) {
+            geoJsonUpdateScheduler.scheduleFeatures(sourceName);
+          }
+        });
+  }
 
+  private void applyGeoJsonFeatures(String sourceName) {
+    GeoJsonFeatureStore featureStore = addedFeaturesByLayer.get(sourceName);
+    GeoJsonSource geoJsonSource = style != null ? style.getSourceAs(sourceName) : null;
+    if (featureStore != null && geoJsonSource != null) {
+      final FeatureCollection featureCollection = featureStore.toFeatureCollection();
       geoJsonSource.setGeoJson(featureCollection);
+      if (nativeDraggedFeature == null || !nativeDraggedFeature.sourceId.equals(sourceName)) {
+        // the index of a source is rebuilt once its dragged feature has been dropped
+        featureHitTester.updateIndex(sourceName, featureCollection);
+      }
+    }
+    if (!isGeoJsonSourceMutable(sourceName)) {
+      // the data now lives in the source, a copy is only needed to patch single features
+      addedFeaturesByLayer.remove(sourceName);
+    }
+  }
+
+  private boolean isGeoJsonSourceMutable(String sourceName) {
+    final Boolean mutable = geoJsonSourceMutability.get(sourceName);
+    return mutable != null ? mutable : !mutableGeoJsonSourcesOnly;
+  }
+
+  /** Drops pending updates and the feature copy of a removed or replaced source. */
+  private void releaseGeoJsonSource(String sourceName) {
+    geoJsonUpdateScheduler.cancel(sourceName);
+    addedFeaturesByLayer.remove(sourceName);
+    geoJsonSourceMutability.remove(sourceName);
+    featureHitTester.releaseSource(sourceName);
+  }
+
+  /**
+   * Enables answering taps on layers of the source from a plugin side index of its features. The
+   * index is built from the feature copy of the source if there is one, otherwise with the next
+   * update of the source.
+   */
+  private void setHitTestIndexEnabled(String sourceName, boolean enabled) {
+    final GeoJsonFeatureStore featureStore = addedFeaturesByLayer.get(sourceName);
+    featureHitTester.setSourceIndexed(
+        sourceName, enabled, featureStore != null ? featureStore.toFeatureCollection() : null);
+  }
+
+  /**
+   * Only keeps feature copies of sources that have explicitly been added as mutable. Copies of
+   * other sources are released once their pending updates have been applied.
+   */
+  private void setMutableGeoJsonSourcesOnly(boolean enabled) {
+    mutableGeoJsonSourcesOnly = enabled;
+    geoJsonUpdateScheduler.flush();
+    final Iterator<String> sourceIds = addedFeaturesByLayer.keySet().iterator();
+    while (sourceIds.hasNext()) {
+      final String sourceId = sourceIds.next();
+      if (!isGeoJsonSourceMutable(sourceId) && !geoJsonUpdateScheduler.isPending(sourceId)) {
+        sourceIds.remove();
+      }
     }
   }
 
+  private Map<String, Object> getGeoJsonFeatureStoreStats() {
+    final Map<String, Object> sources = new HashMap<>();
+    long totalFeatures = 0;
+    long totalBytes = 0;
+    for (Map.Entry<String, GeoJsonFeatureStore> entry : addedFeaturesByLayer.entrySet()) {
+      final GeoJsonFeatureStore featureStore = entry.getValue();
+      final long estimatedBytes = featureStore.estimateHeapBytes();
+      final Map<String, Object> source = new HashMap<>();
+      source.put("features", featureStore.size());
+      source.put("estimatedBytes", estimatedBytes);
+      source.put("mutable", isGeoJsonSourceMutable(entry.getKey()));
+      sources.put(entry.getKey(), source);
+      totalFeatures += featureStore.size();
+      totalBytes += estimatedBytes;
+    }
+    final Map<String, Object> stats = new HashMap<>();
+    stats.put("mutableOnly", mutableGeoJsonSourcesOnly);
+    stats.put("sources", sources);
+    stats.put("features", totalFeatures);
+    stats.put("estimatedBytes", totalBytes);
+    return stats;
+  }
+
   private void addSymbolLayer(
       String layerName,
       String sourceName,
@@ -420,7 +576,7 @@ final class MapboxMapController
       style.addLayer(symbolLayer);
     }
     if (enableInteraction) {
-      interactiveFeatureLayerIds.add(layerName);
+      featureHitTester.addInteractiveLayer(layerName, sourceName);
     }
   }
 
@@ -454,7 +610,7 @@ final class MapboxMapController
       style.addLayer(lineLayer);
     }
     if (enableInteraction) {
-      interactiveFeatureLayerIds.add(layerName);
+      featureHitTester.addInteractiveLayer(layerName, sourceName);
     }
   }
 
@@ -488,7 +644,7 @@ final class MapboxMapController
       style.addLayer(fillLayer);
     }
     if (enableInteraction) {
-      interactiveFeatureLayerIds.add(layerName);
+      featureHitTester.addInteractiveLayer(layerName, sourceName);
     }
   }
 
@@ -522,7 +678,7 @@ final class MapboxMapController
       style.addLayer(fillLayer);
     }
     if (enableInteraction) {
-      interactiveFeatureLayerIds.add(layerName);
+      featureHitTester.addInteractiveLayer(layerName, sourceName);
     }
   }
 
@@ -556,14 +712,246 @@ final class MapboxMapController
       style.addLayer(circleLayer);
     }
     if (enableInteraction) {
-      interactiveFeatureLayerIds.add(layerName);
+      featureHitTester.addInteractiveLayer(layerName, sourceName);
     }
   }
 
   private Expression parseFilter(String filter) {
-    JsonParser parser = new JsonParser();
-    JsonElement filterJsonElement = parser.parse(filter);
-    return filterJsonElement.isJsonNull() ? null : Expression.Converter.convert(filterJsonElement);
+    final ExpressionCache.ParsedExpression parsed = ExpressionCache.getInstance().get(filter);
+    return parsed.json.isJsonNull() ? null : parsed.expression;
+  }
+
+  /** Adds or replaces the layer described by the arguments of a {@code <type>Layer#add} call. */
+  private void addLayer(MethodCall call) {
+    final String sourceId = call.argument("sourceId");
+    final String layerId = call.argument("layerId");
+    final String belowLayerId = call.argument("belowLayerId");
+    final String sourceLayer = call.argument("sourceLayer");
+    final Double minzoom = call.argument("minzoom");
+    final Double maxzoom = call.argument("maxzoom");
+    final Float minZoom = minzoom != null ? minzoom.floatValue() : null;
+    final Float maxZoom = maxzoom != null ? maxzoom.floatValue() : null;
+    final Boolean enableInteraction = call.argument("enableInteraction");
+    final boolean interactive = enableInteraction != null && enableInteraction;
+    final Object properties = call.argument("properties");
+
+    switch (call.method) {
+      case "symbolLayer#add":
+        {
+          final PropertyValue[] propertyValues =
+              LayerPropertyConverter.interpretSymbolLayerProperties(properties);
+          final Expression filter = parseFilter(call.argument("filter"));
+          removeLayer(layerId);
+          addSymbolLayer(
+              layerId,
+              sourceId,
+              belowLayerId,
+              sourceLayer,
+              minZoom,
+              maxZoom,
+              propertyValues,
+              interactive,
+              filter);
+          break;
+        }
+      case "lineLayer#add":
+        {
+          final PropertyValue[] propertyValues =
+              LayerPropertyConverter.interpretLineLayerProperties(properties);
+          final Expression filter = parseFilter(call.argument("filter"));
+          removeLayer(layerId);
+          addLineLayer(
+              layerId,
+              sourceId,
+              belowLayerId,
+              sourceLayer,
+              minZoom,
+              maxZoom,
+              propertyValues,
+              interactive,
+              filter);
+          break;
+        }
+      case "fillLayer#add":
+        {
+          final PropertyValue[] propertyValues =
+              LayerPropertyConverter.interpretFillLayerProperties(properties);
+          final Expression filter = parseFilter(call.argument("filter"));
+          removeLayer(layerId);
+          addFillLayer(
+              layerId,
+              sourceId,
+              belowLayerId,
+              sourceLayer,
+              minZoom,
+              maxZoom,
+              propertyValues,
+              interactive,
+              filter);
+          break;
+        }
+      case "fillExtrusionLayer#add":
+        {
+          final PropertyValue[] propertyValues =
+              LayerPropertyConverter.interpretFillExtrusionLayerProperties(properties);
+          final Expression filter = parseFilter(call.argument("filter"));
+          removeLayer(layerId);
+          addFillExtrusionLayer(
+              layerId,
+              sourceId,
+              belowLayerId,
+              sourceLayer,
+              minZoom,
+              maxZoom,
+              propertyValues,
+              interactive,
+              filter);
+          break;
+        }
+      case "circleLayer#add":
+        {
+          final PropertyValue[] propertyValues =
+              LayerPropertyConverter.interpretCircleLayerProperties(properties);
+          final Expression filter = parseFilter(call.argument("filter"));
+          removeLayer(layerId);
+          addCircleLayer(
+              layerId,
+              sourceId,
+              belowLayerId,
+              sourceLayer,
+              minZoom,
+              maxZoom,
+              propertyValues,
+              interactive,
+              filter);
+          break;
+        }
+      case "rasterLayer#add":
+        {
+          final PropertyValue[] propertyValues =
+              LayerPropertyConverter.interpretRasterLayerProperties(properties);
+          removeLayer(layerId);
+          addRasterLayer(layerId, sourceId, minZoom, maxZoom, belowLayerId, propertyValues, null);
+          break;
+        }
+      case "hillshadeLayer#add":
+        {
+          final PropertyValue[] propertyValues =
+              LayerPropertyConverter.interpretHillshadeLayerProperties(properties);
+          addHillshadeLayer(
+              layerId, sourceId, minZoom, maxZoom, belowLayerId, propertyValues, null);
+          break;
+        }
+      case "heatmapLayer#add":
+        {
+          final PropertyValue[] propertyValues =
+              LayerPropertyConverter.interpretHeatmapLayerProperties(properties);
+          addHeatmapLayer(layerId, sourceId, minZoom, maxZoom, belowLayerId, propertyValues, null);
+          break;
+        }
+      default:
+        throw new IllegalArgumentException("Unknown layer operation " + call.method);
+    }
+  }
+
+  private void addSource(MethodCall call) {
+    final String id = Convert.toString(call.argument("sourceId"));
+    final Map<String, Object> properties = (Map<String, Object>) call.argument("properties");
+    releaseGeoJsonSource(id);
+    SourcePropertyConverter.addSource(id, properties, style);
+    final Callable<FeatureCollection> geojsonParser =
+        SourcePropertyConverter.buildGeojsonParser(properties);
+    if (geojsonParser != null) {
+      geoJsonUpdateScheduler.scheduleGeoJson(id, geojsonParser, null);
+    }
+  }
+
+  private void removeSource(String sourceId) {
+    releaseGeoJsonSource(sourceId);
+    style.removeSource(sourceId);
+  }
+
+  private void setLayerFilter(String layerId, String filter) {
+    Layer layer = style.getLayer(layerId);
+
+    Expression expression = ExpressionCache.getInstance().get(filter).expression;
+
+    if (layer instanceof CircleLayer) {
+      ((CircleLayer) layer).setFilter(expression);
+    } else if (layer instanceof FillExtrusionLayer) {
+      ((FillExtrusionLayer) layer).setFilter(expression);
+    } else if (layer instanceof FillLayer) {
+      ((FillLayer) layer).setFilter(expression);
+    } else if (layer instanceof HeatmapLayer) {
+      ((HeatmapLayer) layer).setFilter(expression);
+    } else if (layer instanceof LineLayer) {
+      ((LineLayer) layer).setFilter(expression);
+    } else if (layer instanceof SymbolLayer) {
+      ((SymbolLayer) layer).setFilter(expression);
+    } else {
+      throw new IllegalArgumentException(
+          String.format("Layer '%s' does not support filtering.", layerId));
+    }
+  }
+
+  private void setLayerVisibility(String layerId, boolean isVisible) {
+    Layer layer = style.getLayer(layerId);
+    if (layer != null) {
+      layer.setProperties(isVisible ? visibility(VISIBLE) : visibility(NONE));
+      featureHitTester.invalidateLayerOrder();
+    }
+  }
+
+  /**
+   * Runs the operations of a {@code style#applyBatch} call in order. Each operation has the method
+   * name and arguments of the corresponding single call. A failing operation does not stop the
+   * batch; it is reported by its index in the returned list instead.
+   */
+  private List<Map<String, Object>> applyStyleBatch(List<Map<String, Object>> operations) {
+    final List<Map<String, Object>> failures = new ArrayList<>();
+    if (operations == null) {
+      return failures;
+    }
+    boolean layersChanged = false;
+    for (int i = 0; i < operations.size(); i++) {
+      final Map<String, Object> operation = operations.get(i);
+      final MethodCall call =
+          new MethodCall((String) operation.get("method"), operation.get("arguments"));
+      try {
+        switch (call.method) {
+          case "style#addSource":
+            addSource(call);
+            break;
+          case "style#removeSource":
+            removeSource(call.argument("sourceId"));
+            break;
+          case "style#removeLayer":
+            removeLayer(call.argument("layerId"));
+            break;
+          case "style#setFilter":
+            setLayerFilter(call.argument("layerId"), call.argument("filter"));
+            break;
+          case "style#setVisibility":
+            setLayerVisibility(call.argument("layerId"), call.argument("isVisible"));
+            break;
+          default:
+            addLayer(call);
+            layersChanged = true;
+            break;
+        }
+      } catch (RuntimeException e) {
+        final Map<String, Object> failure = new HashMap<>();
+        failure.put("index", i);
+        failure.put("method", call.method);
+        failure.put("message", e.getMessage() != null ? e.getMessage() : e.toString());
+        failures.add(failure);
+      }
+    }
+    if (layersChanged) {
+      // keep the location puck on top once for the whole batch
+      updateLocationComponentLayer();
+    }
+    return failures;
   }
 
   private void addRasterLayer(
@@ -635,24 +1023,9 @@ final class MapboxMapController
     }
   }
 
-  private Feature firstFeatureOnLayers(RectF in) {
+  private FeatureHitTester.Hit firstFeatureOnLayers(RectF in) {
     if (style != null) {
-      final List<Layer> layers = style.getLayers();
-      final List<String> layersInOrder = new ArrayList<String>();
-      for (Layer layer : layers) {
-        String id = layer.getId();
-        if (interactiveFeatureLayerIds.contains(id)) {
-          layersInOrder.add(id);
-        }
-      }
-      Collections.reverse(layersInOrder);
-
-      for (String id : layersInOrder) {
-        List<Feature> features = mapboxMap.queryRenderedFeatures(in, id);
-        if (!features.isEmpty()) {
-          return features.get(0);
-        }
-      }
+      return featureHitTester.queryFirstFeature(mapboxMap, style, in);
     }
     return null;
   }
@@ -790,6 +1163,12 @@ final class MapboxMapController
           result.success(reply);
           break;
         }
+      case "camera#setMoveEventOptions":
+        {
+          cameraMoveEventFilter.setOptions((Map<?, ?>) call.arguments);
+          result.success(null);
+          break;
+        }
       case "camera#move":
         {
           final CameraUpdate cameraUpdate =
@@ -880,245 +1259,104 @@ final class MapboxMapController
         {
           final String sourceId = call.argument("sourceId");
           final String geojson = call.argument("geojson");
-          addGeoJsonSource(sourceId, geojson);
-          result.success(null);
+          final Boolean mutable = call.argument("mutable");
+          addGeoJsonSource(sourceId, () -> FeatureCollection.fromJson(geojson), mutable, result);
+          break;
+        }
+      case "source#addBinary":
+        {
+          final String sourceId = call.argument("sourceId");
+          final Map<String, Object> data = call.arguments();
+          final Boolean mutable = call.argument("mutable");
+          addGeoJsonSource(sourceId, () -> BinaryGeoJsonDecoder.decode(data), mutable, result);
           break;
         }
       case "source#setGeoJson":
         {
           final String sourceId = call.argument("sourceId");
           final String geojson = call.argument("geojson");
-          setGeoJsonSource(sourceId, geojson);
-          result.success(null);
+          setGeoJsonSource(sourceId, () -> FeatureCollection.fromJson(geojson), result);
           break;
         }
-      case "source#setFeature":
+      case "source#setBinary":
         {
           final String sourceId = call.argument("sourceId");
-          final String geojsonFeature = call.argument("geojsonFeature");
-          setGeoJsonFeature(sourceId, geojsonFeature);
-          result.success(null);
+          final Map<String, Object> data = call.arguments();
+          setGeoJsonSource(sourceId, () -> BinaryGeoJsonDecoder.decode(data), result);
           break;
         }
-      case "symbolLayer#add":
+      case "source#setUpdateInterval":
         {
-          final String sourceId = call.argument("sourceId");
-          final String layerId = call.argument("layerId");
-          final String belowLayerId = call.argument("belowLayerId");
-          final String sourceLayer = call.argument("sourceLayer");
-          final Double minzoom = call.argument("minzoom");
-          final Double maxzoom = call.argument("maxzoom");
-          final String filter = call.argument("filter");
-          final boolean enableInteraction = call.argument("enableInteraction");
-          final PropertyValue[] properties =
-              LayerPropertyConverter.interpretSymbolLayerProperties(call.argument("properties"));
-
-          Expression filterExpression = parseFilter(filter);
-
-          removeLayer(layerId);
-          addSymbolLayer(
-              layerId,
-              sourceId,
-              belowLayerId,
-              sourceLayer,
-              minzoom != null ? minzoom.floatValue() : null,
-              maxzoom != null ? maxzoom.floatValue() : null,
-              properties,
-              enableInteraction,
-              filterExpression);
-          updateLocationComponentLayer();
-
+          final Number interval = call.argument("interval");
+          geoJsonUpdateScheduler.setFlushInterval(interval != null ? interval.longValue() : 0);
           result.success(null);
           break;
         }
-      case "lineLayer#add":
+      case "source#getUpdateStats":
         {
-          final String sourceId = call.argument("sourceId");
-          final String layerId = call.argument("layerId");
-          final String belowLayerId = call.argument("belowLayerId");
-          final String sourceLayer = call.argument("sourceLayer");
-          final Double minzoom = call.argument("minzoom");
-          final Double maxzoom = call.argument("maxzoom");
-          final String filter = call.argument("filter");
-          final boolean enableInteraction = call.argument("enableInteraction");
-          final PropertyValue[] properties =
-              LayerPropertyConverter.interpretLineLayerProperties(call.argument("properties"));
-
-          Expression filterExpression = parseFilter(filter);
-
-          removeLayer(layerId);
-          addLineLayer(
-              layerId,
-              sourceId,
-              belowLayerId,
-              sourceLayer,
-              minzoom != null ? minzoom.floatValue() : null,
-              maxzoom != null ? maxzoom.floatValue() : null,
-              properties,
-              enableInteraction,
-              filterExpression);
-          updateLocationComponentLayer();
-
-          result.success(null);
+          result.success(geoJsonUpdateScheduler.getStats());
           break;
         }
-      case "fillLayer#add":
+      case "source#setMutableOnly":
         {
-          final String sourceId = call.argument("sourceId");
-          final String layerId = call.argument("layerId");
-          final String belowLayerId = call.argument("belowLayerId");
-          final String sourceLayer = call.argument("sourceLayer");
-          final Double minzoom = call.argument("minzoom");
-          final Double maxzoom = call.argument("maxzoom");
-          final String filter = call.argument("filter");
-          final boolean enableInteraction = call.argument("enableInteraction");
-          final PropertyValue[] properties =
-              LayerPropertyConverter.interpretFillLayerProperties(call.argument("properties"));
-
-          Expression filterExpression = parseFilter(filter);
-
-          removeLayer(layerId);
-          addFillLayer(
-              layerId,
-              sourceId,
-              belowLayerId,
-              sourceLayer,
-              minzoom != null ? minzoom.floatValue() : null,
-              maxzoom != null ? maxzoom.floatValue() : null,
-              properties,
-              enableInteraction,
-              filterExpression);
-          updateLocationComponentLayer();
-
+          final Boolean enabled = call.argument("enabled");
+          setMutableGeoJsonSourcesOnly(enabled != null && enabled);
           result.success(null);
           break;
         }
-      case "fillExtrusionLayer#add":
+      case "feature#setDragOptions":
         {
-          final String sourceId = call.argument("sourceId");
-          final String layerId = call.argument("layerId");
-          final String belowLayerId = call.argument("belowLayerId");
-          final String sourceLayer = call.argument("sourceLayer");
-          final Double minzoom = call.argument("minzoom");
-          final Double maxzoom = call.argument("maxzoom");
-          final String filter = call.argument("filter");
-          final boolean enableInteraction = call.argument("enableInteraction");
-          final PropertyValue[] properties =
-              LayerPropertyConverter.interpretFillExtrusionLayerProperties(
-                  call.argument("properties"));
-
-          Expression filterExpression = parseFilter(filter);
-
-          removeLayer(layerId);
-          addFillExtrusionLayer(
-              layerId,
-              sourceId,
-              belowLayerId,
-              sourceLayer,
-              minzoom != null ? minzoom.floatValue() : null,
-              maxzoom != null ? maxzoom.floatValue() : null,
-              properties,
-              enableInteraction,
-              filterExpression);
-          updateLocationComponentLayer();
-
+          final Boolean nativeMove = call.argument("nativeMove");
+          final Double maxEventRate = call.argument("maxEventRate");
+          result.success(setDragOptions(nativeMove, maxEventRate));
+          break;
+        }
+      case "source#setHitTestIndex":
+        {
+          final Boolean enabled = call.argument("enabled");
+          setHitTestIndexEnabled(call.argument("sourceId"), enabled != null && enabled);
           result.success(null);
           break;
         }
-      case "circleLayer#add":
+      case "source#getStoreStats":
+        {
+          result.success(getGeoJsonFeatureStoreStats());
+          break;
+        }
+      case "source#setFeature":
         {
           final String sourceId = call.argument("sourceId");
-          final String layerId = call.argument("layerId");
-          final String belowLayerId = call.argument("belowLayerId");
-          final String sourceLayer = call.argument("sourceLayer");
-          final Double minzoom = call.argument("minzoom");
-          final Double maxzoom = call.argument("maxzoom");
-          final String filter = call.argument("filter");
-          final boolean enableInteraction = call.argument("enableInteraction");
-          final PropertyValue[] properties =
-              LayerPropertyConverter.interpretCircleLayerProperties(call.argument("properties"));
-
-          Expression filterExpression = parseFilter(filter);
-
-          removeLayer(layerId);
-          addCircleLayer(
-              layerId,
-              sourceId,
-              belowLayerId,
-              sourceLayer,
-              minzoom != null ? minzoom.floatValue() : null,
-              maxzoom != null ? maxzoom.floatValue() : null,
-              properties,
-              enableInteraction,
-              filterExpression);
-          updateLocationComponentLayer();
-
+          final String geojsonFeature = call.argument("geojsonFeature");
+          setGeoJsonFeature(sourceId, geojsonFeature);
           result.success(null);
           break;
         }
-      case "rasterLayer#add":
+      case "source#setFeatures":
         {
           final String sourceId = call.argument("sourceId");
-          final String layerId = call.argument("layerId");
-          final String belowLayerId = call.argument("belowLayerId");
-          final Double minzoom = call.argument("minzoom");
-          final Double maxzoom = call.argument("maxzoom");
-          final PropertyValue[] properties =
-              LayerPropertyConverter.interpretRasterLayerProperties(call.argument("properties"));
-
-          removeLayer(layerId);
-          addRasterLayer(
-              layerId,
-              sourceId,
-              minzoom != null ? minzoom.floatValue() : null,
-              maxzoom != null ? maxzoom.floatValue() : null,
-              belowLayerId,
-              properties,
-              null);
-          updateLocationComponentLayer();
-
+          final List<String> geojsonFeatures = call.argument("geojsonFeatures");
+          setGeoJsonFeatures(sourceId, geojsonFeatures);
           result.success(null);
           break;
         }
-      case "hillshadeLayer#add":
+      case "source#removeFeatures":
         {
           final String sourceId = call.argument("sourceId");
-          final String layerId = call.argument("layerId");
-          final String belowLayerId = call.argument("belowLayerId");
-          final Double minzoom = call.argument("minzoom");
-          final Double maxzoom = call.argument("maxzoom");
-          final PropertyValue[] properties =
-              LayerPropertyConverter.interpretHillshadeLayerProperties(call.argument("properties"));
-          addHillshadeLayer(
-              layerId,
-              sourceId,
-              minzoom != null ? minzoom.floatValue() : null,
-              maxzoom != null ? maxzoom.floatValue() : null,
-              belowLayerId,
-              properties,
-              null);
-          updateLocationComponentLayer();
-
+          final List<String> featureIds = call.argument("featureIds");
+          removeGeoJsonFeatures(sourceId, featureIds);
           result.success(null);
           break;
         }
+      case "symbolLayer#add":
+      case "lineLayer#add":
+      case "fillLayer#add":
+      case "fillExtrusionLayer#add":
+      case "circleLayer#add":
+      case "rasterLayer#add":
+      case "hillshadeLayer#add":
       case "heatmapLayer#add":
         {
-          final String sourceId = call.argument("sourceId");
-          final String layerId = call.argument("layerId");
-          final String belowLayerId = call.argument("belowLayerId");
-          final Double minzoom = call.argument("minzoom");
-          final Double maxzoom = call.argument("maxzoom");
-          final PropertyValue[] properties =
-              LayerPropertyConverter.interpretHeatmapLayerProperties(call.argument("properties"));
-          addHeatmapLayer(
-              layerId,
-              sourceId,
-              minzoom != null ? minzoom.floatValue() : null,
-              maxzoom != null ? maxzoom.floatValue() : null,
-              belowLayerId,
-              properties,
-              null);
+          addLayer(call);
           updateLocationComponentLayer();
 
           result.success(null);
@@ -1167,6 +1405,49 @@ final class MapboxMapController
           result.success(null);
           break;
         }
+      case "style#addImages":
+        {
+          if (style == null) {
+            result.error(
+                "STYLE IS NULL",
+                "The style is null. Has onStyleLoaded() already been invoked?",
+                null);
+            break;
+          }
+          final Style targetStyle = style;
+          SpriteSheetDecoder.decode(
+              call.argument("sheet"),
+              call.argument("names"),
+              call.argument("rects"),
+              call.argument("pixelRatios"),
+              call.argument("sdf"),
+              new SpriteSheetDecoder.Callback() {
+                @Override
+                public void onDecoded(
+                    HashMap<String, Bitmap> images, HashMap<String, Bitmap> sdfImages) {
+                  if (disposed || style != targetStyle) {
+                    result.error(
+                        "STYLE CHANGED",
+                        "The style has changed while the sprite sheet was decoded.",
+                        null);
+                    return;
+                  }
+                  if (!images.isEmpty()) {
+                    style.addImages(images);
+                  }
+                  if (!sdfImages.isEmpty()) {
+                    style.addImages(sdfImages, true);
+                  }
+                  result.success(null);
+                }
+
+                @Override
+                public void onError(String message) {
+                  result.error("INVALID SPRITE SHEET", message, null);
+                }
+              });
+          break;
+        }
       case "style#addImageSource":
         {
           if (style == null) {
@@ -1215,11 +1496,33 @@ final class MapboxMapController
           result.success(null);
           break;
         }
+      case "style#setImageCacheOptions":
+        {
+          AssetImageCache.getInstance().setOptions((Map<?, ?>) call.arguments);
+          result.success(null);
+          break;
+        }
+      case "style#getImageCacheStats":
+        {
+          result.success(AssetImageCache.getInstance().getStats());
+          break;
+        }
+      case "style#setExpressionCacheSize":
+        {
+          final Number size = call.argument("size");
+          ExpressionCache.getInstance()
+              .setMaxSize(size != null ? size.intValue() : ExpressionCache.DEFAULT_MAX_SIZE);
+          result.success(null);
+          break;
+        }
+      case "style#getExpressionCacheStats":
+        {
+          result.success(ExpressionCache.getInstance().getStats());
+          break;
+        }
       case "style#addSource":
         {
-          final String id = Convert.toString(call.argument("sourceId"));
-          final Map<String, Object> properties = (Map<String, Object>) call.argument("properties");
-          SourcePropertyConverter.addSource(id, properties, style);
+          addSource(call);
           result.success(null);
           break;
         }
@@ -1232,10 +1535,23 @@ final class MapboxMapController
                 "The style is null. Has onStyleLoaded() already been invoked?",
                 null);
           }
-          style.removeSource((String) call.argument("sourceId"));
+          removeSource(call.argument("sourceId"));
           result.success(null);
           break;
         }
+      case "style#applyBatch":
+        {
+          if (style == null) {
+            result.error(
+                "STYLE IS NULL",
+                "The style is null. Has onStyleLoaded() already been invoked?",
+                null);
+            break;
+          }
+          final List<Map<String, Object>> operations = call.argument("operations");
+          result.success(applyStyleBatch(operations));
+          break;
+        }
       case "style#addLayer":
         {
           if (style == null) {
@@ -1304,32 +1620,10 @@ final class MapboxMapController
                 "The style is null. Has onStyleLoaded() already been invoked?",
                 null);
           }
-          String layerId = call.argument("layerId");
-          String filter = call.argument("filter");
-
-          Layer layer = style.getLayer(layerId);
-
-          JsonParser parser = new JsonParser();
-          JsonElement jsonElement = parser.parse(filter);
-          Expression expression = Expression.Converter.convert(jsonElement);
-
-          if (layer instanceof CircleLayer) {
-            ((CircleLayer) layer).setFilter(expression);
-          } else if (layer instanceof FillExtrusionLayer) {
-            ((FillExtrusionLayer) layer).setFilter(expression);
-          } else if (layer instanceof FillLayer) {
-            ((FillLayer) layer).setFilter(expression);
-          } else if (layer instanceof HeatmapLayer) {
-            ((HeatmapLayer) layer).setFilter(expression);
-          } else if (layer instanceof LineLayer) {
-            ((LineLayer) layer).setFilter(expression);
-          } else if (layer instanceof SymbolLayer) {
-            ((SymbolLayer) layer).setFilter(expression);
-          } else {
-            result.error(
-                "INVALID LAYER TYPE",
-                String.format("Layer '%s' does not support filtering.", layerId),
-                null);
+          try {
+            setLayerFilter(call.argument("layerId"), call.argument("filter"));
+          } catch (IllegalArgumentException e) {
+            result.error("INVALID LAYER TYPE", e.getMessage(), null);
             break;
           }
 
@@ -1344,12 +1638,7 @@ final class MapboxMapController
                 "The style is null. Has onStyleLoaded() already been invoked?",
                 null);
           }
-          String layerId = call.argument("layerId");
-          boolean isVisible = call.argument("isVisible");
-          Layer layer = style.getLayer(layerId);
-          if (layer != null) {
-            layer.setProperties(isVisible ? visibility(VISIBLE) : visibility(NONE));
-          }
+          setLayerVisibility(call.argument("layerId"), call.argument("isVisible"));
 
           result.success(null);
           break;
@@ -1362,6 +1651,8 @@ final class MapboxMapController
                   (int) call.argument("width"), (int) call.argument("height"));
 
           snapShotOptions.withLogo((boolean) call.argument("withLogo"));
+          String defaultStyleUri = null;
+          String defaultRegion = null;
           Style.Builder styleBuilder = new Style.Builder();
           if (call.hasArgument("styleUri")) {
             styleBuilder.fromUri((String) call.argument("styleUri"));
@@ -1373,8 +1664,10 @@ final class MapboxMapController
                   "STYLE IS NULL",
                   "The style is null. Has onStyleLoaded() already been invoked?",
                   null);
+              break;
             }
-            styleBuilder.fromUri(style.getUri());
+            defaultStyleUri = style.getUri();
+            styleBuilder.fromUri(defaultStyleUri);
           }
           snapShotOptions.withStyleBuilder(styleBuilder);
           if (call.hasArgument("bounds")) {
@@ -1391,55 +1684,135 @@ final class MapboxMapController
                     .build();
             snapShotOptions.withCameraPosition(cameraPosition);
           } else {
-            snapShotOptions.withRegion(mapboxMap.getProjection().getVisibleRegion().latLngBounds);
+            final LatLngBounds visibleRegion =
+                mapboxMap.getProjection().getVisibleRegion().latLngBounds;
+            defaultRegion = visibleRegion.toString();
+            snapShotOptions.withRegion(visibleRegion);
           }
 
-          final MapSnapshotter snapshotter = new MapSnapshotter(context, snapShotOptions);
-          final String snapshotterID = UUID.randomUUID().toString();
-          mSnapshotterMap.put(snapshotterID, snapshotter);
-
-          snapshotter.start(
-              snapshot -> {
-                Bitmap bitmap = snapshot.getBitmap();
-
-                String result1;
-                if ((boolean) call.argument("writeToDisk")) {
-                  result1 = BitmapUtils.createTempFile(context, bitmap);
+          final BitmapUtils.EncodeOptions encodeOptions =
+              BitmapUtils.EncodeOptions.fromArguments((Map<?, ?>) call.arguments);
+          final SnapshotCache snapshotCache = SnapshotCache.getInstance();
+          if (!snapshotCache.isEnabled()) {
+            startSnapshotter(snapShotOptions, encodeOptions, null, result);
+            break;
+          }
+          final String cacheKey =
+              SnapshotCache.keyFor((Map<?, ?>) call.arguments, defaultStyleUri, defaultRegion);
+          snapshotCache.get(
+              cacheKey,
+              encodeOptions,
+              cached -> {
+                if (cached != null) {
+                  result.success(cached);
                 } else {
-                  result1 = BitmapUtils.createBase64(bitmap);
-                }
-
-                if (result1 == null) {
-                  result.error(
-                      "NO_RESULT",
-                      "Could not generate snapshot, please check Android logs for more info.",
-                      null);
-                  return;
-                }
-
-                result.success(result1);
-                mSnapshotterMap.remove(snapshotterID);
-              },
-              new MapSnapshotter.ErrorHandler() {
-                @Override
-                public void onError(String error) {
-                  result.error("SNAPSHOT_ERROR", error, null);
-                  mSnapshotterMap.remove(snapshotterID);
+                  startSnapshotter(snapShotOptions, encodeOptions, cacheKey, result);
                 }
               });
           break;
         }
+      case "snapshot#setCacheOptions":
+        {
+          SnapshotCache.getInstance()
+              .setOptions(context, (Map<?, ?>) call.arguments, () -> result.success(null));
+          break;
+        }
+      case "snapshot#getCacheStats":
+        {
+          result.success(SnapshotCache.getInstance().getStats());
+          break;
+        }
+      case "snapshot#clearCache":
+        {
+          SnapshotCache.getInstance().clear(() -> result.success(null));
+          break;
+        }
+      case "snapshot#takeSnapshots":
+        {
+          final String channelName = call.argument("channelName");
+          final List<Map<?, ?>> snapshots = call.argument("snapshots");
+          if (style == null) {
+            for (Map<?, ?> snapshot : snapshots) {
+              if (snapshot.get("styleUri") == null && snapshot.get("styleJson") == null) {
+                result.error(
+                    "STYLE IS NULL",
+                    "The style is null. Has onStyleLoaded() already been invoked?",
+                    null);
+                return;
+              }
+            }
+          }
+          FileSource.getInstance(context).activate();
+          final SnapshotBatch batch =
+              new SnapshotBatch(
+                  context,
+                  messenger,
+                  channelName,
+                  snapshots,
+                  call.argument("maxConcurrent"),
+                  style != null ? style.getUri() : null,
+                  mapboxMap.getProjection().getVisibleRegion().latLngBounds,
+                  finishedBatch -> snapshotBatches.remove(channelName));
+          snapshotBatches.put(channelName, batch);
+          result.success(null);
+          break;
+        }
       default:
         result.notImplemented();
     }
   }
 
+  /**
+   * Renders a snapshot and encodes it off the main thread, storing it in the snapshot cache if a
+   * cache key is given.
+   */
+  private void startSnapshotter(
+      MapSnapshotter.Options snapShotOptions,
+      BitmapUtils.EncodeOptions encodeOptions,
+      String cacheKey,
+      MethodChannel.Result result) {
+    final MapSnapshotter snapshotter = new MapSnapshotter(context, snapShotOptions);
+    final String snapshotterID = UUID.randomUUID().toString();
+    mSnapshotterMap.put(snapshotterID, snapshotter);
+
+    final BitmapUtils.EncodeCallback callback =
+        encoded -> {
+          if (encoded == null) {
+            result.error(
+                "NO_RESULT",
+                "Could not generate snapshot, please check Android logs for more info.",
+                null);
+            return;
+          }
+          result.success(encoded);
+        };
+    snapshotter.start(
+        snapshot -> {
+          mSnapshotterMap.remove(snapshotterID);
+          // compressing a full size snapshot takes long enough to drop frames
+          if (cacheKey != null) {
+            SnapshotCache.getInstance()
+                .encodeAndPut(context, snapshot.getBitmap(), cacheKey, encodeOptions, callback);
+          } else {
+            BitmapUtils.encodeAsync(context, snapshot.getBitmap(), encodeOptions, callback);
+          }
+        },
+        new MapSnapshotter.ErrorHandler() {
+          @Override
+          public void onError(String error) {
+            result.error("SNAPSHOT_ERROR", error, null);
+            mSnapshotterMap.remove(snapshotterID);
+          }
+        });
+  }
+
   @Override
   public void onCameraMoveStarted(int reason) {
     final Map<String, Object> arguments = new HashMap<>(2);
     boolean isGesture = reason == MapboxMap.OnCameraMoveStartedListener.REASON_API_GESTURE;
     arguments.put("isGesture", isGesture);
     methodChannel.invokeMethod("camera#onMoveStarted", arguments);
+    cameraMoveEventFilter.reset();
   }
 
   @Override
@@ -1447,8 +1820,16 @@ final class MapboxMapController
     if (!trackCameraPosition) {
       return;
     }
+    final CameraPosition position = mapboxMap.getCameraPosition();
+    if (!cameraMoveEventFilter.accept(position, SystemClock.uptimeMillis())) {
+      return;
+    }
+    if (cameraMoveEventFilter.isCompact()) {
+      methodChannel.invokeMethod("camera#onMove", cameraMoveEventFilter.getCompactPayload());
+      return;
+    }
     final Map<String, Object> arguments = new HashMap<>(2);
-    arguments.put("position", Convert.toJson(mapboxMap.getCameraPosition()));
+    arguments.put("position", Convert.toJson(position));
     methodChannel.invokeMethod("camera#onMove", arguments);
   }
 
@@ -1483,14 +1864,14 @@ final class MapboxMapController
   public boolean onMapClick(@NonNull LatLng point) {
     PointF pointf = mapboxMap.getProjection().toScreenLocation(point);
     RectF rectF = new RectF(pointf.x - 10, pointf.y - 10, pointf.x + 10, pointf.y + 10);
-    Feature feature = firstFeatureOnLayers(rectF);
+    FeatureHitTester.Hit hit = firstFeatureOnLayers(rectF);
     final Map<String, Object> arguments = new HashMap<>();
     arguments.put("x", pointf.x);
     arguments.put("y", pointf.y);
     arguments.put("lng", point.getLongitude());
     arguments.put("lat", point.getLatitude());
-    if (feature != null) {
-      arguments.put("id", feature.id());
+    if (hit != null) {
+      arguments.put("id", hit.feature.id());
       methodChannel.invokeMethod("feature#onTap", arguments);
     } else {
       methodChannel.invokeMethod("map#onMapClick", arguments);
@@ -1517,6 +1898,10 @@ final class MapboxMapController
     }
     disposed = true;
     methodChannel.setMethodCallHandler(null);
+    for (SnapshotBatch batch : new ArrayList<>(snapshotBatches.values())) {
+      batch.cancel();
+    }
+    geoJsonUpdateScheduler.dispose();
     destroyMapViewIfNecessary();
     Lifecycle lifecycle = lifecycleProvider.getLifecycle();
     if (lifecycle != null) {
@@ -1886,53 +2271,7 @@ final class MapboxMapController
    * @return
    */
   private Bitmap getScaledImage(String imageId, float density) {
-    AssetFileDescriptor assetFileDescriptor;
-
-    // Split image path into parts.
-    List<String> imagePathList = Arrays.asList(imageId.split("/"));
-    List<String> assetPathList = new ArrayList<>();
-
-    // "On devices with a device pixel ratio of 1.8, the asset .../2.0x/my_icon.png would be chosen.
-    // For a device pixel ratio of 2.7, the asset .../3.0x/my_icon.png would be chosen."
-    // Source: https://flutter.dev/docs/development/ui/assets-and-images#resolution-aware
-    for (int i = (int) Math.ceil(density); i > 0; i--) {
-      String assetPath;
-      if (i == 1) {
-        // If density is 1.0x then simply take the default asset path
-        assetPath = MapboxMapsPlugin.flutterAssets.getAssetFilePathByName(imageId);
-      } else {
-        // Build a resolution aware asset path as follows:
-        // <directory asset>/<ratio>/<image name>
-        // where ratio is 1.0x, 2.0x or 3.0x.
-        StringBuilder stringBuilder = new StringBuilder();
-        for (int j = 0; j < imagePathList.size() - 1; j++) {
-          stringBuilder.append(imagePathList.get(j));
-          stringBuilder.append("/");
-        }
-        stringBuilder.append(((float) i) + "x");
-        stringBuilder.append("/");
-        stringBuilder.append(imagePathList.get(imagePathList.size() - 1));
-        assetPath = MapboxMapsPlugin.flutterAssets.getAssetFilePathByName(stringBuilder.toString());
-      }
-      // Build up a list of resolution aware asset paths.
-      assetPathList.add(assetPath);
-    }
-
-    // Iterate over asset paths and get the highest scaled asset (as a bitmap).
-    Bitmap bitmap = null;
-    for (String assetPath : assetPathList) {
-      try {
-        // Read path (throws exception if doesn't exist).
-        assetFileDescriptor = mapView.getContext().getAssets().openFd(assetPath);
-        InputStream assetStream = assetFileDescriptor.createInputStream();
-        bitmap = BitmapFactory.decodeStream(assetStream);
-        assetFileDescriptor.close(); // Close for memory
-        break; // If exists, break
-      } catch (IOException e) {
-        // Skip
-      }
-    }
-    return bitmap;
+    return AssetImageCache.getInstance().get(mapView.getContext().getAssets(), imageId, density);
   }
 
   boolean onMoveBegin(MoveGestureDetector detector) {
@@ -1945,8 +2284,8 @@ final class MapboxMapController
       PointF pointf = detector.getFocalPoint();
       LatLng origin = mapboxMap.getProjection().fromScreenLocation(pointf);
       RectF rectF = new RectF(pointf.x - 10, pointf.y - 10, pointf.x + 10, pointf.y + 10);
-      Feature feature = firstFeatureOnLayers(rectF);
-      if (feature != null && startDragging(feature, origin)) {
+      FeatureHitTester.Hit hit = firstFeatureOnLayers(rectF);
+      if (hit != null && startDragging(hit, origin)) {
         invokeFeatureDrag(pointf, "start");
         return true;
       }
@@ -1956,6 +2295,17 @@ final class MapboxMapController
 
   private void invokeFeatureDrag(PointF pointf, String eventType) {
     LatLng current = mapboxMap.getProjection().fromScreenLocation(pointf);
+    if (nativeDraggedFeature != null) {
+      moveDraggedFeature(current);
+    }
+    if ("drag".equals(eventType)) {
+      final long now = SystemClock.uptimeMillis();
+      if (now - lastDragEventMillis < minDragEventIntervalMillis) {
+        // the next event carries the delta since the last sent one
+        return;
+      }
+      lastDragEventMillis = now;
+    }
 
     final Map<String, Object> arguments = new HashMap<>(9);
     arguments.put("id", draggedFeature.id());
@@ -1975,6 +2325,10 @@ final class MapboxMapController
   boolean onMove(MoveGestureDetector detector) {
     if (draggedFeature != null) {
       if (detector.getPointersCount() > 1) {
+        if (nativeDraggedFeature != null) {
+          // Dart has only seen the drag up to the last sent event
+          moveDraggedFeature(dragPrevious);
+        }
         stopDragging();
         return true;
       }
@@ -1988,7 +2342,7 @@ final class MapboxMapController
   void removeLayer(String layerId) {
     if (style != null && layerId != null) {
       style.removeLayer(layerId);
-      interactiveFeatureLayerIds.remove(layerId);
+      featureHitTester.removeLayer(layerId);
     }
   }
 
@@ -1998,15 +2352,18 @@ final class MapboxMapController
     stopDragging();
   }
 
-  boolean startDragging(@NonNull Feature feature, @NonNull LatLng origin) {
+  boolean startDragging(@NonNull FeatureHitTester.Hit hit, @NonNull LatLng origin) {
+    final Feature feature = hit.feature;
     final boolean draggable =
         feature.hasNonNullValueForProperty("draggable")
             ? feature.getBooleanProperty("draggable")
             : false;
     if (draggable) {
       draggedFeature = feature;
+      nativeDraggedFeature = nativeFeatureMove ? findDraggedFeature(hit) : null;
       dragPrevious = origin;
       dragOrigin = origin;
+      lastDragEventMillis = 0;
       return true;
     }
     return false;
@@ -2014,10 +2371,55 @@ final class MapboxMapController
 
   void stopDragging() {
     draggedFeature = null;
+    nativeDraggedFeature = null;
     dragOrigin = null;
     dragPrevious = null;
   }
 
+  /**
+   * Looks up the copy of the hit feature in the sources it may belong to. Features of sources
+   * without a copy are moved by Dart as before.
+   */
+  private DraggedFeature findDraggedFeature(FeatureHitTester.Hit hit) {
+    final String id = hit.feature.id();
+    if (id == null) {
+      return null;
+    }
+    for (String sourceId : hit.sourceIds) {
+      final GeoJsonFeatureStore featureStore = addedFeaturesByLayer.get(sourceId);
+      final Feature feature = featureStore != null ? featureStore.get(id) : null;
+      if (feature != null) {
+        return new DraggedFeature(sourceId, feature);
+      }
+    }
+    return null;
+  }
+
+  /** Moves the dragged feature in its source, the source is updated once per frame. */
+  private void moveDraggedFeature(LatLng current) {
+    final String sourceId = nativeDraggedFeature.sourceId;
+    final GeoJsonFeatureStore featureStore = addedFeaturesByLayer.get(sourceId);
+    if (featureStore == null) {
+      return;
+    }
+    featureStore.upsert(
+        nativeDraggedFeature.translatedBy(
+            current.getLongitude() - dragOrigin.getLongitude(),
+            current.getLatitude() - dragOrigin.getLatitude()));
+    geoJsonUpdateScheduler.scheduleFeatures(sourceId);
+  }
+
+  /**
+   * Applies the options of a {@code feature#setDragOptions} call. Returns whether dragged features
+   * are moved natively from now on.
+   */
+  private boolean setDragOptions(Boolean nativeMove, Double maxEventRate) {
+    nativeFeatureMove = nativeMove != null && nativeMove;
+    minDragEventIntervalMillis =
+        maxEventRate != null && maxEventRate > 0 ? Math.round(1000 / maxEventRate) : 0;
+    return nativeFeatureMove;
+  }
+
   /** Simple Listener to listen for the status of camera movements. */
   public class OnCameraMoveFinishedListener implements MapboxMap.CancelableCallback {
 
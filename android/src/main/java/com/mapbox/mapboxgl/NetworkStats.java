@@ -0,0 +1,257 @@
+package com.mapbox.mapboxgl;
+
+import android.os.SystemClock;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.Response;
+
+/**
+ * Records the requests of the http client, aggregated by host and resource type.
+ *
+ * <p>An event listener is created for each call and records the call when it ends, so a request is
+ * counted once with its duration, time to first byte, response bytes, status code and whether it
+ * was served by the disk cache of the client. Responses with status 304 are counted separately,
+ * they are the engine revalidating a resource of its own ambient cache. Cancelled calls, e.g. of
+ * tiles that went out of view, are not counted as failures.
+ */
+class NetworkStats implements EventListener.Factory {
+  static final String TYPE_TILES = "tiles";
+  static final String TYPE_GLYPHS = "glyphs";
+  static final String TYPE_SPRITES = "sprites";
+  static final String TYPE_STYLES = "styles";
+  static final String TYPE_SOURCES = "sources";
+  static final String TYPE_OTHER = "other";
+
+  // e.g. .vector.pbf, .mvt, .png, or .png32 and .jpg90 of the raster tiles API
+  private static final Pattern TILE_EXTENSION =
+      Pattern.compile(".*\\.(pbf|mvt|png\\d*|jpe?g\\d*|webp)$");
+  private static final NetworkStats instance = new NetworkStats();
+
+  /** Counters of a group of requests. */
+  private static class Bucket {
+    long requests;
+    long failures;
+    long cancellations;
+    long cacheHits;
+    long notModified;
+    long bytes;
+    long totalDurationMillis;
+    long maxDurationMillis;
+    long totalTimeToFirstByteMillis;
+    final Map<Integer, Long> statusCodes = new HashMap<>();
+
+    void add(CallListener call, long durationMillis) {
+      requests++;
+      if (call.cancelled) {
+        cancellations++;
+      } else if (call.failed) {
+        failures++;
+      }
+      if (call.cacheHit) {
+        cacheHits++;
+      }
+      if (call.statusCode == 304) {
+        notModified++;
+      }
+      bytes += call.bytes;
+      totalDurationMillis += durationMillis;
+      maxDurationMillis = Math.max(maxDurationMillis, durationMillis);
+      if (call.timeToFirstByteMillis >= 0) {
+        totalTimeToFirstByteMillis += call.timeToFirstByteMillis;
+      }
+      if (call.statusCode > 0) {
+        final Long count = statusCodes.get(call.statusCode);
+        statusCodes.put(call.statusCode, count != null ? count + 1 : 1);
+      }
+    }
+
+    Map<String, Object> toMap() {
+      final Map<String, Object> map = new HashMap<>();
+      map.put("requests", requests);
+      map.put("failures", failures);
+      map.put("cancellations", cancellations);
+      map.put("cacheHits", cacheHits);
+      map.put("notModified", notModified);
+      map.put("bytes", bytes);
+      map.put("totalDurationMillis", totalDurationMillis);
+      map.put("maxDurationMillis", maxDurationMillis);
+      map.put("totalTimeToFirstByteMillis", totalTimeToFirstByteMillis);
+      final Map<String, Object> codes = new HashMap<>();
+      for (Map.Entry<Integer, Long> entry : statusCodes.entrySet()) {
+        codes.put(String.valueOf(entry.getKey()), entry.getValue());
+      }
+      map.put("statusCodes", codes);
+      return map;
+    }
+  }
+
+  /** Listens to the events of one call, all events of a call come from one thread at a time. */
+  private class CallListener extends EventListener {
+    private long startMillis;
+    long timeToFirstByteMillis = -1;
+    long bytes;
+    int statusCode;
+    boolean cacheHit;
+    boolean failed;
+    boolean cancelled;
+
+    @Override
+    public void callStart(Call call) {
+      startMillis = SystemClock.elapsedRealtime();
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+      timeToFirstByteMillis = SystemClock.elapsedRealtime() - startMillis;
+      statusCode = response.code();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+      bytes += byteCount;
+    }
+
+    @Override
+    public void cacheHit(Call call, Response response) {
+      cacheHit = true;
+      statusCode = response.code();
+    }
+
+    @Override
+    public void cacheConditionalHit(Call call, Response cachedResponse) {
+      cacheHit = true;
+    }
+
+    @Override
+    public void canceled(Call call) {
+      cancelled = true;
+    }
+
+    @Override
+    public void callEnd(Call call) {
+      record(call.request().url(), this, SystemClock.elapsedRealtime() - startMillis);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+      failed = true;
+      record(call.request().url(), this, SystemClock.elapsedRealtime() - startMillis);
+    }
+  }
+
+  private Bucket total = new Bucket();
+  private final Map<String, Bucket> hosts = new HashMap<>();
+  private final Map<String, Bucket> types = new HashMap<>();
+  private long sinceMillis = System.currentTimeMillis();
+
+  static NetworkStats getInstance() {
+    return instance;
+  }
+
+  @Override
+  public EventListener create(Call call) {
+    return new CallListener();
+  }
+
+  synchronized Map<String, Object> getStats() {
+    final Map<String, Object> stats = total.toMap();
+    stats.put("since", sinceMillis);
+    stats.put("hosts", toMaps(hosts));
+    stats.put("types", toMaps(types));
+    return stats;
+  }
+
+  synchronized void reset() {
+    total = new Bucket();
+    hosts.clear();
+    types.clear();
+    sinceMillis = System.currentTimeMillis();
+  }
+
+  private synchronized void record(HttpUrl url, CallListener call, long durationMillis) {
+    total.add(call, durationMillis);
+    bucket(hosts, url.host()).add(call, durationMillis);
+    bucket(types, typeOf(url)).add(call, durationMillis);
+  }
+
+  /**
+   * Returns the resource type of a url of a Mapbox or Mapbox compatible server.
+   *
+   * <p>A url is a tile if its path ends with {@code {z}/{x}/{y}}, with or without an extension or a
+   * suffix such as {@code @2x}, if its path contains {@code /tiles/}, as in the static tiles API,
+   * or if its file has a tile extension such as {@code .pbf}, {@code .mvt}, {@code .png32} or
+   * {@code .jpg90}. JSON files are never tiles.
+   */
+  static String typeOf(HttpUrl url) {
+    final String path = url.encodedPath();
+    final String name = url.pathSegments().get(url.pathSize() - 1);
+    if (path.contains("/fonts/") || path.contains("/glyphs/")) {
+      return TYPE_GLYPHS;
+    }
+    if (name.startsWith("sprite")) {
+      return TYPE_SPRITES;
+    }
+    if (!name.endsWith(".json")
+        && (tileOf(url) != null
+            || path.contains("/tiles/")
+            || TILE_EXTENSION.matcher(name).matches())) {
+      return TYPE_TILES;
+    }
+    if (path.contains("/styles/")) {
+      return TYPE_STYLES;
+    }
+    if (name.endsWith(".json")) {
+      return TYPE_SOURCES;
+    }
+    return TYPE_OTHER;
+  }
+
+  /**
+   * Returns the {z, x, y} at the end of the path of a tile url, e.g. of {@code .../3/2/1.pbf} or
+   * {@code .../3/2/1@2x}, or null if the path does not end with tile coordinates.
+   */
+  static int[] tileOf(HttpUrl url) {
+    final List<String> segments = url.pathSegments();
+    if (segments.size() < 3) {
+      return null;
+    }
+    final int z;
+    final int x;
+    final int y;
+    try {
+      z = Integer.parseInt(segments.get(segments.size() - 3));
+      x = Integer.parseInt(segments.get(segments.size() - 2));
+      // e.g. 3.vector.pbf or 3@2x.png
+      y = Integer.parseInt(segments.get(segments.size() - 1).split("[.@]", 2)[0]);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    if (z < 0 || z > 30 || x < 0 || y < 0 || x >= 1 << z || y >= 1 << z) {
+      return null;
+    }
+    return new int[] {z, x, y};
+  }
+
+  private static Bucket bucket(Map<String, Bucket> buckets, String key) {
+    Bucket bucket = buckets.get(key);
+    if (bucket == null) {
+      bucket = new Bucket();
+      buckets.put(key, bucket);
+    }
+    return bucket;
+  }
+
+  private static Map<String, Object> toMaps(Map<String, Bucket> buckets) {
+    final Map<String, Object> maps = new HashMap<>();
+    for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+      maps.put(entry.getKey(), entry.getValue().toMap());
+    }
+    return maps;
+  }
+}
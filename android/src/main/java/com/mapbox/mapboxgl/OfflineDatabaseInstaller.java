@@ -0,0 +1,279 @@
+package com.mapbox.mapboxgl;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.AssetFileDescriptor;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Installs a sideloaded offline database as {@code mbgl-offline.db} on a background thread.
+ *
+ * <p>The database is copied with {@link FileChannel#transferFrom} into a temp file next to the
+ * destination, verified and then renamed over the destination, so the installed database is never
+ * half written. A marker file records which source was installed last, so installing the same
+ * source again is skipped. The engine writes to the database once it is in use, so the marker is
+ * compared instead of the file contents.
+ */
+class OfflineDatabaseInstaller {
+  static final String DATABASE_NAME = "mbgl-offline.db";
+
+  private static final String TAG = "OfflineDbInstaller";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final String MARKER_SUFFIX = ".source";
+  // progress is reported once per chunk
+  private static final long CHUNK_SIZE = 8 * 1024 * 1024;
+  private static final int BUFFER_SIZE = 256 * 1024;
+
+  interface Callback {
+    /** Called on the main thread after each copied chunk, total is -1 if it is not known. */
+    void onProgress(long copiedBytes, long totalBytes);
+
+    /** Called on the main thread when done, installed is false if the copy was skipped. */
+    void onDone(boolean installed);
+
+    /** Called on the main thread if the database could not be installed. */
+    void onError(String message);
+  }
+
+  private static ExecutorService installExecutor;
+
+  private static synchronized ExecutorService getInstallExecutor() {
+    if (installExecutor == null) {
+      installExecutor =
+          Executors.newSingleThreadExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "OfflineDatabaseInstaller");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return installExecutor;
+  }
+
+  /**
+   * Installs the database from an absolute file path or a Flutter asset key.
+   *
+   * @param force copy the database even if the same source was installed before
+   * @param sha256 the expected hex encoded SHA-256 checksum of the database, or null
+   */
+  static void install(
+      Context context,
+      String path,
+      boolean isAsset,
+      boolean force,
+      String sha256,
+      Callback callback) {
+    final Handler mainHandler = new Handler(Looper.getMainLooper());
+    getInstallExecutor()
+        .execute(
+            () -> {
+              try {
+                final boolean installed =
+                    install(
+                        context,
+                        path,
+                        isAsset,
+                        force,
+                        sha256,
+                        (copiedBytes, totalBytes) ->
+                            mainHandler.post(() -> callback.onProgress(copiedBytes, totalBytes)));
+                mainHandler.post(() -> callback.onDone(installed));
+              } catch (IOException e) {
+                Log.e(TAG, "Could not install " + path, e);
+                mainHandler.post(() -> callback.onError(e.getMessage()));
+              }
+            });
+  }
+
+  private interface ProgressListener {
+    void onProgress(long copiedBytes, long totalBytes);
+  }
+
+  private static boolean install(
+      Context context,
+      String path,
+      boolean isAsset,
+      boolean force,
+      String sha256,
+      ProgressListener listener)
+      throws IOException {
+    final File destination = new File(context.getFilesDir(), DATABASE_NAME);
+    final File marker = new File(context.getFilesDir(), DATABASE_NAME + MARKER_SUFFIX);
+    final File tempFile = new File(context.getFilesDir(), DATABASE_NAME + TEMP_SUFFIX);
+    final String identity = identity(context, path, isAsset, sha256);
+    if (!force && destination.isFile() && identity.equals(readMarker(marker))) {
+      return false;
+    }
+    // an interrupted install must not be mistaken for the installed source
+    marker.delete();
+    try {
+      final long totalBytes =
+          isAsset
+              ? copyAsset(context, path, tempFile, listener)
+              : copyFile(path, tempFile, listener);
+      if (totalBytes >= 0 && tempFile.length() != totalBytes) {
+        throw new IOException(
+            "Copied " + tempFile.length() + " of " + totalBytes + " bytes of " + path);
+      }
+      if (sha256 != null && !sha256.equalsIgnoreCase(checksum(tempFile))) {
+        throw new IOException("The checksum of " + path + " does not match");
+      }
+      if (!tempFile.renameTo(destination)) {
+        throw new IOException("Could not rename " + tempFile + " to " + destination);
+      }
+    } finally {
+      tempFile.delete();
+    }
+    writeMarker(marker, identity);
+    return true;
+  }
+
+  private static long copyFile(String path, File tempFile, ProgressListener listener)
+      throws IOException {
+    try (FileInputStream input = new FileInputStream(path)) {
+      final FileChannel source = input.getChannel();
+      final long totalBytes = source.size();
+      transfer(source, totalBytes, tempFile, listener);
+      return totalBytes;
+    }
+  }
+
+  private static long copyAsset(
+      Context context, String assetKey, File tempFile, ProgressListener listener)
+      throws IOException {
+    final AssetFileDescriptor descriptor;
+    try {
+      descriptor = context.getAssets().openFd(assetKey);
+    } catch (FileNotFoundException e) {
+      // compressed assets cannot be mapped and have to be inflated through a stream
+      try (InputStream input = context.getAssets().open(assetKey)) {
+        transfer(Channels.newChannel(input), -1, tempFile, listener);
+        return -1;
+      }
+    }
+    try (FileInputStream input = descriptor.createInputStream()) {
+      final FileChannel source = input.getChannel();
+      source.position(descriptor.getStartOffset());
+      transfer(source, descriptor.getLength(), tempFile, listener);
+      return descriptor.getLength();
+    } finally {
+      descriptor.close();
+    }
+  }
+
+  /**
+   * Copies up to totalBytes from the source into the file, or until its end if totalBytes is -1.
+   */
+  private static void transfer(
+      ReadableByteChannel source, long totalBytes, File file, ProgressListener listener)
+      throws IOException {
+    try (FileOutputStream output = new FileOutputStream(file)) {
+      final FileChannel destination = output.getChannel();
+      long copiedBytes = 0;
+      while (totalBytes < 0 || copiedBytes < totalBytes) {
+        final long count =
+            totalBytes < 0 ? CHUNK_SIZE : Math.min(CHUNK_SIZE, totalBytes - copiedBytes);
+        final long transferred = destination.transferFrom(source, copiedBytes, count);
+        if (transferred <= 0) {
+          break;
+        }
+        copiedBytes += transferred;
+        listener.onProgress(copiedBytes, totalBytes);
+      }
+      // the data has to be on disk before the rename makes it the installed database
+      destination.force(true);
+    }
+  }
+
+  private static String identity(Context context, String path, boolean isAsset, String sha256) {
+    final StringBuilder identity = new StringBuilder();
+    if (isAsset) {
+      // assets only change with an update of the app
+      long lastUpdateTime = 0;
+      try {
+        lastUpdateTime =
+            context.getPackageManager().getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+      } catch (PackageManager.NameNotFoundException e) {
+        // cannot happen for the own package
+      }
+      identity.append("asset:").append(path).append(':').append(lastUpdateTime);
+    } else {
+      final File file = new File(path);
+      identity
+          .append("file:")
+          .append(file.getAbsolutePath())
+          .append(':')
+          .append(file.length())
+          .append(':')
+          .append(file.lastModified());
+    }
+    if (sha256 != null) {
+      identity.append(':').append(sha256.toLowerCase());
+    }
+    return identity.toString();
+  }
+
+  private static String checksum(File file) throws IOException {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+    final byte[] buffer = new byte[BUFFER_SIZE];
+    try (InputStream input = new FileInputStream(file)) {
+      int read;
+      while ((read = input.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    final StringBuilder hex = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return hex.toString();
+  }
+
+  private static String readMarker(File marker) {
+    if (!marker.isFile()) {
+      return null;
+    }
+    final byte[] bytes = new byte[(int) marker.length()];
+    try (InputStream input = new FileInputStream(marker)) {
+      int offset = 0;
+      int read;
+      while (offset < bytes.length
+          && (read = input.read(bytes, offset, bytes.length - offset)) > 0) {
+        offset += read;
+      }
+      return new String(bytes, 0, offset, "UTF-8");
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static void writeMarker(File marker, String identity) {
+    try (OutputStream output = new FileOutputStream(marker)) {
+      output.write(identity.getBytes("UTF-8"));
+    } catch (IOException e) {
+      // the next install of the same source copies it again
+      Log.w(TAG, "Could not write " + marker, e);
+    }
+  }
+}
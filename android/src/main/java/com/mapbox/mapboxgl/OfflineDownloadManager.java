@@ -0,0 +1,481 @@
+package com.mapbox.mapboxgl;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.mapbox.mapboxsdk.offline.OfflineManager;
+import com.mapbox.mapboxsdk.offline.OfflineRegion;
+import com.mapbox.mapboxsdk.offline.OfflineRegionError;
+import com.mapbox.mapboxsdk.offline.OfflineRegionStatus;
+import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queue of offline region downloads of which only a limited number are active at the same time.
+ *
+ * <p>Regions are created when they are enqueued and downloaded in the order of their priority, then
+ * in the order they were enqueued. The queue, including paused downloads, is stored in the shared
+ * preferences and restored by the first call to the manager after a restart. Progress is reported
+ * on a single event channel for all downloads, at most once per progress interval and download;
+ * state changes are always reported. All methods are called and all callbacks of the offline
+ * manager arrive on the main thread.
+ */
+class OfflineDownloadManager implements EventChannel.StreamHandler {
+  static final String EVENT_CHANNEL = "plugins.flutter.io/mapbox_gl_offline_downloads";
+  static final int DEFAULT_MAX_CONCURRENT = 2;
+  static final long DEFAULT_PROGRESS_INTERVAL_MILLIS = 500;
+
+  static final String STATE_QUEUED = "queued";
+  static final String STATE_ACTIVE = "active";
+  static final String STATE_PAUSED = "paused";
+  static final String STATE_COMPLETE = "complete";
+  static final String STATE_FAILED = "failed";
+  static final String STATE_CANCELLED = "cancelled";
+
+  private static final String PREFERENCES = "mapbox_gl_offline_downloads";
+  private static final String PREFERENCE_QUEUE = "queue";
+  private static final String PREFERENCE_MAX_CONCURRENT = "maxConcurrent";
+  private static final String PREFERENCE_PROGRESS_INTERVAL = "progressInterval";
+
+  private static OfflineDownloadManager instance;
+
+  /** A queued download, only the non-transient fields are persisted. */
+  private static class Download {
+    long id;
+    int priority;
+    long sequence;
+    boolean paused;
+    transient OfflineRegion region;
+    transient boolean active;
+    transient OfflineProgressReporter progressReporter;
+
+    String state() {
+      return active ? STATE_ACTIVE : paused ? STATE_PAUSED : STATE_QUEUED;
+    }
+  }
+
+  private static final Comparator<Download> QUEUE_ORDER =
+      new Comparator<Download>() {
+        @Override
+        public int compare(Download a, Download b) {
+          if (a.priority != b.priority) {
+            return a.priority > b.priority ? -1 : 1;
+          }
+          return Long.compare(a.sequence, b.sequence);
+        }
+      };
+
+  private final Context context;
+  private final SharedPreferences preferences;
+  private final Gson gson = new Gson();
+  private final LinkedHashMap<Long, Download> downloads = new LinkedHashMap<>();
+  private final List<PendingCall> pendingUntilRestored = new ArrayList<>();
+  private int maxConcurrent;
+  private long progressIntervalMillis;
+  private long nextSequence = 0;
+  private boolean restoring = false;
+  private boolean restored = false;
+  private EventChannel.EventSink sink;
+
+  private OfflineDownloadManager(Context context) {
+    this.context = context;
+    preferences = context.getSharedPreferences(PREFERENCES, Context.MODE_PRIVATE);
+    maxConcurrent = preferences.getInt(PREFERENCE_MAX_CONCURRENT, DEFAULT_MAX_CONCURRENT);
+    progressIntervalMillis =
+        preferences.getLong(PREFERENCE_PROGRESS_INTERVAL, DEFAULT_PROGRESS_INTERVAL_MILLIS);
+  }
+
+  static synchronized OfflineDownloadManager getInstance(Context context) {
+    if (instance == null) {
+      instance = new OfflineDownloadManager(context.getApplicationContext());
+    }
+    return instance;
+  }
+
+  @Override
+  public void onListen(Object arguments, EventChannel.EventSink events) {
+    sink = events;
+  }
+
+  @Override
+  public void onCancel(Object arguments) {
+    sink = null;
+  }
+
+  /** Creates the region and queues its download, the result is the region as JSON. */
+  void enqueue(
+      Map<String, Object> definitionMap,
+      Map<String, Object> metadataMap,
+      int priority,
+      MethodChannel.Result result) {
+    whenRestored(
+        result,
+        () -> {
+          float pixelDensity = context.getResources().getDisplayMetrics().density;
+          String metadata = metadataMap != null ? gson.toJson(metadataMap) : "{}";
+          OfflineManager.getInstance(context)
+              .createOfflineRegion(
+                  OfflineManagerUtils.mapToRegionDefinition(definitionMap, pixelDensity),
+                  metadata.getBytes(),
+                  new OfflineManager.CreateOfflineRegionCallback() {
+                    @Override
+                    public void onCreate(OfflineRegion offlineRegion) {
+                      OfflineRegionIndex.getInstance().put(offlineRegion);
+                      final Download download = add(offlineRegion, priority);
+                      result.success(
+                          gson.toJson(OfflineManagerUtils.offlineRegionToMap(offlineRegion)));
+                      sendState(download);
+                      pump();
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                      result.error("mapboxInvalidRegionDefinition", error, null);
+                    }
+                  });
+        });
+  }
+
+  /** Pauses a queued or active download, the result is false if the id is not queued. */
+  void pause(long id, MethodChannel.Result result) {
+    whenRestored(
+        result,
+        () -> {
+          final Download download = downloads.get(id);
+          if (download == null) {
+            result.success(false);
+            return;
+          }
+          download.paused = true;
+          deactivate(download);
+          persist();
+          sendState(download);
+          pump();
+          result.success(true);
+        });
+  }
+
+  /**
+   * Resumes a paused download. Regions that are not queued, for example ones downloaded with {@code
+   * downloadOfflineRegion}, are queued with the given priority. The result is false if there is no
+   * region with the id.
+   */
+  void resume(long id, int priority, MethodChannel.Result result) {
+    whenRestored(
+        result,
+        () -> {
+          final Download download = downloads.get(id);
+          if (download != null) {
+            if (download.paused) {
+              download.paused = false;
+              persist();
+              sendState(download);
+              pump();
+            }
+            result.success(true);
+            return;
+          }
+          listRegions(
+              regions -> {
+                final OfflineRegion region = regions.get(id);
+                if (region == null) {
+                  result.success(false);
+                  return;
+                }
+                sendState(add(region, priority));
+                pump();
+                result.success(true);
+              },
+              error -> result.error("RegionListError", error, null));
+        });
+  }
+
+  /**
+   * Stops a download, removes it from the queue and deletes its region with the tiles downloaded so
+   * far. The result is false if the id is not queued.
+   */
+  void cancel(long id, MethodChannel.Result result) {
+    whenRestored(
+        result,
+        () -> {
+          final Download download = downloads.get(id);
+          if (download == null) {
+            result.success(false);
+            return;
+          }
+          onRegionDeleted(id);
+          OfflineManagerUtils.delete(
+              context,
+              download.region,
+              new OfflineRegion.OfflineRegionDeleteCallback() {
+                @Override
+                public void onDelete() {
+                  result.success(true);
+                }
+
+                @Override
+                public void onError(String error) {
+                  result.error("DeleteRegionError", error, null);
+                }
+              });
+        });
+  }
+
+  /** Removes a region that is deleted from the queue. */
+  void onRegionDeleted(long id) {
+    final Download download = downloads.remove(id);
+    if (download == null) {
+      return;
+    }
+    deactivate(download);
+    persist();
+    sendEvent(download.id, STATE_CANCELLED, null, null);
+    pump();
+  }
+
+  /** Applies the options of an {@code offlineDownloads#setOptions} call. */
+  void setOptions(Map<?, ?> options) {
+    final Object maxConcurrent = options.get("maxConcurrent");
+    if (maxConcurrent != null) {
+      this.maxConcurrent = Math.max(1, ((Number) maxConcurrent).intValue());
+    }
+    final Object progressInterval = options.get("progressInterval");
+    if (progressInterval != null) {
+      progressIntervalMillis = Math.max(0, ((Number) progressInterval).longValue());
+    }
+    preferences
+        .edit()
+        .putInt(PREFERENCE_MAX_CONCURRENT, this.maxConcurrent)
+        .putLong(PREFERENCE_PROGRESS_INTERVAL, progressIntervalMillis)
+        .apply();
+    if (restored) {
+      pump();
+    }
+  }
+
+  /** Returns the queued downloads in the order they are downloaded. */
+  void list(MethodChannel.Result result) {
+    whenRestored(
+        result,
+        () -> {
+          final List<Map<String, Object>> list = new ArrayList<>();
+          for (Download download : queue()) {
+            final Map<String, Object> item = new HashMap<>();
+            item.put("id", download.id);
+            item.put("state", download.state());
+            item.put("priority", download.priority);
+            list.add(item);
+          }
+          result.success(list);
+        });
+  }
+
+  private interface RegionsCallback {
+    void onList(Map<Long, OfflineRegion> regions);
+  }
+
+  private interface ErrorCallback {
+    void onError(String error);
+  }
+
+  private void listRegions(RegionsCallback callback, ErrorCallback errorCallback) {
+    OfflineRegionIndex.getInstance()
+        .load(
+            context,
+            new OfflineRegionIndex.Callback() {
+              @Override
+              public void onLoaded(Map<Long, OfflineRegion> regions) {
+                callback.onList(regions);
+              }
+
+              @Override
+              public void onError(String error) {
+                errorCallback.onError(error);
+              }
+            });
+  }
+
+  /** A method call waiting for the queue to be restored. */
+  private static class PendingCall {
+    final MethodChannel.Result result;
+    final Runnable action;
+
+    PendingCall(MethodChannel.Result result, Runnable action) {
+      this.result = result;
+      this.action = action;
+    }
+  }
+
+  /**
+   * Runs the action once the queue of the previous run is restored, or fails the call if it cannot
+   * be restored.
+   */
+  private void whenRestored(MethodChannel.Result result, Runnable action) {
+    if (restored) {
+      action.run();
+      return;
+    }
+    pendingUntilRestored.add(new PendingCall(result, action));
+    if (restoring) {
+      return;
+    }
+    restoring = true;
+    final List<Download> persisted =
+        gson.fromJson(
+            preferences.getString(PREFERENCE_QUEUE, "[]"),
+            new TypeToken<List<Download>>() {}.getType());
+    listRegions(
+        regions -> {
+          for (Download download : persisted) {
+            download.region = regions.get(download.id);
+            // regions deleted in the meantime are dropped
+            if (download.region != null) {
+              downloads.put(download.id, download);
+              nextSequence = Math.max(nextSequence, download.sequence + 1);
+            }
+          }
+          restored = true;
+          restoring = false;
+          persist();
+          pump();
+          final List<PendingCall> pending = new ArrayList<>(pendingUntilRestored);
+          pendingUntilRestored.clear();
+          for (PendingCall call : pending) {
+            call.action.run();
+          }
+        },
+        error -> {
+          // keep the persisted queue and try again with the next call
+          restoring = false;
+          final List<PendingCall> pending = new ArrayList<>(pendingUntilRestored);
+          pendingUntilRestored.clear();
+          for (PendingCall call : pending) {
+            call.result.error("RegionListError", error, null);
+          }
+        });
+  }
+
+  private Download add(OfflineRegion region, int priority) {
+    final Download download = new Download();
+    download.id = region.getID();
+    download.priority = priority;
+    download.sequence = nextSequence++;
+    download.region = region;
+    downloads.put(download.id, download);
+    persist();
+    return download;
+  }
+
+  private List<Download> queue() {
+    final List<Download> queue = new ArrayList<>(downloads.values());
+    Collections.sort(queue, QUEUE_ORDER);
+    return queue;
+  }
+
+  /** Activates queued downloads until the concurrency limit is reached. */
+  private void pump() {
+    int active = 0;
+    for (Download download : downloads.values()) {
+      if (download.active) {
+        active++;
+      }
+    }
+    for (Download download : queue()) {
+      if (active >= maxConcurrent) {
+        break;
+      }
+      if (!download.active && !download.paused) {
+        activate(download);
+        active++;
+      }
+    }
+  }
+
+  private void activate(Download download) {
+    download.active = true;
+    download.progressReporter = new OfflineProgressReporter(progressIntervalMillis);
+    download.region.setObserver(
+        new OfflineRegion.OfflineRegionObserver() {
+          @Override
+          public void onStatusChanged(OfflineRegionStatus status) {
+            if (!download.active) {
+              return;
+            }
+            final Map<String, Object> report = download.progressReporter.onStatusChanged(status);
+            if (report != null) {
+              sendEvent(download.id, STATE_ACTIVE, report, null);
+            }
+            if (status.isComplete()) {
+              finish(download, STATE_COMPLETE, null);
+            }
+          }
+
+          @Override
+          public void onError(OfflineRegionError error) {
+            // the engine keeps retrying, so the download stays active
+            if (download.active) {
+              sendEvent(
+                  download.id, STATE_ACTIVE, null, error.getReason() + ": " + error.getMessage());
+            }
+          }
+
+          @Override
+          public void mapboxTileCountLimitExceeded(long limit) {
+            if (download.active) {
+              finish(download, STATE_FAILED, "Mapbox tile count limit exceeded: " + limit);
+            }
+          }
+        });
+    download.region.setDownloadState(OfflineRegion.STATE_ACTIVE);
+    sendState(download);
+  }
+
+  private void deactivate(Download download) {
+    if (!download.active) {
+      return;
+    }
+    download.active = false;
+    download.region.setObserver(null);
+    download.region.setDownloadState(OfflineRegion.STATE_INACTIVE);
+  }
+
+  private void finish(Download download, String state, String error) {
+    deactivate(download);
+    downloads.remove(download.id);
+    persist();
+    sendEvent(download.id, state, null, error);
+    pump();
+  }
+
+  private void persist() {
+    preferences.edit().putString(PREFERENCE_QUEUE, gson.toJson(queue())).apply();
+  }
+
+  private void sendState(Download download) {
+    sendEvent(download.id, download.state(), null, null);
+  }
+
+  private void sendEvent(long id, String state, Map<String, Object> progress, String error) {
+    if (sink == null) {
+      return;
+    }
+    final Map<String, Object> event = new HashMap<>();
+    event.put("id", id);
+    event.put("state", state);
+    if (progress != null) {
+      event.putAll(progress);
+    }
+    if (error != null) {
+      event.put("error", error);
+    }
+    sink.success(event);
+  }
+}
@@ -12,6 +12,7 @@ import com.mapbox.mapboxsdk.offline.OfflineRegionError;
 import com.mapbox.mapboxsdk.offline.OfflineRegionStatus;
 import com.mapbox.mapboxsdk.offline.OfflineTilePyramidRegionDefinition;
 import io.flutter.plugin.common.MethodChannel;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -28,6 +29,9 @@ abstract class OfflineManagerUtils {
             path,
             new OfflineManager.MergeOfflineRegionsCallback() {
               public void onMerge(OfflineRegion[] offlineRegions) {
+                for (OfflineRegion offlineRegion : offlineRegions) {
+                  OfflineRegionIndex.getInstance().put(offlineRegion);
+                }
                 if (result == null) return;
                 List<Map<String, Object>> regionsArgs = new ArrayList<>();
                 for (OfflineRegion offlineRegion : offlineRegions) {
@@ -54,6 +58,7 @@ abstract class OfflineManagerUtils {
       Context context,
       Map<String, Object> definitionMap,
       Map<String, Object> metadataMap,
+      int progressEventsPerSecond,
       OfflineChannelHandlerImpl channelHandler) {
     float pixelDensity = context.getResources().getDisplayMetrics().density;
     OfflineRegionDefinition definition = mapToRegionDefinition(definitionMap, pixelDensity);
@@ -72,6 +77,7 @@ abstract class OfflineManagerUtils {
 
               @Override
               public void onCreate(OfflineRegion offlineRegion) {
+                OfflineRegionIndex.getInstance().put(offlineRegion);
                 Map<String, Object> regionData = offlineRegionToMap(offlineRegion);
                 result.success(new Gson().toJson(regionData));
 
@@ -79,21 +85,17 @@ abstract class OfflineManagerUtils {
                 // Start downloading region
                 _offlineRegion.setDownloadState(OfflineRegion.STATE_ACTIVE);
                 channelHandler.onStart();
+                final OfflineProgressReporter progressReporter =
+                    new OfflineProgressReporter(
+                        OfflineProgressReporter.intervalFor(progressEventsPerSecond));
                 // Observe downloading state
                 OfflineRegion.OfflineRegionObserver observer =
                     new OfflineRegion.OfflineRegionObserver() {
                       @Override
                       public void onStatusChanged(OfflineRegionStatus status) {
-                        // Calculate progress of
-                        // downloading
-                        double progress =
-                            calculateDownloadingProgress(
-                                status.getRequiredResourceCount(),
-                                status.getCompletedResourceCount());
                         // Check if downloading is
                         // complete
                         if (status.isComplete()) {
-                          Log.i(TAG, "Region " + "downloaded " + "successfully.");
                           // Reset downloading state
                           _offlineRegion.setDownloadState(OfflineRegion.STATE_INACTIVE);
                           // This can be called
@@ -104,10 +106,15 @@ abstract class OfflineManagerUtils {
                           // prevent it
                           if (isComplete.get()) return;
                           isComplete.set(true);
+                          // the final byte counts
+                          channelHandler.onProgress(progressReporter.onStatusChanged(status));
                           channelHandler.onSuccess();
                         } else {
-                          Log.i(TAG, "Region " + "download " + "progress = " + progress);
-                          channelHandler.onProgress(progress);
+                          final Map<String, Object> report =
+                              progressReporter.onStatusChanged(status);
+                          if (report != null) {
+                            channelHandler.onProgress(report);
+                          }
                         }
                       }
 
@@ -165,6 +172,7 @@ abstract class OfflineManagerUtils {
             new OfflineManager.ListOfflineRegionsCallback() {
               @Override
               public void onList(OfflineRegion[] offlineRegions) {
+                OfflineRegionIndex.getInstance().replaceAll(offlineRegions);
                 List<Map<String, Object>> regionsArgs = new ArrayList<>();
                 for (OfflineRegion offlineRegion : offlineRegions) {
                   regionsArgs.add(offlineRegionToMap(offlineRegion));
@@ -181,43 +189,44 @@ abstract class OfflineManagerUtils {
 
   static void updateRegionMetadata(
       MethodChannel.Result result, Context context, long id, Map<String, Object> metadataMap) {
-    OfflineManager.getInstance(context)
-        .listOfflineRegions(
-            new OfflineManager.ListOfflineRegionsCallback() {
+    OfflineRegionIndex.getInstance()
+        .load(
+            context,
+            new OfflineRegionIndex.Callback() {
               @Override
-              public void onList(OfflineRegion[] offlineRegions) {
-                for (OfflineRegion offlineRegion : offlineRegions) {
-                  if (offlineRegion.getID() != id) continue;
+              public void onLoaded(Map<Long, OfflineRegion> regions) {
+                final OfflineRegion offlineRegion = regions.get(id);
+                if (offlineRegion == null) {
+                  if (result == null) return;
+                  result.error(
+                      "UpdateMetadataError",
+                      "There is no " + "region with given id to " + "update.",
+                      null);
+                  return;
+                }
 
-                  String metadata = "{}";
-                  if (metadataMap != null) {
-                    metadata = new Gson().toJson(metadataMap);
-                  }
-                  offlineRegion.updateMetadata(
-                      metadata.getBytes(),
-                      new OfflineRegion.OfflineRegionUpdateMetadataCallback() {
-                        @Override
-                        public void onUpdate(byte[] metadataBytes) {
-                          Map<String, Object> regionData = offlineRegionToMap(offlineRegion);
-                          regionData.put("metadata", metadataBytesToMap(metadataBytes));
+                String metadata = "{}";
+                if (metadataMap != null) {
+                  metadata = new Gson().toJson(metadataMap);
+                }
+                offlineRegion.updateMetadata(
+                    metadata.getBytes(),
+                    new OfflineRegion.OfflineRegionUpdateMetadataCallback() {
+                      @Override
+                      public void onUpdate(byte[] metadataBytes) {
+                        Map<String, Object> regionData = offlineRegionToMap(offlineRegion);
+                        regionData.put("metadata", metadataBytesToMap(metadataBytes));
 
-                          if (result == null) return;
-                          result.success(new Gson().toJson(regionData));
-                        }
+                        if (result == null) return;
+                        result.success(new Gson().toJson(regionData));
+                      }
 
-                        @Override
-                        public void onError(String error) {
-                          if (result == null) return;
-                          result.error("UpdateMetadataError", error, null);
-                        }
-                      });
-                  return;
-                }
-                if (result == null) return;
-                result.error(
-                    "UpdateMetadataError",
-                    "There is no " + "region with given id to " + "update.",
-                    null);
+                      @Override
+                      public void onError(String error) {
+                        if (result == null) return;
+                        result.error("UpdateMetadataError", error, null);
+                      }
+                    });
               }
 
               @Override
@@ -229,53 +238,278 @@ abstract class OfflineManagerUtils {
   }
 
   static void deleteRegion(MethodChannel.Result result, Context context, long id) {
-    OfflineManager.getInstance(context)
-        .listOfflineRegions(
-            new OfflineManager.ListOfflineRegionsCallback() {
+    OfflineRegionIndex.getInstance()
+        .load(
+            context,
+            new OfflineRegionIndex.Callback() {
               @Override
-              public void onList(OfflineRegion[] offlineRegions) {
-                for (OfflineRegion offlineRegion : offlineRegions) {
-                  if (offlineRegion.getID() != id) continue;
+              public void onLoaded(Map<Long, OfflineRegion> regions) {
+                final OfflineRegion offlineRegion = regions.get(id);
+                if (offlineRegion == null) {
+                  if (result == null) return;
+                  result.error(
+                      "DeleteRegionError",
+                      "There is no " + "region with given id to " + "delete.",
+                      null);
+                  return;
+                }
+                delete(
+                    context,
+                    offlineRegion,
+                    new OfflineRegion.OfflineRegionDeleteCallback() {
+                      @Override
+                      public void onDelete() {
+                        if (result == null) return;
+                        result.success(null);
+                      }
+
+                      @Override
+                      public void onError(String error) {
+                        if (result == null) return;
+                        result.error("DeleteRegionError", error, null);
+                      }
+                    });
+              }
+
+              @Override
+              public void onError(String error) {
+                if (result == null) return;
+                result.error("RegionListError", error, null);
+              }
+            });
+  }
 
-                  offlineRegion.delete(
+  /**
+   * Deletes all regions with the given ids at once and returns the ids of the deleted regions. Ids
+   * without a region are skipped.
+   */
+  static void deleteRegions(MethodChannel.Result result, Context context, List<Number> ids) {
+    OfflineRegionIndex.getInstance()
+        .load(
+            context,
+            new OfflineRegionIndex.Callback() {
+              @Override
+              public void onLoaded(Map<Long, OfflineRegion> regions) {
+                final List<OfflineRegion> found = new ArrayList<>(ids.size());
+                for (Number id : ids) {
+                  final OfflineRegion offlineRegion = regions.get(id.longValue());
+                  if (offlineRegion != null) {
+                    found.add(offlineRegion);
+                  }
+                }
+                final List<Long> deleted = new ArrayList<>(found.size());
+                if (found.isEmpty()) {
+                  result.success(deleted);
+                  return;
+                }
+                // the database deletes them one after the other, without a lookup per region
+                final int[] remaining = {found.size()};
+                for (OfflineRegion offlineRegion : found) {
+                  delete(
+                      context,
+                      offlineRegion,
                       new OfflineRegion.OfflineRegionDeleteCallback() {
                         @Override
                         public void onDelete() {
-                          if (result == null) return;
-                          result.success(null);
+                          deleted.add(offlineRegion.getID());
+                          if (--remaining[0] == 0) result.success(deleted);
                         }
 
                         @Override
                         public void onError(String error) {
-                          if (result == null) return;
-                          result.error("DeleteRegionError", error, null);
+                          Log.e(
+                              TAG,
+                              "Could not delete region " + offlineRegion.getID() + ": " + error);
+                          if (--remaining[0] == 0) result.success(deleted);
                         }
                       });
-                  return;
                 }
-                if (result == null) return;
-                result.error(
-                    "DeleteRegionError",
-                    "There is no " + "region with given id to " + "delete.",
-                    null);
               }
 
               @Override
               public void onError(String error) {
-                if (result == null) return;
                 result.error("RegionListError", error, null);
               }
             });
   }
 
-  private static double calculateDownloadingProgress(
+  /**
+   * Returns the status of the regions with the given ids, or of all regions if ids is null. The
+   * statuses are queried at the same time and returned in the order of the ids. Ids without a
+   * region are skipped.
+   */
+  static void regionStatus(MethodChannel.Result result, Context context, List<Number> ids) {
+    OfflineRegionIndex.getInstance()
+        .load(
+            context,
+            new OfflineRegionIndex.Callback() {
+              @Override
+              public void onLoaded(Map<Long, OfflineRegion> regions) {
+                final List<OfflineRegion> found = new ArrayList<>();
+                if (ids == null) {
+                  found.addAll(regions.values());
+                } else {
+                  for (Number id : ids) {
+                    final OfflineRegion offlineRegion = regions.get(id.longValue());
+                    if (offlineRegion != null) {
+                      found.add(offlineRegion);
+                    }
+                  }
+                }
+                collectStatuses(found, result::success);
+              }
+
+              @Override
+              public void onError(String error) {
+                result.error("RegionListError", error, null);
+              }
+            });
+  }
+
+  /**
+   * Reports the size of the offline database, the downloaded bytes of each region and an estimate
+   * of the ambient cache size in one call.
+   *
+   * <p>The engine has no API for the size of the ambient cache, so it is estimated as the part of
+   * the database that is not used by a region. Regions may share resources, so the estimate is a
+   * lower bound. The database is expected at the engine's default location in the files directory
+   * of the app; its write-ahead log and rollback journal are counted as part of it.
+   */
+  static void storageReport(MethodChannel.Result result, Context context) {
+    OfflineRegionIndex.getInstance()
+        .load(
+            context,
+            new OfflineRegionIndex.Callback() {
+              @Override
+              public void onLoaded(Map<Long, OfflineRegion> regions) {
+                collectStatuses(
+                    new ArrayList<>(regions.values()),
+                    statuses -> {
+                      final List<Map<String, Object>> regionSizes = new ArrayList<>();
+                      long regionBytes = 0;
+                      for (Map<String, Object> status : statuses) {
+                        final Object bytes = status.get("completedResourceSize");
+                        if (bytes == null) {
+                          continue;
+                        }
+                        final Map<String, Object> regionSize = new HashMap<>();
+                        regionSize.put("id", status.get("id"));
+                        regionSize.put("bytes", bytes);
+                        regionSizes.add(regionSize);
+                        regionBytes += (Long) bytes;
+                      }
+                      final long databaseBytes = databaseBytes(context);
+                      final Map<String, Object> report = new HashMap<>();
+                      report.put("databaseBytes", databaseBytes);
+                      report.put("regionBytes", regionBytes);
+                      report.put("ambientCacheBytes", Math.max(0, databaseBytes - regionBytes));
+                      report.put("regions", regionSizes);
+                      result.success(report);
+                    });
+              }
+
+              @Override
+              public void onError(String error) {
+                result.error("RegionListError", error, null);
+              }
+            });
+  }
+
+  private interface StatusesCallback {
+    void onStatuses(List<Map<String, Object>> statuses);
+  }
+
+  /** Queries the status of all regions at once and calls back when all statuses are known. */
+  private static void collectStatuses(List<OfflineRegion> regions, StatusesCallback callback) {
+    final List<Map<String, Object>> statuses = new ArrayList<>(regions.size());
+    if (regions.isEmpty()) {
+      callback.onStatuses(statuses);
+      return;
+    }
+    final Map<Long, Map<String, Object>> statusesById = new HashMap<>();
+    final int[] remaining = {regions.size()};
+    for (OfflineRegion offlineRegion : regions) {
+      final long id = offlineRegion.getID();
+      offlineRegion.getStatus(
+          new OfflineRegion.OfflineRegionStatusCallback() {
+            @Override
+            public void onStatus(OfflineRegionStatus status) {
+              statusesById.put(id, regionStatusToMap(id, status));
+              onCollected();
+            }
+
+            @Override
+            public void onError(String error) {
+              final Map<String, Object> failed = new HashMap<>();
+              failed.put("id", id);
+              failed.put("error", error);
+              statusesById.put(id, failed);
+              onCollected();
+            }
+
+            private void onCollected() {
+              if (--remaining[0] > 0) {
+                return;
+              }
+              for (OfflineRegion region : regions) {
+                statuses.add(statusesById.get(region.getID()));
+              }
+              callback.onStatuses(statuses);
+            }
+          });
+    }
+  }
+
+  static Map<String, Object> regionStatusToMap(long id, OfflineRegionStatus status) {
+    final Map<String, Object> map = new HashMap<>();
+    map.put("id", id);
+    map.put(
+        "downloadState",
+        status.getDownloadState() == OfflineRegion.STATE_ACTIVE ? "active" : "inactive");
+    map.put("complete", status.isComplete());
+    map.put("completedResourceCount", status.getCompletedResourceCount());
+    map.put("completedResourceSize", status.getCompletedResourceSize());
+    map.put("completedTileCount", status.getCompletedTileCount());
+    map.put("completedTileSize", status.getCompletedTileSize());
+    map.put("requiredResourceCount", status.getRequiredResourceCount());
+    map.put("requiredResourceCountIsPrecise", status.isRequiredResourceCountPrecise());
+    map.put(
+        "progress",
+        calculateDownloadingProgress(
+            status.getRequiredResourceCount(), status.getCompletedResourceCount()));
+    return map;
+  }
+
+  /** Deletes the region and removes it from the index and the download queue. */
+  static void delete(
+      Context context,
+      OfflineRegion offlineRegion,
+      OfflineRegion.OfflineRegionDeleteCallback callback) {
+    final long id = offlineRegion.getID();
+    OfflineDownloadManager.getInstance(context).onRegionDeleted(id);
+    offlineRegion.delete(
+        new OfflineRegion.OfflineRegionDeleteCallback() {
+          @Override
+          public void onDelete() {
+            OfflineRegionIndex.getInstance().remove(id);
+            callback.onDelete();
+          }
+
+          @Override
+          public void onError(String error) {
+            callback.onError(error);
+          }
+        });
+  }
+
+  static double calculateDownloadingProgress(
       long requiredResourceCount, long completedResourceCount) {
     return requiredResourceCount > 0
         ? (100.0 * completedResourceCount / requiredResourceCount)
         : 0.0;
   }
 
-  private static OfflineRegionDefinition mapToRegionDefinition(
+  static OfflineRegionDefinition mapToRegionDefinition(
       Map<String, Object> map, float pixelDensity) {
     for (Map.Entry<String, Object> entry : map.entrySet()) {
       Log.d(TAG, entry.getKey());
@@ -298,7 +532,7 @@ abstract class OfflineManagerUtils {
         .build();
   }
 
-  private static Map<String, Object> offlineRegionToMap(OfflineRegion region) {
+  static Map<String, Object> offlineRegionToMap(OfflineRegion region) {
     Map<String, Object> result = new HashMap();
     result.put("id", region.getID());
     result.put("definition", offlineRegionDefinitionToMap(region.getDefinition()));
@@ -332,4 +566,14 @@ abstract class OfflineManagerUtils {
     }
     return new HashMap();
   }
+
+  /** Returns the size of the offline database including the SQLite files next to it. */
+  private static long databaseBytes(Context context) {
+    long bytes = 0;
+    for (String suffix : new String[] {"", "-wal", "-shm", "-journal"}) {
+      bytes +=
+          new File(context.getFilesDir(), OfflineDatabaseInstaller.DATABASE_NAME + suffix).length();
+    }
+    return bytes;
+  }
 }
@@ -0,0 +1,61 @@
+package com.mapbox.mapboxgl;
+
+import android.os.SystemClock;
+import com.mapbox.mapboxsdk.offline.OfflineRegionStatus;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coalesces the status changes of a downloading region into progress reports.
+ *
+ * <p>The engine reports a status change for every downloaded resource, which are thousands of
+ * changes for a big region. A report is only made once the progress advanced by a whole percent and
+ * the minimum interval passed since the last report, and always when the download is complete. Each
+ * report carries the resource and byte counts and the throughput since the previous report.
+ */
+class OfflineProgressReporter {
+  private final long minIntervalMillis;
+  private long lastReportMillis = -1;
+  private long lastReportBytes = 0;
+  private long lastPercent = -1;
+
+  /** @param minIntervalMillis the minimum time between two reports, 0 for no limit */
+  OfflineProgressReporter(long minIntervalMillis) {
+    this.minIntervalMillis = minIntervalMillis;
+  }
+
+  /** Returns the interval of reporting at most the given number of times per second. */
+  static long intervalFor(int reportsPerSecond) {
+    return reportsPerSecond > 0 ? 1000 / reportsPerSecond : 0;
+  }
+
+  /** Returns the report of the status, or null if it is coalesced into a later report. */
+  Map<String, Object> onStatusChanged(OfflineRegionStatus status) {
+    final long now = SystemClock.elapsedRealtime();
+    final double progress =
+        OfflineManagerUtils.calculateDownloadingProgress(
+            status.getRequiredResourceCount(), status.getCompletedResourceCount());
+    final long percent = (long) progress;
+    if (!status.isComplete()
+        && lastReportMillis >= 0
+        && (percent <= lastPercent || now - lastReportMillis < minIntervalMillis)) {
+      return null;
+    }
+    final long bytes = status.getCompletedResourceSize();
+    double bytesPerSecond = 0;
+    if (lastReportMillis >= 0 && now > lastReportMillis) {
+      bytesPerSecond = (bytes - lastReportBytes) * 1000.0 / (now - lastReportMillis);
+    }
+    lastReportMillis = now;
+    lastReportBytes = bytes;
+    lastPercent = percent;
+
+    final Map<String, Object> report = new HashMap<>();
+    report.put("progress", progress);
+    report.put("completedResources", status.getCompletedResourceCount());
+    report.put("requiredResources", status.getRequiredResourceCount());
+    report.put("completedBytes", bytes);
+    report.put("bytesPerSecond", Math.max(0, bytesPerSecond));
+    return report;
+  }
+}
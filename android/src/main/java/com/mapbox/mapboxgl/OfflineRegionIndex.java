@@ -0,0 +1,90 @@
+package com.mapbox.mapboxgl;
+
+import android.content.Context;
+import com.mapbox.mapboxsdk.offline.OfflineManager;
+import com.mapbox.mapboxsdk.offline.OfflineRegion;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the offline regions by id, so id based operations do not have to list and scan all
+ * regions of the database.
+ *
+ * <p>The index is loaded with the first lookup and then kept in sync by the operations that create,
+ * merge, list and delete regions. Like all callbacks of the offline manager, it is only used on the
+ * main thread.
+ */
+class OfflineRegionIndex {
+  interface Callback {
+    /** Called with the regions by id, in the order they were listed or added. */
+    void onLoaded(Map<Long, OfflineRegion> regions);
+
+    void onError(String error);
+  }
+
+  private static final OfflineRegionIndex instance = new OfflineRegionIndex();
+
+  private final LinkedHashMap<Long, OfflineRegion> regions = new LinkedHashMap<>();
+  private final List<Callback> pending = new ArrayList<>();
+  private boolean loaded = false;
+
+  static OfflineRegionIndex getInstance() {
+    return instance;
+  }
+
+  /** Calls back with the index, loading it first if needed. */
+  void load(Context context, Callback callback) {
+    if (loaded) {
+      callback.onLoaded(regions);
+      return;
+    }
+    pending.add(callback);
+    if (pending.size() > 1) {
+      return;
+    }
+    OfflineManager.getInstance(context)
+        .listOfflineRegions(
+            new OfflineManager.ListOfflineRegionsCallback() {
+              @Override
+              public void onList(OfflineRegion[] offlineRegions) {
+                replaceAll(offlineRegions);
+                final List<Callback> callbacks = new ArrayList<>(pending);
+                pending.clear();
+                for (Callback pendingCallback : callbacks) {
+                  pendingCallback.onLoaded(regions);
+                }
+              }
+
+              @Override
+              public void onError(String error) {
+                final List<Callback> callbacks = new ArrayList<>(pending);
+                pending.clear();
+                for (Callback pendingCallback : callbacks) {
+                  pendingCallback.onError(error);
+                }
+              }
+            });
+  }
+
+  /** Replaces the index with a complete list of the regions. */
+  void replaceAll(OfflineRegion[] offlineRegions) {
+    regions.clear();
+    for (OfflineRegion region : offlineRegions) {
+      regions.put(region.getID(), region);
+    }
+    loaded = true;
+  }
+
+  void put(OfflineRegion region) {
+    // before the index is loaded, the region is part of the list it is loaded from
+    if (loaded) {
+      regions.put(region.getID(), region);
+    }
+  }
+
+  void remove(long id) {
+    regions.remove(id);
+  }
+}
@@ -0,0 +1,159 @@
+package com.mapbox.mapboxgl;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Lets style, sprite, glyph and source requests go ahead of tile requests and caps the tile
+ * requests in flight per host. Requests are told apart by {@link NetworkStats#typeOf}, so tiles of
+ * a gateway without file extensions are recognized by the {z}/{x}/{y} at the end of their path.
+ *
+ * <p>Tile calls are created on a second client that shares the connection pool, cache, listeners
+ * and interceptors of the engine's client, but has a dispatcher of its own. Tiles queue in that
+ * dispatcher before they take a thread, so they never take a dispatcher slot from another request.
+ * While other requests are in flight, tiles additionally wait in this interceptor if requests are
+ * prioritized. A cancelled tile stops waiting right away, and a cancelled tile still queued in the
+ * dispatcher fails without touching the network.
+ *
+ * <p>The engine itself keeps at most about 20 requests in flight, and queued tiles count against
+ * that. A low cap therefore keeps the network free for the style, but the engine does not issue new
+ * requests while all its slots hold queued tiles.
+ */
+class RequestScheduler implements Interceptor {
+  // how often a waiting request checks whether its call was cancelled
+  private static final long CANCEL_CHECK_MILLIS = 100;
+  private static final RequestScheduler instance = new RequestScheduler();
+
+  /** The client of the engine, which creates tile calls on a client with its own dispatcher. */
+  private static class SchedulingClient extends OkHttpClient {
+    private final OkHttpClient tileClient;
+
+    SchedulingClient(OkHttpClient.Builder builder, Dispatcher tileDispatcher) {
+      super(builder);
+      tileClient = newBuilder().dispatcher(tileDispatcher).build();
+    }
+
+    @Override
+    public Call newCall(Request request) {
+      if (NetworkStats.TYPE_TILES.equals(NetworkStats.typeOf(request.url()))) {
+        return tileClient.newCall(request);
+      }
+      return super.newCall(request);
+    }
+  }
+
+  private boolean prioritize = false;
+  private int maxTileRequestsPerHost = 0;
+  private int activeOtherRequests = 0;
+
+  static RequestScheduler getInstance() {
+    return instance;
+  }
+
+  /**
+   * @param prioritize whether tiles wait until no other requests are in flight
+   * @param maxTileRequestsPerHost the tile requests in flight per host, 0 for the limit of the
+   *     engine's client
+   */
+  synchronized void setOptions(boolean prioritize, int maxTileRequestsPerHost) {
+    this.prioritize = prioritize;
+    this.maxTileRequestsPerHost = maxTileRequestsPerHost;
+    notifyAll();
+  }
+
+  synchronized boolean isPrioritizing() {
+    return prioritize;
+  }
+
+  synchronized int getMaxTileRequestsPerHost() {
+    return maxTileRequestsPerHost;
+  }
+
+  /**
+   * Builds the client of the engine, with tile requests limited to the cap per host if one is set
+   * and to the limits of the builder's dispatcher otherwise.
+   *
+   * @param dispatcher the dispatcher of the builder, used by all requests other than tiles
+   */
+  synchronized OkHttpClient build(OkHttpClient.Builder builder, Dispatcher dispatcher) {
+    final Dispatcher tileDispatcher = new Dispatcher();
+    tileDispatcher.setMaxRequests(dispatcher.getMaxRequests());
+    tileDispatcher.setMaxRequestsPerHost(
+        maxTileRequestsPerHost > 0 ? maxTileRequestsPerHost : dispatcher.getMaxRequestsPerHost());
+    return new SchedulingClient(builder, tileDispatcher);
+  }
+
+  /**
+   * Runs the callback once no call of a client built by {@link #build} is queued or running, which
+   * may be right away.
+   */
+  static void whenIdle(OkHttpClient client, Runnable callback) {
+    final List<Dispatcher> dispatchers =
+        client instanceof SchedulingClient
+            ? Arrays.asList(
+                client.dispatcher(), ((SchedulingClient) client).tileClient.dispatcher())
+            : Arrays.asList(client.dispatcher());
+    final Runnable check =
+        new Runnable() {
+          private boolean done = false;
+
+          @Override
+          public synchronized void run() {
+            if (done) {
+              return;
+            }
+            for (Dispatcher dispatcher : dispatchers) {
+              if (dispatcher.runningCallsCount() + dispatcher.queuedCallsCount() > 0) {
+                return;
+              }
+            }
+            done = true;
+            callback.run();
+          }
+        };
+    for (Dispatcher dispatcher : dispatchers) {
+      dispatcher.setIdleCallback(check);
+    }
+    check.run();
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    if (!NetworkStats.TYPE_TILES.equals(NetworkStats.typeOf(chain.request().url()))) {
+      synchronized (this) {
+        activeOtherRequests++;
+      }
+      try {
+        return chain.proceed(chain.request());
+      } finally {
+        synchronized (this) {
+          activeOtherRequests--;
+          notifyAll();
+        }
+      }
+    }
+    awaitTurn(chain.call());
+    return chain.proceed(chain.request());
+  }
+
+  private synchronized void awaitTurn(Call call) throws IOException {
+    try {
+      while (prioritize && activeOtherRequests > 0) {
+        if (call.isCanceled()) {
+          throw new IOException("Canceled");
+        }
+        wait(CANCEL_CHECK_MILLIS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted", e);
+    }
+  }
+}
@@ -0,0 +1,296 @@
+package com.mapbox.mapboxgl;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.FeatureCollection;
+import com.mapbox.geojson.Point;
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.mapboxsdk.maps.Style;
+import com.mapbox.mapboxsdk.snapshotter.MapSnapshotter;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.EventChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders a list of snapshots through a small pool of snapshotters and streams each encoded result
+ * over an event channel as soon as it is ready.
+ *
+ * <p>Creating a snapshotter sets up a renderer and loads the style, so each snapshotter of the pool
+ * is reconfigured for the next snapshot instead of creating one per snapshot. The batch starts when
+ * Dart listens to the event channel and is cancelled when the subscription is cancelled. Everything
+ * but the encoding runs on the main thread.
+ */
+class SnapshotBatch implements EventChannel.StreamHandler {
+  static final int MAX_CONCURRENCY = 4;
+
+  interface Listener {
+    /** Called when the batch is finished or cancelled. */
+    void onDone(SnapshotBatch batch);
+  }
+
+  /** A snapshotter of the pool together with the options it is currently configured with. */
+  private static class Worker {
+    final MapSnapshotter snapshotter;
+    int width;
+    int height;
+    String styleUri;
+    String styleJson;
+
+    Worker(MapSnapshotter snapshotter) {
+      this.snapshotter = snapshotter;
+    }
+  }
+
+  private final Context context;
+  private final EventChannel eventChannel;
+  private final List<Map<?, ?>> snapshots;
+  private final int concurrency;
+  private final String defaultStyleUri;
+  private final LatLngBounds defaultRegion;
+  private final Listener listener;
+  private final List<Worker> workers = new ArrayList<>();
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private EventChannel.EventSink sink;
+  private int nextIndex = 0;
+  private int pending = 0;
+  private boolean finished = false;
+
+  /**
+   * @param snapshots the options of each snapshot, as sent for {@code snapshot#takeSnapshot}
+   * @param defaultStyleUri the style of snapshots without a style, usually the one of the map
+   * @param defaultRegion the region of snapshots without bounds or camera, usually the visible one
+   */
+  SnapshotBatch(
+      Context context,
+      BinaryMessenger messenger,
+      String channelName,
+      List<Map<?, ?>> snapshots,
+      int concurrency,
+      String defaultStyleUri,
+      LatLngBounds defaultRegion,
+      Listener listener) {
+    this.context = context;
+    this.snapshots = snapshots;
+    this.concurrency = Math.max(1, Math.min(MAX_CONCURRENCY, concurrency));
+    this.defaultStyleUri = defaultStyleUri;
+    this.defaultRegion = defaultRegion;
+    this.listener = listener;
+    eventChannel = new EventChannel(messenger, channelName);
+    eventChannel.setStreamHandler(this);
+  }
+
+  @Override
+  public void onListen(Object arguments, EventChannel.EventSink events) {
+    if (sink != null || finished) {
+      return;
+    }
+    sink = events;
+    final int count = Math.min(concurrency, snapshots.size());
+    for (int i = 0; i < count; i++) {
+      final Map<?, ?> snapshot = snapshots.get(nextIndex);
+      final Worker worker = new Worker(new MapSnapshotter(context, createOptions(snapshot)));
+      worker.width = toInt(snapshot.get("width"));
+      worker.height = toInt(snapshot.get("height"));
+      worker.styleUri = styleUri(snapshot);
+      worker.styleJson = (String) snapshot.get("styleJson");
+      workers.add(worker);
+      render(worker, nextIndex++);
+    }
+    finishIfDone();
+  }
+
+  @Override
+  public void onCancel(Object arguments) {
+    cancel();
+  }
+
+  /** Stops all snapshotters and drops the snapshots that are not rendered yet. */
+  void cancel() {
+    if (finished) {
+      return;
+    }
+    nextIndex = snapshots.size();
+    pending = 0;
+    for (Worker worker : workers) {
+      worker.snapshotter.cancel();
+    }
+    finish();
+  }
+
+  /**
+   * Renders the next snapshot once the current callback of the snapshotter has returned. The
+   * snapshotter cannot be started again from within its callbacks, and it clears its callbacks
+   * after they return.
+   */
+  private void renderNextLater(Worker worker) {
+    mainHandler.post(() -> renderNext(worker));
+  }
+
+  private void renderNext(Worker worker) {
+    if (finished || nextIndex >= snapshots.size()) {
+      return;
+    }
+    final int index = nextIndex++;
+    configure(worker, snapshots.get(index));
+    render(worker, index);
+  }
+
+  private void render(Worker worker, int index) {
+    pending++;
+    final BitmapUtils.EncodeOptions encodeOptions =
+        BitmapUtils.EncodeOptions.fromArguments(snapshots.get(index));
+    worker.snapshotter.start(
+        snapshot -> {
+          if (finished) {
+            return;
+          }
+          BitmapUtils.encodeAsync(
+              context,
+              snapshot.getBitmap(),
+              encodeOptions,
+              encoded -> {
+                if (encoded == null) {
+                  onResult(index, null, "Could not encode snapshot");
+                } else {
+                  onResult(index, encoded, null);
+                }
+              });
+          // the snapshotter renders the next snapshot while this one is encoded
+          renderNextLater(worker);
+        },
+        new MapSnapshotter.ErrorHandler() {
+          @Override
+          public void onError(String error) {
+            if (finished) {
+              return;
+            }
+            onResult(index, null, error);
+            renderNextLater(worker);
+          }
+        });
+  }
+
+  private void onResult(int index, Object snapshot, String error) {
+    if (finished) {
+      return;
+    }
+    pending--;
+    final Map<String, Object> event = new HashMap<>(3);
+    event.put("index", index);
+    if (error != null) {
+      event.put("error", error);
+    } else {
+      event.put("snapshot", snapshot);
+    }
+    sink.success(event);
+    finishIfDone();
+  }
+
+  private void finishIfDone() {
+    if (!finished && nextIndex >= snapshots.size() && pending == 0) {
+      if (sink != null) {
+        sink.endOfStream();
+      }
+      finish();
+    }
+  }
+
+  private void finish() {
+    finished = true;
+    workers.clear();
+    sink = null;
+    eventChannel.setStreamHandler(null);
+    listener.onDone(this);
+  }
+
+  private void configure(Worker worker, Map<?, ?> snapshot) {
+    final int width = toInt(snapshot.get("width"));
+    final int height = toInt(snapshot.get("height"));
+    if (width != worker.width || height != worker.height) {
+      worker.snapshotter.setSize(width, height);
+      worker.width = width;
+      worker.height = height;
+    }
+    final String styleJson = (String) snapshot.get("styleJson");
+    final String styleUri = styleUri(snapshot);
+    if (styleJson != null) {
+      if (!styleJson.equals(worker.styleJson)) {
+        worker.snapshotter.setStyleJson(styleJson);
+        worker.styleJson = styleJson;
+        worker.styleUri = null;
+      }
+    } else if (!styleUri.equals(worker.styleUri)) {
+      worker.snapshotter.setStyleUrl(styleUri);
+      worker.styleUri = styleUri;
+      worker.styleJson = null;
+    }
+    final CameraPosition cameraPosition = cameraPosition(snapshot);
+    if (cameraPosition != null) {
+      worker.snapshotter.setCameraPosition(cameraPosition);
+    } else {
+      worker.snapshotter.setRegion(region(snapshot));
+    }
+  }
+
+  private MapSnapshotter.Options createOptions(Map<?, ?> snapshot) {
+    final MapSnapshotter.Options options =
+        new MapSnapshotter.Options(toInt(snapshot.get("width")), toInt(snapshot.get("height")));
+    // the logo cannot be changed on an existing snapshotter
+    options.withLogo(Boolean.TRUE.equals(snapshots.get(0).get("withLogo")));
+    final Style.Builder styleBuilder = new Style.Builder();
+    if (snapshot.get("styleJson") != null) {
+      styleBuilder.fromJson((String) snapshot.get("styleJson"));
+    } else {
+      styleBuilder.fromUri(styleUri(snapshot));
+    }
+    options.withStyleBuilder(styleBuilder);
+    final CameraPosition cameraPosition = cameraPosition(snapshot);
+    if (cameraPosition != null) {
+      options.withCameraPosition(cameraPosition);
+    } else {
+      options.withRegion(region(snapshot));
+    }
+    return options;
+  }
+
+  private String styleUri(Map<?, ?> snapshot) {
+    final String styleUri = (String) snapshot.get("styleUri");
+    return styleUri != null ? styleUri : defaultStyleUri;
+  }
+
+  private LatLngBounds region(Map<?, ?> snapshot) {
+    final String bounds = (String) snapshot.get("bounds");
+    if (bounds != null) {
+      return GeoJSONUtils.toLatLngBounds(FeatureCollection.fromJson(bounds));
+    }
+    return defaultRegion;
+  }
+
+  private static CameraPosition cameraPosition(Map<?, ?> snapshot) {
+    final String centerCoordinate = (String) snapshot.get("centerCoordinate");
+    if (snapshot.get("bounds") != null || centerCoordinate == null) {
+      return null;
+    }
+    final Feature centerPoint = Feature.fromJson(centerCoordinate);
+    return new CameraPosition.Builder()
+        .target(GeoJSONUtils.toLatLng((Point) centerPoint.geometry()))
+        .tilt(toDouble(snapshot.get("pitch")))
+        .bearing(toDouble(snapshot.get("heading")))
+        .zoom(toDouble(snapshot.get("zoomLevel")))
+        .build();
+  }
+
+  private static int toInt(Object value) {
+    return ((Number) value).intValue();
+  }
+
+  private static double toDouble(Object value) {
+    return value != null ? ((Number) value).doubleValue() : 0;
+  }
+}
@@ -0,0 +1,351 @@
+package com.mapbox.mapboxgl;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opt-in LRU cache of encoded snapshots in the app cache directory.
+ *
+ * <p>Snapshots are stored under a hash of everything that affects the rendered image, so a cached
+ * file never has to be invalidated: a different style, size, camera, logo flag, format or quality
+ * results in a different key. The access order survives restarts as the modification time of the
+ * files. All file access runs on the snapshot encoder thread, so reads and writes never race.
+ */
+class SnapshotCache {
+  static final String DIRECTORY = "mapbox_snapshots";
+  static final long DEFAULT_MAX_BYTES = 50 * 1024 * 1024;
+
+  private static final String TAG = "SnapshotCache";
+  private static final String[] KEY_ARGUMENTS = {
+    "styleUri",
+    "styleJson",
+    "width",
+    "height",
+    "bounds",
+    "centerCoordinate",
+    "zoomLevel",
+    "pitch",
+    "heading",
+    "withLogo",
+    "format",
+    "quality"
+  };
+  private static final SnapshotCache instance = new SnapshotCache();
+
+  // file name to file size, eldest first
+  private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private File directory;
+  private boolean enabled = false;
+  private long maxBytes = DEFAULT_MAX_BYTES;
+  private long sizeBytes = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  static SnapshotCache getInstance() {
+    return instance;
+  }
+
+  synchronized boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Applies the options of a {@code snapshot#setCacheOptions} call. Opening and trimming the cache
+   * runs on the encoder thread, onDone is called on the main thread afterwards.
+   */
+  synchronized void setOptions(Context context, Map<?, ?> options, Runnable onDone) {
+    final Object maxBytes = options.get("maxBytes");
+    if (maxBytes != null) {
+      this.maxBytes = Math.max(0, ((Number) maxBytes).longValue());
+    }
+    final Object enabled = options.get("enabled");
+    if (enabled != null) {
+      this.enabled = Convert.toBoolean(enabled);
+    }
+    final Handler mainHandler = new Handler(Looper.getMainLooper());
+    BitmapUtils.getEncoderExecutor()
+        .execute(
+            () -> {
+              synchronized (this) {
+                if (this.enabled && directory == null) {
+                  open(new File(context.getCacheDir(), DIRECTORY));
+                }
+                trimToSize(this.maxBytes);
+              }
+              mainHandler.post(onDone);
+            });
+  }
+
+  /**
+   * Returns the key of the snapshot described by the arguments of a {@code snapshot#takeSnapshot}
+   * call.
+   *
+   * @param defaultStyleUri the style used if the arguments have none
+   * @param defaultRegion the region used if the arguments have neither bounds nor a camera
+   */
+  static String keyFor(Map<?, ?> arguments, String defaultStyleUri, String defaultRegion) {
+    final StringBuilder key = new StringBuilder();
+    for (String name : KEY_ARGUMENTS) {
+      key.append(name).append('=').append(arguments.get(name)).append('\n');
+    }
+    if (arguments.get("styleUri") == null && arguments.get("styleJson") == null) {
+      key.append(defaultStyleUri).append('\n');
+    }
+    if (arguments.get("bounds") == null && arguments.get("centerCoordinate") == null) {
+      key.append(defaultRegion).append('\n');
+    }
+    try {
+      final byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes("UTF-8"));
+      final StringBuilder hex = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException | IOException e) {
+      // both are guaranteed to be available on Android
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Looks up a snapshot and delivers it on the main thread in the output mode of the options, or
+   * null if it is not cached.
+   */
+  void get(String key, BitmapUtils.EncodeOptions options, BitmapUtils.EncodeCallback callback) {
+    final Handler mainHandler = new Handler(Looper.getMainLooper());
+    BitmapUtils.getEncoderExecutor()
+        .execute(
+            () -> {
+              final File file = lookup(fileName(key, options));
+              Object result = null;
+              if (file != null) {
+                try {
+                  result = toResult(file, null, options);
+                } catch (IOException e) {
+                  Log.w(TAG, e.getLocalizedMessage());
+                  remove(file.getName());
+                }
+              }
+              final Object cached = result;
+              mainHandler.post(() -> callback.onEncoded(cached));
+            });
+  }
+
+  /**
+   * Encodes a rendered snapshot, stores it and delivers it on the main thread in the output mode of
+   * the options.
+   */
+  void encodeAndPut(
+      Context context,
+      Bitmap bitmap,
+      String key,
+      BitmapUtils.EncodeOptions options,
+      BitmapUtils.EncodeCallback callback) {
+    final Handler mainHandler = new Handler(Looper.getMainLooper());
+    BitmapUtils.getEncoderExecutor()
+        .execute(
+            () -> {
+              final byte[] bytes = BitmapUtils.createBytes(bitmap, options.format, options.quality);
+              final File file = put(fileName(key, options), bytes);
+              Object result;
+              try {
+                result = toResult(file, bytes, options);
+              } catch (IOException e) {
+                Log.w(TAG, e.getLocalizedMessage());
+                result = BitmapUtils.encode(context, bitmap, options);
+              }
+              final Object encoded = result;
+              mainHandler.post(() -> callback.onEncoded(encoded));
+            });
+  }
+
+  /** Deletes all cached snapshots on the encoder thread and calls onDone on the main thread. */
+  void clear(Runnable onDone) {
+    final Handler mainHandler = new Handler(Looper.getMainLooper());
+    BitmapUtils.getEncoderExecutor()
+        .execute(
+            () -> {
+              synchronized (this) {
+                trimToSize(0);
+              }
+              mainHandler.post(onDone);
+            });
+  }
+
+  synchronized Map<String, Object> getStats() {
+    final Map<String, Object> stats = new HashMap<>();
+    stats.put("enabled", enabled);
+    stats.put("hits", hitCount);
+    stats.put("misses", missCount);
+    stats.put("evictions", evictionCount);
+    stats.put("size", entries.size());
+    stats.put("bytes", sizeBytes);
+    stats.put("maxBytes", maxBytes);
+    return stats;
+  }
+
+  private void open(File directory) {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      Log.w(TAG, "Could not create " + directory);
+      return;
+    }
+    this.directory = directory;
+    final File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    Arrays.sort(
+        files,
+        new Comparator<File>() {
+          @Override
+          public int compare(File a, File b) {
+            return Long.compare(a.lastModified(), b.lastModified());
+          }
+        });
+    for (File file : files) {
+      if (file.getName().endsWith(".tmp")) {
+        // left over from a write that was interrupted
+        file.delete();
+        continue;
+      }
+      entries.put(file.getName(), file.length());
+      sizeBytes += file.length();
+    }
+  }
+
+  private synchronized File lookup(String name) {
+    if (directory == null || entries.get(name) == null) {
+      missCount++;
+      return null;
+    }
+    final File file = new File(directory, name);
+    if (!file.isFile()) {
+      // deleted by someone else, e.g. the caller of a snapshot returned as file
+      remove(name);
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    file.setLastModified(System.currentTimeMillis());
+    return file;
+  }
+
+  private synchronized File put(String name, byte[] bytes) {
+    if (directory == null || bytes.length > maxBytes) {
+      return null;
+    }
+    final File file = new File(directory, name);
+    final File tempFile = new File(directory, name + ".tmp");
+    try {
+      writeFile(tempFile, bytes);
+      if (!tempFile.renameTo(file)) {
+        throw new IOException("Could not rename " + tempFile);
+      }
+    } catch (IOException e) {
+      Log.w(TAG, e.getLocalizedMessage());
+      tempFile.delete();
+      return null;
+    }
+    final Long previous = entries.put(name, (long) bytes.length);
+    sizeBytes += bytes.length - (previous != null ? previous : 0);
+    trimToSize(maxBytes);
+    return file;
+  }
+
+  private synchronized void remove(String name) {
+    final Long size = entries.remove(name);
+    if (size != null) {
+      sizeBytes -= size;
+    }
+  }
+
+  private void trimToSize(long maxBytes) {
+    final Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+    while (sizeBytes > maxBytes && eldest.hasNext()) {
+      final Map.Entry<String, Long> entry = eldest.next();
+      eldest.remove();
+      sizeBytes -= entry.getValue();
+      evictionCount++;
+      new File(directory, entry.getKey()).delete();
+    }
+  }
+
+  private static String fileName(String key, BitmapUtils.EncodeOptions options) {
+    return key + "." + BitmapUtils.extension(options.format);
+  }
+
+  /**
+   * Converts a cached snapshot to the output mode of the options. A file is copied to the file path
+   * of the options, or to a temp file in the app cache directory like {@link
+   * BitmapUtils#createTempFile} does, as the cached file is deleted when it is evicted.
+   */
+  private static Object toResult(File file, byte[] bytes, BitmapUtils.EncodeOptions options)
+      throws IOException {
+    if (file == null && BitmapUtils.EncodeOptions.OUTPUT_FILE.equals(options.output)) {
+      throw new IOException("The snapshot could not be cached");
+    }
+    switch (options.output) {
+      case BitmapUtils.EncodeOptions.OUTPUT_BYTES:
+        return bytes != null ? bytes : readFile(file);
+      case BitmapUtils.EncodeOptions.OUTPUT_BASE64:
+        return BitmapUtils.toDataUri(bytes != null ? bytes : readFile(file), options.format);
+      default:
+        final File target =
+            options.filePath != null
+                ? new File(options.filePath)
+                : File.createTempFile(
+                    TAG,
+                    "." + BitmapUtils.extension(options.format),
+                    file.getParentFile().getParentFile());
+        writeFile(target, bytes != null ? bytes : readFile(file));
+        return Uri.fromFile(target).toString();
+    }
+  }
+
+  private static byte[] readFile(File file) throws IOException {
+    final byte[] bytes = new byte[(int) file.length()];
+    final InputStream inputStream = new FileInputStream(file);
+    try {
+      int offset = 0;
+      while (offset < bytes.length) {
+        final int read = inputStream.read(bytes, offset, bytes.length - offset);
+        if (read < 0) {
+          throw new IOException("Unexpected end of " + file);
+        }
+        offset += read;
+      }
+      return bytes;
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  private static void writeFile(File file, byte[] bytes) throws IOException {
+    final OutputStream outputStream = new FileOutputStream(file);
+    try {
+      outputStream.write(bytes);
+    } finally {
+      outputStream.close();
+    }
+  }
+}
@@ -19,6 +19,7 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 class SourcePropertyConverter {
   private static final String TAG = "SourcePropertyConverter";
@@ -110,6 +111,10 @@ class SourcePropertyConverter {
     return options;
   }
 
+  /**
+   * Builds the source without inline data, the data returned by {@link #buildGeojsonParser} is set
+   * once it has been parsed.
+   */
   static GeoJsonSource buildGeojsonSource(String id, Map<String, Object> properties) {
     final Object data = properties.get("data");
     final GeoJsonOptions options = buildGeojsonOptions(properties);
@@ -121,15 +126,33 @@ class SourcePropertyConverter {
         } catch (URISyntaxException e) {
         }
       } else {
-        Gson gson = new Gson();
-        String geojson = gson.toJson(data);
-        final FeatureCollection featureCollection = FeatureCollection.fromJson(geojson);
-        return new GeoJsonSource(id, featureCollection, options);
+        return new GeoJsonSource(id, options);
       }
     }
     return null;
   }
 
+  /**
+   * Returns a parser for the inline data of a geojson source, or null if the properties do not
+   * describe a geojson source with inline data. The parser does not touch the style and may be run
+   * on any thread.
+   */
+  static Callable<FeatureCollection> buildGeojsonParser(Map<String, Object> properties) {
+    final Object type = properties.get("type");
+    final Object data = properties.get("data");
+    if (type == null
+        || !"geojson".equals(Convert.toString(type))
+        || data == null
+        || data instanceof String) {
+      return null;
+    }
+    return () -> {
+      Gson gson = new Gson();
+      String geojson = gson.toJson(data);
+      return FeatureCollection.fromJson(geojson);
+    };
+  }
+
   static ImageSource buildImageSource(String id, Map<String, Object> properties) {
     final Object url = properties.get("url");
     List<LatLng> coordinates = Convert.toLatLngList(properties.get("coordinates"), true);
@@ -0,0 +1,119 @@
+package com.mapbox.mapboxgl;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.DisplayMetrics;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decodes a sprite sheet on a background thread and slices it into the images listed in its index.
+ *
+ * <p>The index is sent as parallel arrays: the image names, four ints per image for x, y, width and
+ * height within the sheet, the pixel ratio and the sdf flag of each image. The pixel ratio is
+ * stored as the bitmap density, which is where {@code Style.addImages} reads it from.
+ */
+class SpriteSheetDecoder {
+  interface Callback {
+    /** Called on the main thread with the images that are not and that are sdf images. */
+    void onDecoded(HashMap<String, Bitmap> images, HashMap<String, Bitmap> sdfImages);
+
+    /** Called on the main thread if the sheet cannot be decoded or the index does not match it. */
+    void onError(String message);
+  }
+
+  private static ExecutorService decoderExecutor;
+
+  private static synchronized ExecutorService getDecoderExecutor() {
+    if (decoderExecutor == null) {
+      decoderExecutor =
+          Executors.newSingleThreadExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "SpriteSheetDecoder");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return decoderExecutor;
+  }
+
+  static void decode(
+      byte[] sheet,
+      List<String> names,
+      int[] rects,
+      double[] pixelRatios,
+      List<Boolean> sdf,
+      Callback callback) {
+    final Handler mainHandler = new Handler(Looper.getMainLooper());
+    getDecoderExecutor()
+        .execute(
+            () -> {
+              final HashMap<String, Bitmap> images = new HashMap<>();
+              final HashMap<String, Bitmap> sdfImages = new HashMap<>();
+              String error = null;
+              try {
+                slice(sheet, names, rects, pixelRatios, sdf, images, sdfImages);
+              } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+              } catch (RuntimeException | OutOfMemoryError e) {
+                // e.g. a sheet too large to decode or a malformed index, the result must still
+                // be completed
+                error = "The sprite sheet could not be decoded: " + e;
+              }
+              final String message = error;
+              mainHandler.post(
+                  () -> {
+                    if (message != null) {
+                      callback.onError(message);
+                    } else {
+                      callback.onDecoded(images, sdfImages);
+                    }
+                  });
+            });
+  }
+
+  private static void slice(
+      byte[] sheet,
+      List<String> names,
+      int[] rects,
+      double[] pixelRatios,
+      List<Boolean> sdf,
+      HashMap<String, Bitmap> images,
+      HashMap<String, Bitmap> sdfImages) {
+    if (sheet == null || names == null || rects == null || rects.length != names.size() * 4) {
+      throw new IllegalArgumentException("The sprite index does not describe 4 values per image");
+    }
+    final Bitmap sheetBitmap = BitmapFactory.decodeByteArray(sheet, 0, sheet.length);
+    if (sheetBitmap == null) {
+      throw new IllegalArgumentException("The sprite sheet could not be decoded");
+    }
+    for (int i = 0; i < names.size(); i++) {
+      final int x = rects[i * 4];
+      final int y = rects[i * 4 + 1];
+      final int width = rects[i * 4 + 2];
+      final int height = rects[i * 4 + 3];
+      if (x < 0
+          || y < 0
+          || width <= 0
+          || height <= 0
+          || x + width > sheetBitmap.getWidth()
+          || y + height > sheetBitmap.getHeight()) {
+        throw new IllegalArgumentException(
+            String.format("Image '%s' is outside of the sprite sheet", names.get(i)));
+      }
+      final Bitmap image = Bitmap.createBitmap(sheetBitmap, x, y, width, height);
+      final double pixelRatio =
+          pixelRatios != null && i < pixelRatios.length ? pixelRatios[i] : 1.0;
+      image.setDensity((int) Math.round(pixelRatio * DisplayMetrics.DENSITY_DEFAULT));
+      if (sdf != null && i < sdf.size() && Boolean.TRUE.equals(sdf.get(i))) {
+        sdfImages.put(names.get(i), image);
+      } else {
+        images.put(names.get(i), image);
+      }
+    }
+  }
+}
@@ -21,6 +21,7 @@ export 'package:mapbox_gl_platform_interface/mapbox_gl_platform_interface.dart'
         LatLngBounds,
         LatLngQuad,
         CameraPosition,
+        CameraMoveEventOptions,
         UserLocation,
         UserHeading,
         CameraUpdate,
@@ -42,21 +43,31 @@ export 'package:mapbox_gl_platform_interface/mapbox_gl_platform_interface.dart'
         Fill,
         FillOptions,
         SnapshotOptions,
+        SnapshotFormat,
+        SnapshotBatchResult,
         SourceProperties,
         RasterSourceProperties,
         VectorSourceProperties,
         RasterDemSourceProperties,
         GeojsonSourceProperties,
         VideoSourceProperties,
-        ImageSourceProperties;
+        ImageSourceProperties,
+        BinaryFeatureCollection,
+        StyleBatch,
+        StyleOperation,
+        StyleOperationFailure,
+        SpriteSheet,
+        SpriteImage;
 
 part 'src/controller.dart';
 part 'src/mapbox_map.dart';
 part 'src/global.dart';
 part 'src/offline_region.dart';
 part 'src/download_region_status.dart';
+part 'src/offline_download.dart';
 part 'src/layer_expressions.dart';
 part 'src/layer_properties.dart';
 part 'src/color_tools.dart';
 part 'src/annotation_manager.dart';
 part 'src/util.dart';
+part 'src/style_batch_layers.dart';
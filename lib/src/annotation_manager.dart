@@ -42,8 +42,10 @@ abstract class AnnotationManager<T extends Annotation> {
   }) : randomPostFix = getRandomString() {
     for (var i = 0; i < allLayerProperties.length; i++) {
       final layerId = _makeLayerId(i);
+      // annotations are updated one by one and may be moved natively while
+      // dragged, both need the platform side copy of the features
       controller.addGeoJsonSource(layerId, buildFeatureCollection([]),
-          promoteId: "id");
+          promoteId: "id", mutable: true);
       controller.addLayer(layerId, layerId, allLayerProperties[i]);
     }
 
@@ -151,7 +153,10 @@ abstract class AnnotationManager<T extends Annotation> {
     final annotation = byId(id);
     if (annotation != null) {
       annotation.translate(delta);
-      set(annotation);
+      // with native moves the source is already up to date during the drag
+      if (!controller._nativeFeatureMove || eventType == DragEventType.end) {
+        set(annotation);
+      }
     }
   }
 
@@ -319,14 +319,53 @@ class MapboxMapController extends ChangeNotifier {
   /// id of the feature. This is useful because by default mapbox-gl-js does not
   /// support string ids
   ///
+  /// On Android the source is added right away, but [geojson] is parsed on a
+  /// background thread and shows up on the map once parsing has finished.
+  /// The returned [Future] completes once parsing has finished and fails with
+  /// a [PlatformException] if [geojson] is malformed.
+  ///
+  /// [mutable] controls whether a copy of the features is kept on Android so
+  /// that single features can be changed with [setGeoJsonFeature]. If it is
+  /// null, the setting of [setMutableGeoJsonSourcesOnly] applies.
+  ///
   /// The returned [Future] completes after the change has been made on the
   /// platform side.
   ///
   Future<void> addGeoJsonSource(String sourceId, Map<String, dynamic> geojson,
-      {String? promoteId}) async {
+      {String? promoteId, bool? mutable}) async {
     _disposeGuard();
     await _mapboxGlPlatform.addGeoJsonSource(sourceId, geojson,
-        promoteId: promoteId);
+        promoteId: promoteId, mutable: mutable);
+  }
+
+  /// Adds a new geojson source with features in the packed
+  /// [BinaryFeatureCollection] layout
+  ///
+  /// On Android the features are decoded without an intermediate JSON string,
+  /// which is considerably cheaper for large collections. Other platforms
+  /// fall back to [addGeoJsonSource]. See there for the meaning of [mutable].
+  ///
+  /// The returned [Future] completes after the change has been made on the
+  /// platform side.
+  Future<void> addBinaryGeoJsonSource(
+      String sourceId, BinaryFeatureCollection features,
+      {bool? mutable}) async {
+    _disposeGuard();
+    await _mapboxGlPlatform.addBinaryGeoJsonSource(sourceId, features,
+        mutable: mutable);
+  }
+
+  /// Sets new features in the packed [BinaryFeatureCollection] layout to an
+  /// existing source
+  ///
+  /// This is the binary counterpart of [setGeoJsonSource].
+  ///
+  /// The returned [Future] completes after the change has been made on the
+  /// platform side.
+  Future<void> setBinaryGeoJsonSource(
+      String sourceId, BinaryFeatureCollection features) async {
+    _disposeGuard();
+    await _mapboxGlPlatform.setBinaryGeoJsonSource(sourceId, features);
   }
 
   /// Sets new geojson data to and existing source
@@ -338,6 +377,12 @@ class MapboxMapController extends ChangeNotifier {
   /// The json in [geojson] has to comply with the schema for FeatureCollection
   /// as specified in https://datatracker.ietf.org/doc/html/rfc7946#section-3.3
   ///
+  /// On Android the data is applied on the next frame (see
+  /// [setGeoJsonUpdateInterval]); if the same source is updated several times
+  /// before that, only the latest data is applied. Malformed data fails the
+  /// returned [Future] with a [PlatformException] and leaves the source as it
+  /// was.
+  ///
   /// The returned [Future] completes after the change has been made on the
   /// platform side.
   Future<void> setGeoJsonSource(
@@ -364,6 +409,189 @@ class MapboxMapController extends ChangeNotifier {
         sourceId, geojsonFeature);
   }
 
+  /// Adds or replaces several features of an existing geojson source at once
+  ///
+  /// Features are matched by their `id`; features that are not part of the
+  /// source yet are appended. This only works as expected if the source has
+  /// been created with [addGeoJsonSource] before.
+  ///
+  /// On Android all changes made within one frame are applied to the source
+  /// together, which is much cheaper than calling [setGeoJsonFeature] for
+  /// every feature. On iOS this falls back to [setGeoJsonFeature] for each
+  /// feature.
+  ///
+  /// The returned [Future] completes after the change has been made on the
+  /// platform side.
+  Future<void> setGeoJsonFeatures(
+      String sourceId, List<Map<String, dynamic>> geojsonFeatures) async {
+    _disposeGuard();
+    await _mapboxGlPlatform.setFeaturesForGeoJsonSource(
+        sourceId, geojsonFeatures);
+  }
+
+  /// Sets the minimum time between two updates of geojson sources
+  ///
+  /// Updates made with [setGeoJsonSource], [setGeoJsonFeature] and
+  /// [setGeoJsonFeatures] are collected and applied together once this
+  /// interval has passed. The default of [Duration.zero] applies them on the
+  /// next frame. Only supported on Android, other platforms ignore it.
+  Future<void> setGeoJsonUpdateInterval(Duration interval) async {
+    _disposeGuard();
+    await _mapboxGlPlatform.setGeoJsonUpdateInterval(interval);
+  }
+
+  /// Returns counters of the geojson source updates made so far
+  ///
+  /// The returned map contains the number of `submitted`, `applied` and
+  /// `coalesced` (dropped because a newer update replaced them) updates.
+  /// Only supported on Android, other platforms return an empty map.
+  Future<Map<String, dynamic>> getGeoJsonUpdateStats() async {
+    _disposeGuard();
+    return _mapboxGlPlatform.getGeoJsonUpdateStats();
+  }
+
+  /// Only keeps copies of the features of geojson sources added as `mutable`
+  ///
+  /// On Android a copy of every geojson source's features is kept by default,
+  /// so that single features can be changed with [setGeoJsonFeature],
+  /// [setGeoJsonFeatures] and [removeGeoJsonFeatures]. When [enabled], this
+  /// copy is only kept for sources added with `mutable: true`; feature
+  /// changes of other sources are ignored. Copies are always released when a
+  /// source is removed or the style changes. Only supported on Android, other
+  /// platforms ignore it.
+  Future<void> setMutableGeoJsonSourcesOnly(bool enabled) async {
+    _disposeGuard();
+    await _mapboxGlPlatform.setMutableGeoJsonSourcesOnly(enabled);
+  }
+
+  /// Returns the memory held by the feature copies of geojson sources
+  ///
+  /// The returned map contains the total number of `features` and their
+  /// `estimatedBytes` on the heap, as well as the same values per source in
+  /// `sources`. Only supported on Android, other platforms return an empty
+  /// map.
+  Future<Map<String, dynamic>> getGeoJsonFeatureStoreStats() async {
+    _disposeGuard();
+    return _mapboxGlPlatform.getGeoJsonFeatureStoreStats();
+  }
+
+  /// Changes how draggable features are moved while they are dragged
+  ///
+  /// By default every move of a drag is sent to Dart, and the dragged feature
+  /// only moves once its new position has been sent back to its source. With
+  /// [nativeMove] the platform moves the feature in its geojson source itself
+  /// on every frame, which keeps it under the finger even for large sources;
+  /// annotations are then only written back to their source when the drag
+  /// ends. This only works for sources that keep a copy of their features,
+  /// see [setMutableGeoJsonSourcesOnly]. [maxEventRate] limits the number of
+  /// drag events per second sent to [onFeatureDrag]; start and end events
+  /// are always sent. Only supported on Android.
+  Future<void> setFeatureDragOptions(
+      {bool nativeMove = false, double? maxEventRate}) async {
+    _disposeGuard();
+    _nativeFeatureMove = await _mapboxGlPlatform.setFeatureDragOptions(
+        nativeMove: nativeMove, maxEventRate: maxEventRate);
+  }
+
+  bool _nativeFeatureMove = false;
+
+  /// Hit-tests taps on layers of a geojson source against its features
+  ///
+  /// When [enabled], taps and drags on interactive layers of the source are
+  /// resolved with a spatial index of the source's features instead of a
+  /// query of the rendered map, which is much faster for large sources. The
+  /// index only looks at the geometries: it ignores layer filters and the
+  /// drawn size of symbols and circles, so the layers should show all
+  /// features and taps should hit the geometry itself. The index keeps a
+  /// reference to the features and is rebuilt when the source data changes.
+  /// Only supported on Android, other platforms ignore it.
+  Future<void> setGeoJsonSourceHitTestIndex(
+      String sourceId, bool enabled) async {
+    _disposeGuard();
+    await _mapboxGlPlatform.setGeoJsonSourceHitTestIndex(sourceId, enabled);
+  }
+
+  /// Sets how many parsed layer property and filter expressions are cached
+  ///
+  /// On Android the expressions passed to the layer and filter methods are
+  /// parsed once and reused while they stay in the cache, which makes
+  /// re-applying the same properties (e.g. when switching themes) much
+  /// cheaper. The cache is shared by all maps and holds 512 expressions by
+  /// default; a [size] of 0 disables it. Only supported on Android, other
+  /// platforms ignore it.
+  Future<void> setExpressionCacheSize(int size) async {
+    _disposeGuard();
+    await _mapboxGlPlatform.setExpressionCacheSize(size);
+  }
+
+  /// Returns counters of the expression cache
+  ///
+  /// The returned map contains the number of cache `hits`, `misses` and
+  /// `evictions`, as well as the current `size` and `maxSize`. Only supported
+  /// on Android, other platforms return an empty map.
+  Future<Map<String, dynamic>> getExpressionCacheStats() async {
+    _disposeGuard();
+    return _mapboxGlPlatform.getExpressionCacheStats();
+  }
+
+  /// Configures the cache of images loaded from assets for the style
+  ///
+  /// On Android, images the style is missing are loaded from the Flutter
+  /// assets in the resolution that matches the device. The decoded images are
+  /// cached across style reloads and shared by all maps, up to [maxBytes]
+  /// (1/16 of the app's heap by default, 0 disables the cache). With
+  /// [reuseBitmaps] the memory of evicted images is reused for decoding new
+  /// ones. Images larger than [maxDimension] pixels are decoded at a lower
+  /// resolution but drawn at the same size. Options that are not given keep
+  /// their current value. Only supported on Android, other platforms ignore
+  /// it.
+  Future<void> setImageCacheOptions(
+      {int? maxBytes, bool? reuseBitmaps, int? maxDimension}) async {
+    _disposeGuard();
+    await _mapboxGlPlatform.setImageCacheOptions(
+        maxBytes: maxBytes,
+        reuseBitmaps: reuseBitmaps,
+        maxDimension: maxDimension);
+  }
+
+  /// Returns counters of the asset image cache
+  ///
+  /// The returned map contains the number of cache `hits`, `misses`,
+  /// `evictions` and `reused` bitmaps, as well as the number of cached images
+  /// (`size`), their `bytes` and `maxBytes`. Only supported on Android, other
+  /// platforms return an empty map.
+  Future<Map<String, dynamic>> getImageCacheStats() async {
+    _disposeGuard();
+    return _mapboxGlPlatform.getImageCacheStats();
+  }
+
+  /// Limits how often [cameraPosition] is updated while the camera is moving
+  ///
+  /// A move is reported if the rate limit allows it and any of the camera
+  /// values changed by at least its minimum delta since the last reported
+  /// move. Fewer moves mean fewer listener notifications and less traffic
+  /// between the platform and Dart during gestures and animations. Skipped
+  /// moves are not lost: the final position is set before [onCameraIdle] is
+  /// called. Only supported on Android, other platforms ignore it.
+  Future<void> setCameraMoveEventOptions(CameraMoveEventOptions options) async {
+    _disposeGuard();
+    await _mapboxGlPlatform.setCameraMoveEventOptions(options);
+  }
+
+  /// Removes the features with the given ids from an existing geojson source
+  ///
+  /// This only works as expected if the source has been created with
+  /// [addGeoJsonSource] before. Only supported on Android and web.
+  ///
+  /// The returned [Future] completes after the change has been made on the
+  /// platform side.
+  Future<void> removeGeoJsonFeatures(
+      String sourceId, List<dynamic> featureIds) async {
+    _disposeGuard();
+    await _mapboxGlPlatform.removeFeaturesFromGeoJsonSource(
+        sourceId, featureIds.map((id) => id.toString()).toList());
+  }
+
   /// Add a symbol layer to the map with the given properties
   ///
   /// Consider using [addLayer] for an unified layer api.
@@ -1169,6 +1397,26 @@ class MapboxMapController extends ChangeNotifier {
     return _mapboxGlPlatform.addImage(name, bytes, sdf);
   }
 
+  /// Adds all images of a sprite sheet to the style at once
+  ///
+  /// The sheet is decoded once, off the main thread on Android, and the images
+  /// are registered with a single call. This is much faster than adding many
+  /// small images with [addImage] one by one. Platforms without bulk support
+  /// (iOS) cut the images out of the sheet in Dart and add them one by one;
+  /// they are then drawn with the pixel ratio of the screen.
+  ///
+  /// Example: Adding an icon set that comes with a Mapbox sprite index:
+  /// ```dart
+  /// final sheet = await rootBundle.load("assets/icons.png");
+  /// final index = await rootBundle.loadString("assets/icons.json");
+  /// await controller.addImages(
+  ///     SpriteSheet.fromJson(sheet.buffer.asUint8List(), index));
+  /// ```
+  Future<void> addImages(SpriteSheet spriteSheet) {
+    _disposeGuard();
+    return _mapboxGlPlatform.addImages(spriteSheet);
+  }
+
   /// For more information on what this does, see https://docs.mapbox.com/help/troubleshooting/optimize-map-label-placement/#label-collision
   Future<void> setSymbolIconAllowOverlap(bool enable) async {
     await symbolManager?.setIconAllowOverlap(enable);
@@ -1296,6 +1544,32 @@ class MapboxMapController extends ChangeNotifier {
     return _mapboxGlPlatform.addSource(sourceid, properties);
   }
 
+  /// Applies several source and layer changes to the style at once
+  ///
+  /// The operations of [batch] are applied in order with a single call to the
+  /// platform side, which is much faster than adding many sources and layers
+  /// one by one. An operation that fails does not stop the batch; the
+  /// returned list contains one [StyleOperationFailure] per failed operation.
+  ///
+  /// ```dart
+  /// final batch = StyleBatch()
+  ///   ..addSource('roads', VectorSourceProperties(url: roadsUrl))
+  ///   ..addLayer('roads', 'roads-casing', LineLayerProperties(lineWidth: 6))
+  ///   ..addLayer('roads', 'roads-fill', LineLayerProperties(lineWidth: 4))
+  ///   ..setVisibility('poi-labels', false);
+  /// final failures = await controller.applyStyleBatch(batch);
+  /// ```
+  ///
+  /// The returned [Future] completes after all changes have been made on the
+  /// platform side.
+  Future<List<StyleOperationFailure>> applyStyleBatch(StyleBatch batch) async {
+    _disposeGuard();
+    if (batch.isEmpty) {
+      return [];
+    }
+    return _mapboxGlPlatform.applyStyleBatch(batch);
+  }
+
   /// Add a layer to the map with the given properties
   ///
   /// The returned [Future] completes after the change has been made on the
@@ -1403,6 +1677,69 @@ class MapboxMapController extends ChangeNotifier {
     return _mapboxGlPlatform.takeSnapshot(snapshotOptions);
   }
 
+  /// Generates a static raster image of the map and returns its encoded bytes
+  ///
+  /// The image is encoded with the [SnapshotOptions.format] and
+  /// [SnapshotOptions.quality], [SnapshotOptions.writeToDisk] is ignored. On
+  /// Android the bytes are sent without a base64 round trip.
+  Future<Uint8List> takeSnapshotBytes(SnapshotOptions snapshotOptions) async {
+    _disposeGuard();
+    return _mapboxGlPlatform.takeSnapshotBytes(snapshotOptions);
+  }
+
+  /// Enables or disables the on-disk cache of [takeSnapshot] results
+  ///
+  /// Cached snapshots are keyed by everything that affects the image: style,
+  /// size, camera or bounds, logo, format and quality. Snapshots of the
+  /// current camera are keyed by the visible region. A snapshot written to
+  /// disk without a [SnapshotOptions.filePath] is returned as a copy of the
+  /// cached file in the app's cache directory, like an uncached snapshot, so
+  /// it stays valid when the cache evicts the snapshot. The least recently used
+  /// snapshots are evicted once the cache exceeds [maxBytes], 50 MB by
+  /// default. The cache is disabled by default and shared by all maps.
+  /// Options that are not given keep their current value. Only supported on
+  /// Android, other platforms ignore it.
+  Future<void> setSnapshotCacheOptions({bool? enabled, int? maxBytes}) async {
+    _disposeGuard();
+    await _mapboxGlPlatform.setSnapshotCacheOptions(
+        enabled: enabled, maxBytes: maxBytes);
+  }
+
+  /// Returns counters of the snapshot cache
+  ///
+  /// The returned map contains whether the cache is `enabled`, the number of
+  /// cache `hits`, `misses` and `evictions`, as well as the number of cached
+  /// snapshots (`size`), their `bytes` and `maxBytes`. Only supported on
+  /// Android, other platforms return an empty map.
+  Future<Map<String, dynamic>> getSnapshotCacheStats() async {
+    _disposeGuard();
+    return _mapboxGlPlatform.getSnapshotCacheStats();
+  }
+
+  /// Removes all cached snapshots. Only supported on Android, other platforms
+  /// ignore it.
+  Future<void> clearSnapshotCache() async {
+    _disposeGuard();
+    await _mapboxGlPlatform.clearSnapshotCache();
+  }
+
+  /// Takes a snapshot for each of the [snapshots] and streams the results as
+  /// they complete, which is not necessarily in order
+  ///
+  /// Up to [maxConcurrent] snapshots (at most 4) are rendered at the same time
+  /// by snapshotters that are reused for the following snapshots. Snapshots
+  /// are taken as bytes if [asBytes] is true. Cancelling the subscription
+  /// cancels the snapshots that are not taken yet. The logo option of the
+  /// first snapshot applies to all of them on Android. Platforms without
+  /// batch support (iOS) take the snapshots one at a time with
+  /// [takeSnapshot], in order.
+  Stream<SnapshotBatchResult> takeSnapshotBatch(List<SnapshotOptions> snapshots,
+      {int maxConcurrent = 2, bool asBytes = false}) {
+    _disposeGuard();
+    return _mapboxGlPlatform.takeSnapshotBatch(snapshots,
+        maxConcurrent: maxConcurrent, asBytes: asBytes);
+  }
+
   @override
   void dispose() {
     _disposed = true;
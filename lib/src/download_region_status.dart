@@ -7,7 +7,25 @@ class Success extends DownloadRegionStatus {}
 class InProgress extends DownloadRegionStatus {
   final double progress;
 
-  InProgress(this.progress);
+  /// Number of downloaded resources, only reported on Android
+  final int? completedResources;
+
+  /// Number of resources of the region, may increase while downloading
+  final int? requiredResources;
+
+  /// Size of the downloaded resources in bytes
+  final int? completedBytes;
+
+  /// Download throughput since the previous progress report
+  final double? bytesPerSecond;
+
+  InProgress(
+    this.progress, {
+    this.completedResources,
+    this.requiredResources,
+    this.completedBytes,
+    this.bytesPerSecond,
+  });
 
   @override
   String toString() =>
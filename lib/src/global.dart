@@ -9,13 +9,41 @@ final MethodChannel _globalChannel =
 
 /// Copy tiles db file passed in to the tiles cache directory (sideloaded) to
 /// make tiles available offline.
-Future<void> installOfflineMapTiles(String tilesDb) async {
-  await _globalChannel.invokeMethod(
+///
+/// [tilesDb] is an absolute path or an asset key. On Android the copy runs in
+/// the background and replaces the installed database only once it is
+/// complete and matches the expected size and, if given, the hex encoded
+/// [sha256] checksum. Installing the same file or asset again is skipped
+/// unless [force] is true. [onProgress] is called with the number of copied
+/// bytes and the total, which is -1 for compressed assets. Returns false if
+/// the copy was skipped.
+Future<bool> installOfflineMapTiles(
+  String tilesDb, {
+  bool force = false,
+  String? sha256,
+  void Function(int copiedBytes, int totalBytes)? onProgress,
+}) async {
+  // progress is only reported on Android
+  final channelName =
+      onProgress != null && defaultTargetPlatform == TargetPlatform.android
+          ? 'installOfflineMapTiles_${DateTime.now().microsecondsSinceEpoch}'
+          : null;
+  final installed = _globalChannel.invokeMethod<bool>(
     'installOfflineMapTiles',
     <String, dynamic>{
       'tilesdb': tilesDb,
+      'force': force,
+      'sha256': sha256,
+      'channelName': channelName,
     },
   );
+  if (channelName != null) {
+    // the copy starts once this listens
+    EventChannel(channelName).receiveBroadcastStream().listen((event) {
+      onProgress!(event['copiedBytes'], event['totalBytes']);
+    });
+  }
+  return await installed ?? true;
 }
 
 enum DragEventType { start, drag, end }
@@ -41,6 +69,160 @@ Future<void> setHttpHeaders(Map<String, String> headers) {
   );
 }
 
+/// Configures the http client used for all requests of the maps
+///
+/// The client is shared by all maps and offline downloads, so open
+/// connections are reused. [maxIdleConnections] and [keepAlive] size the
+/// connection pool, [http2] prefers HTTP/2 if the server supports it, and
+/// [maxRequests] and [maxRequestsPerHost] limit the requests that run at the
+/// same time. A [cacheMaxBytes] above 0 enables a disk cache of the http
+/// responses in addition to the ambient cache of the maps. Changing its size
+/// starts an empty cache; the previous one is deleted once the requests in
+/// flight are done.
+///
+/// With [prioritizeRequests], tiles wait while style, sprite, glyph and
+/// source requests are in flight, so a congested link loads the style first.
+/// [maxTileRequestsPerHost] above 0 caps the tile requests in flight per
+/// host, waiting tiles are started in the order they were requested and
+/// dropped without a network request once the map no longer needs them.
+/// Tiles wait in a queue of their own, so they never hold up other requests
+/// of the client. Both are off by default. Requests count as tiles if their
+/// path ends with `{z}/{x}/{y}`, with or without an extension, contains
+/// `/tiles/`, or names a tile file, see [getNetworkStats].
+///
+/// The map itself keeps only about 20 requests in flight and waiting tiles
+/// count against that, so a cap far below 20 lets the map issue fewer new
+/// requests while tiles are waiting.
+///
+/// Options that are not given keep their current value. Headers set with
+/// [setHttpHeaders] are kept. Only supported on Android.
+Future<void> setHttpClientOptions({
+  int? maxIdleConnections,
+  Duration? keepAlive,
+  bool? http2,
+  Duration? connectTimeout,
+  Duration? readTimeout,
+  Duration? writeTimeout,
+  int? maxRequests,
+  int? maxRequestsPerHost,
+  int? cacheMaxBytes,
+  bool? prioritizeRequests,
+  int? maxTileRequestsPerHost,
+  String? accessToken,
+}) async {
+  await _globalChannel.invokeMethod(
+    'setHttpClientOptions',
+    <String, dynamic>{
+      'accessToken': accessToken,
+      if (maxIdleConnections != null) 'maxIdleConnections': maxIdleConnections,
+      if (keepAlive != null) 'keepAlive': keepAlive.inMilliseconds,
+      if (http2 != null) 'http2': http2,
+      if (connectTimeout != null)
+        'connectTimeout': connectTimeout.inMilliseconds,
+      if (readTimeout != null) 'readTimeout': readTimeout.inMilliseconds,
+      if (writeTimeout != null) 'writeTimeout': writeTimeout.inMilliseconds,
+      if (maxRequests != null) 'maxRequests': maxRequests,
+      if (maxRequestsPerHost != null) 'maxRequestsPerHost': maxRequestsPerHost,
+      if (cacheMaxBytes != null) 'cacheMaxBytes': cacheMaxBytes,
+      if (prioritizeRequests != null) 'prioritizeRequests': prioritizeRequests,
+      if (maxTileRequestsPerHost != null)
+        'maxTileRequestsPerHost': maxTileRequestsPerHost,
+    },
+  );
+}
+
+/// Returns the options of the http client, durations in milliseconds, see
+/// [setHttpClientOptions]. Only supported on Android.
+Future<Map<String, dynamic>> getHttpClientOptions({
+  String? accessToken,
+}) async {
+  final Map<dynamic, dynamic>? options = await _globalChannel.invokeMethod(
+    'getHttpClientOptions',
+    <String, dynamic>{
+      'accessToken': accessToken,
+    },
+  );
+  return Map<String, dynamic>.from(options ?? {});
+}
+
+/// Returns counters of the http requests of the maps since the app started or
+/// [resetNetworkStats] was called
+///
+/// The returned map contains the number of `requests`, `failures`,
+/// `cancellations`, disk `cacheHits` and `notModified` responses, the
+/// response `bytes`, the `totalDurationMillis`, `maxDurationMillis` and
+/// `totalTimeToFirstByteMillis` of the requests and the count of each status
+/// code in `statusCodes`. The same counters are given by host in `hosts` and
+/// by resource type (`tiles`, `glyphs`, `sprites`, `styles`, `sources` and
+/// `other`) in `types`. Requests count as tiles if their path ends with
+/// `{z}/{x}/{y}`, with or without an extension, contains `/tiles/`, or names
+/// a file with a tile extension such as `.pbf`, `.mvt`, `.png32` or `.jpg90`.
+/// `since` is the start of the counters in milliseconds since epoch. Only
+/// supported on Android.
+Future<Map<String, dynamic>> getNetworkStats({String? accessToken}) async {
+  final Map<dynamic, dynamic>? stats = await _globalChannel.invokeMethod(
+    'getNetworkStats',
+    <String, dynamic>{
+      'accessToken': accessToken,
+    },
+  );
+  return Map<String, dynamic>.from(stats ?? {});
+}
+
+/// Serves the http requests of the maps from a local store instead of the
+/// network, e.g. to benchmark map loads without a network or to ship tiles
+/// with the app
+///
+/// Tiles are looked up in the MBTiles database at the absolute path
+/// [mbtiles] by the {z}/{x}/{y} at the end of their url, with or without an
+/// extension, and unzipped if they are stored gzip compressed. All resources,
+/// including glyphs, sprites, styles and tiles missing in the database, are
+/// looked up in [directory] as `<directory>/<host>/<path>` and then as
+/// `<directory>/<path>`. The directory is an absolute path or the key of a
+/// directory of Flutter assets. Only requests to [hosts] are served, all hosts
+/// if null.
+///
+/// Resources that are not found are fetched from the network if
+/// [fallThrough] is true and answered with a 404 otherwise, in which case the
+/// map makes requests even if the device has no network. Served resources are
+/// delayed by [latency] and by their size at [bytesPerSecond] if above 0, to
+/// simulate a network.
+///
+/// Call without [mbtiles] and [directory] to use the network again. Only
+/// supported on Android.
+Future<void> setLocalTileSource({
+  String? mbtiles,
+  String? directory,
+  List<String>? hosts,
+  bool fallThrough = true,
+  Duration latency = Duration.zero,
+  int bytesPerSecond = 0,
+  String? accessToken,
+}) async {
+  await _globalChannel.invokeMethod(
+    'setLocalTileSource',
+    <String, dynamic>{
+      'mbtiles': mbtiles,
+      'directory': directory,
+      'hosts': hosts,
+      'fallThrough': fallThrough,
+      'latency': latency.inMilliseconds,
+      'bytesPerSecond': bytesPerSecond,
+      'accessToken': accessToken,
+    },
+  );
+}
+
+/// Resets the counters of [getNetworkStats]. Only supported on Android.
+Future<void> resetNetworkStats({String? accessToken}) async {
+  await _globalChannel.invokeMethod(
+    'resetNetworkStats',
+    <String, dynamic>{
+      'accessToken': accessToken,
+    },
+  );
+}
+
 Future<List<OfflineRegion>> mergeOfflineRegions(
   String path, {
   String? accessToken,
@@ -67,6 +249,40 @@ Future<List<OfflineRegion>> getListOfRegions({String? accessToken}) async {
   return regions.map((region) => OfflineRegion.fromMap(region)).toList();
 }
 
+/// Returns the download status of the offline regions with the given [ids],
+/// or of all regions if [ids] is null. Ids without a region are skipped.
+/// Only supported on Android.
+Future<List<OfflineRegionStatus>> getOfflineRegionStatus({
+  List<int>? ids,
+  String? accessToken,
+}) async {
+  final List<dynamic>? statuses = await _globalChannel.invokeMethod(
+    'getOfflineRegionStatus',
+    <String, dynamic>{
+      'ids': ids,
+      'accessToken': accessToken,
+    },
+  );
+  return (statuses ?? [])
+      .map((status) => OfflineRegionStatus.fromMap(status))
+      .toList();
+}
+
+/// Returns the storage used by the offline database, by each region and an
+/// estimate of the ambient cache size, e.g. to decide which regions to delete
+/// when the device runs low on storage. Only supported on Android.
+Future<OfflineStorageReport> getOfflineStorageReport({
+  String? accessToken,
+}) async {
+  final Map<dynamic, dynamic>? report = await _globalChannel.invokeMethod(
+    'getOfflineStorageReport',
+    <String, dynamic>{
+      'accessToken': accessToken,
+    },
+  );
+  return OfflineStorageReport.fromMap(report ?? {});
+}
+
 Future<OfflineRegion> updateOfflineRegionMetadata(
   int id,
   Map<String, dynamic> metadata, {
@@ -102,11 +318,34 @@ Future<dynamic> deleteOfflineRegion(int id, {String? accessToken}) =>
       },
     );
 
+/// Deletes all offline regions with the given [ids] at once and returns the
+/// ids of the regions that were deleted. Ids without a region are skipped.
+/// Only supported on Android, use [deleteOfflineRegion] on other platforms.
+Future<List<int>> deleteOfflineRegions(
+  List<int> ids, {
+  String? accessToken,
+}) async {
+  final List<dynamic>? deleted = await _globalChannel.invokeMethod(
+    'deleteOfflineRegions',
+    <String, dynamic>{
+      'ids': ids,
+      'accessToken': accessToken,
+    },
+  );
+  return deleted?.cast<int>() ?? <int>[];
+}
+
+/// Creates a region and downloads it, reporting the download to [onEvent]
+///
+/// Progress is reported at most [progressEventsPerSecond] times per second
+/// and only when it advanced by a whole percent, 0 removes the time limit.
+/// The limit is only supported on Android.
 Future<OfflineRegion> downloadOfflineRegion(
   OfflineRegionDefinition definition, {
   Map<String, dynamic> metadata = const {},
   String? accessToken,
   Function(DownloadRegionStatus event)? onEvent,
+  int progressEventsPerSecond = 4,
 }) async {
   String channelName =
       'downloadOfflineRegion_${DateTime.now().microsecondsSinceEpoch}';
@@ -117,6 +356,7 @@ Future<OfflineRegion> downloadOfflineRegion(
     'channelName': channelName,
     'definition': definition.toMap(),
     'metadata': metadata,
+    'progressEventsPerSecond': progressEventsPerSecond,
   });
 
   if (onEvent != null) {
@@ -136,7 +376,9 @@ Future<OfflineRegion> downloadOfflineRegion(
       onEvent(unknownError);
       return unknownError;
     }).listen((data) {
-      final Map<String, dynamic> jsonData = json.decode(data);
+      // events are maps on Android and json on iOS
+      final Map<dynamic, dynamic> jsonData =
+          data is String ? json.decode(data) : data;
       DownloadRegionStatus? status;
       switch (jsonData['status']) {
         case 'start':
@@ -154,7 +396,13 @@ Future<OfflineRegion> downloadOfflineRegion(
             progress = value;
           }
 
-          status = InProgress(progress);
+          status = InProgress(
+            progress,
+            completedResources: jsonData['completedResources'],
+            requiredResources: jsonData['requiredResources'],
+            completedBytes: jsonData['completedBytes'],
+            bytesPerSecond: jsonData['bytesPerSecond'],
+          );
           break;
         case 'success':
           status = Success();
@@ -166,3 +414,111 @@ Future<OfflineRegion> downloadOfflineRegion(
 
   return OfflineRegion.fromMap(json.decode(result));
 }
+
+final EventChannel _offlineDownloadsChannel =
+    EventChannel('plugins.flutter.io/mapbox_gl_offline_downloads');
+
+/// Progress reports and state changes of the downloads queued with
+/// [enqueueOfflineRegion]
+///
+/// Progress is reported at most once per progress interval and download and
+/// only when it advanced by a whole percent, see [setOfflineDownloadOptions].
+/// Only supported on Android.
+Stream<OfflineDownloadEvent> get offlineDownloadEvents =>
+    _offlineDownloadsChannel
+        .receiveBroadcastStream()
+        .map((event) => OfflineDownloadEvent.fromMap(event));
+
+/// Creates a region and queues its download
+///
+/// Unlike [downloadOfflineRegion], only a limited number of regions are
+/// downloaded at the same time, those with the highest [priority] first and
+/// then in the order they were queued. The queue is persisted and restored by
+/// the first call to any of the offline download functions after a restart of
+/// the app, which resumes the downloads. Only supported on Android.
+Future<OfflineRegion> enqueueOfflineRegion(
+  OfflineRegionDefinition definition, {
+  Map<String, dynamic> metadata = const {},
+  int priority = 0,
+  String? accessToken,
+}) async {
+  final regionJson = await _globalChannel.invokeMethod(
+    'offlineDownloads#enqueue',
+    <String, dynamic>{
+      'accessToken': accessToken,
+      'definition': definition.toMap(),
+      'metadata': metadata,
+      'priority': priority,
+    },
+  );
+  return OfflineRegion.fromMap(json.decode(regionJson));
+}
+
+/// Pauses a queued download, returns false if the region is not queued
+Future<bool> pauseOfflineRegionDownload(int id, {String? accessToken}) async {
+  final paused = await _globalChannel.invokeMethod<bool>(
+    'offlineDownloads#pause',
+    <String, dynamic>{'id': id, 'accessToken': accessToken},
+  );
+  return paused ?? false;
+}
+
+/// Resumes a paused download
+///
+/// Regions that are not queued, like partially downloaded regions of
+/// [downloadOfflineRegion], are queued with the given [priority]. Returns
+/// false if there is no region with the [id].
+Future<bool> resumeOfflineRegionDownload(
+  int id, {
+  int priority = 0,
+  String? accessToken,
+}) async {
+  final resumed = await _globalChannel.invokeMethod<bool>(
+    'offlineDownloads#resume',
+    <String, dynamic>{
+      'id': id,
+      'priority': priority,
+      'accessToken': accessToken,
+    },
+  );
+  return resumed ?? false;
+}
+
+/// Stops a queued download and deletes the region, returns false if the
+/// region is not queued
+Future<bool> cancelOfflineRegionDownload(int id, {String? accessToken}) async {
+  final cancelled = await _globalChannel.invokeMethod<bool>(
+    'offlineDownloads#cancel',
+    <String, dynamic>{'id': id, 'accessToken': accessToken},
+  );
+  return cancelled ?? false;
+}
+
+/// Sets how many regions are downloaded at the same time, 2 by default, and
+/// the minimum interval between progress reports of a download, 500 ms by
+/// default. The options are persisted. Options that are not given keep their
+/// current value.
+Future<void> setOfflineDownloadOptions({
+  int? maxConcurrent,
+  Duration? progressInterval,
+  String? accessToken,
+}) async {
+  await _globalChannel.invokeMethod(
+    'offlineDownloads#setOptions',
+    <String, dynamic>{
+      'accessToken': accessToken,
+      if (maxConcurrent != null) 'maxConcurrent': maxConcurrent,
+      if (progressInterval != null)
+        'progressInterval': progressInterval.inMilliseconds,
+    },
+  );
+}
+
+/// Returns the queued downloads in the order they are downloaded
+Future<List<OfflineDownload>> getOfflineDownloads({String? accessToken}) async {
+  final List<dynamic> downloads = await _globalChannel.invokeMethod(
+    'offlineDownloads#list',
+    <String, dynamic>{'accessToken': accessToken},
+  );
+  return downloads.map((d) => OfflineDownload.fromMap(d)).toList();
+}
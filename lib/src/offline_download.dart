@@ -0,0 +1,105 @@
+part of mapbox_gl;
+
+/// State of a download queued with [enqueueOfflineRegion]
+enum OfflineDownloadState {
+  /// Waiting for one of the active downloads to finish
+  queued,
+
+  /// Downloading
+  active,
+
+  /// Paused with [pauseOfflineRegionDownload]
+  paused,
+
+  /// All resources of the region are downloaded
+  complete,
+
+  /// Stopped by an error the download cannot recover from
+  failed,
+
+  /// Removed with [cancelOfflineRegionDownload]
+  cancelled,
+}
+
+OfflineDownloadState _offlineDownloadStateFromString(String state) =>
+    OfflineDownloadState.values.firstWhere((s) => describeEnum(s) == state);
+
+/// A download in the queue of the offline download manager
+class OfflineDownload {
+  const OfflineDownload({
+    required this.id,
+    required this.state,
+    required this.priority,
+  });
+
+  /// The id of the downloaded region
+  final int id;
+  final OfflineDownloadState state;
+  final int priority;
+
+  factory OfflineDownload.fromMap(Map<dynamic, dynamic> map) {
+    return OfflineDownload(
+      id: map['id'],
+      state: _offlineDownloadStateFromString(map['state']),
+      priority: map['priority'],
+    );
+  }
+
+  @override
+  String toString() =>
+      "$runtimeType, id = $id, state = $state, priority = $priority";
+}
+
+/// A state change or progress report of a queued download
+class OfflineDownloadEvent {
+  const OfflineDownloadEvent({
+    required this.id,
+    required this.state,
+    this.completedResources,
+    this.requiredResources,
+    this.completedBytes,
+    this.progress,
+    this.bytesPerSecond,
+    this.error,
+  });
+
+  /// The id of the downloaded region
+  final int id;
+  final OfflineDownloadState state;
+
+  /// Number of downloaded resources, only set for progress reports
+  final int? completedResources;
+
+  /// Number of resources of the region, may increase while downloading
+  final int? requiredResources;
+
+  /// Size of the downloaded resources in bytes
+  final int? completedBytes;
+
+  /// Downloaded percentage from 0 to 100
+  final double? progress;
+
+  /// Download throughput since the previous progress report
+  final double? bytesPerSecond;
+
+  /// Why the download failed, or an error the download recovers from by
+  /// retrying if the state is [OfflineDownloadState.active]
+  final String? error;
+
+  factory OfflineDownloadEvent.fromMap(Map<dynamic, dynamic> map) {
+    return OfflineDownloadEvent(
+      id: map['id'],
+      state: _offlineDownloadStateFromString(map['state']),
+      completedResources: map['completedResources'],
+      requiredResources: map['requiredResources'],
+      completedBytes: map['completedBytes'],
+      progress: map['progress'],
+      bytesPerSecond: map['bytesPerSecond'],
+      error: map['error'],
+    );
+  }
+
+  @override
+  String toString() =>
+      "$runtimeType, id = $id, state = $state, progress = $progress";
+}
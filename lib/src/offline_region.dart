@@ -74,3 +74,113 @@ class OfflineRegion {
   String toString() =>
       "$runtimeType, id = $id, definition = $definition, metadata = $metadata";
 }
+
+/// Download status of an offline region, as returned by
+/// [getOfflineRegionStatus].
+class OfflineRegionStatus {
+  const OfflineRegionStatus({
+    required this.id,
+    this.active = false,
+    this.complete = false,
+    this.completedResourceCount = 0,
+    this.completedResourceSize = 0,
+    this.completedTileCount = 0,
+    this.completedTileSize = 0,
+    this.requiredResourceCount = 0,
+    this.requiredResourceCountIsPrecise = false,
+    this.progress = 0,
+    this.error,
+  });
+
+  /// The id of the region
+  final int id;
+
+  /// Whether the region is currently downloading
+  final bool active;
+
+  /// Whether all resources of the region are downloaded
+  final bool complete;
+  final int completedResourceCount;
+
+  /// Size of the downloaded resources in bytes, including tiles
+  final int completedResourceSize;
+  final int completedTileCount;
+
+  /// Size of the downloaded tiles in bytes
+  final int completedTileSize;
+
+  /// Number of resources of the region, may increase while downloading
+  /// unless [requiredResourceCountIsPrecise] is true
+  final int requiredResourceCount;
+  final bool requiredResourceCountIsPrecise;
+
+  /// Downloaded percentage from 0 to 100
+  final double progress;
+
+  /// Why the status could not be read, all other fields are unset if not null
+  final String? error;
+
+  factory OfflineRegionStatus.fromMap(Map<dynamic, dynamic> map) {
+    return OfflineRegionStatus(
+      id: map['id'],
+      active: map['downloadState'] == 'active',
+      complete: map['complete'] ?? false,
+      completedResourceCount: map['completedResourceCount'] ?? 0,
+      completedResourceSize: map['completedResourceSize'] ?? 0,
+      completedTileCount: map['completedTileCount'] ?? 0,
+      completedTileSize: map['completedTileSize'] ?? 0,
+      requiredResourceCount: map['requiredResourceCount'] ?? 0,
+      requiredResourceCountIsPrecise:
+          map['requiredResourceCountIsPrecise'] ?? false,
+      progress: (map['progress'] ?? 0).toDouble(),
+      error: map['error'],
+    );
+  }
+
+  @override
+  String toString() =>
+      "$runtimeType, id = $id, complete = $complete, completedResourceSize = $completedResourceSize";
+}
+
+/// Storage used by offline regions and the ambient cache, as returned by
+/// [getOfflineStorageReport].
+class OfflineStorageReport {
+  const OfflineStorageReport({
+    required this.databaseBytes,
+    required this.regionBytes,
+    required this.ambientCacheBytes,
+    required this.regions,
+  });
+
+  /// Size of the offline database, including its SQLite write-ahead log and
+  /// journal. The database is expected at the default location of the
+  /// engine, in the files directory of the app.
+  final int databaseBytes;
+
+  /// Sum of the downloaded bytes of all regions
+  final int regionBytes;
+
+  /// Estimated size of the ambient cache. Regions may share resources, so
+  /// this is a lower bound.
+  final int ambientCacheBytes;
+
+  /// Downloaded bytes by region id
+  final Map<int, int> regions;
+
+  factory OfflineStorageReport.fromMap(Map<dynamic, dynamic> map) {
+    final Map<int, int> regions = {};
+    for (final region in map['regions'] ?? []) {
+      regions[region['id']] = region['bytes'];
+    }
+    return OfflineStorageReport(
+      databaseBytes: map['databaseBytes'] ?? 0,
+      regionBytes: map['regionBytes'] ?? 0,
+      ambientCacheBytes: map['ambientCacheBytes'] ?? 0,
+      regions: regions,
+    );
+  }
+
+  @override
+  String toString() =>
+      "$runtimeType, databaseBytes = $databaseBytes, regionBytes = $regionBytes, ambientCacheBytes = $ambientCacheBytes";
+}
@@ -0,0 +1,82 @@
+part of mapbox_gl;
+
+/// Adds layers described by [LayerProperties] to a [StyleBatch].
+extension StyleBatchLayers on StyleBatch {
+  /// Adds or replaces a layer, like [MapboxMapController.addLayer] does.
+  void addLayer(String sourceId, String layerId, LayerProperties properties,
+      {String? belowLayerId,
+      bool enableInteraction = true,
+      String? sourceLayer,
+      double? minzoom,
+      double? maxzoom,
+      dynamic filter}) {
+    final json = properties.toJson();
+    if (properties is FillLayerProperties) {
+      addFillLayer(sourceId, layerId, json,
+          belowLayerId: belowLayerId,
+          enableInteraction: enableInteraction,
+          sourceLayer: sourceLayer,
+          minzoom: minzoom,
+          maxzoom: maxzoom,
+          filter: filter);
+    } else if (properties is FillExtrusionLayerProperties) {
+      addFillExtrusionLayer(sourceId, layerId, json,
+          belowLayerId: belowLayerId,
+          enableInteraction: enableInteraction,
+          sourceLayer: sourceLayer,
+          minzoom: minzoom,
+          maxzoom: maxzoom,
+          filter: filter);
+    } else if (properties is LineLayerProperties) {
+      addLineLayer(sourceId, layerId, json,
+          belowLayerId: belowLayerId,
+          enableInteraction: enableInteraction,
+          sourceLayer: sourceLayer,
+          minzoom: minzoom,
+          maxzoom: maxzoom,
+          filter: filter);
+    } else if (properties is SymbolLayerProperties) {
+      addSymbolLayer(sourceId, layerId, json,
+          belowLayerId: belowLayerId,
+          enableInteraction: enableInteraction,
+          sourceLayer: sourceLayer,
+          minzoom: minzoom,
+          maxzoom: maxzoom,
+          filter: filter);
+    } else if (properties is CircleLayerProperties) {
+      addCircleLayer(sourceId, layerId, json,
+          belowLayerId: belowLayerId,
+          enableInteraction: enableInteraction,
+          sourceLayer: sourceLayer,
+          minzoom: minzoom,
+          maxzoom: maxzoom,
+          filter: filter);
+    } else if (properties is RasterLayerProperties) {
+      if (filter != null) {
+        throw UnimplementedError("RasterLayer does not support filter");
+      }
+      addRasterLayer(sourceId, layerId, json,
+          belowLayerId: belowLayerId,
+          sourceLayer: sourceLayer,
+          minzoom: minzoom,
+          maxzoom: maxzoom);
+    } else if (properties is HillshadeLayerProperties) {
+      if (filter != null) {
+        throw UnimplementedError("HillShadeLayer does not support filter");
+      }
+      addHillshadeLayer(sourceId, layerId, json,
+          belowLayerId: belowLayerId,
+          sourceLayer: sourceLayer,
+          minzoom: minzoom,
+          maxzoom: maxzoom);
+    } else if (properties is HeatmapLayerProperties) {
+      addHeatmapLayer(sourceId, layerId, json,
+          belowLayerId: belowLayerId,
+          sourceLayer: sourceLayer,
+          minzoom: minzoom,
+          maxzoom: maxzoom);
+    } else {
+      throw UnimplementedError("Unknown layer type $properties");
+    }
+  }
+}
@@ -5,6 +5,7 @@ import 'dart:convert';
 import 'dart:math';
 import 'dart:io';
 import 'dart:typed_data';
+import 'dart:ui' as ui;
 import 'package:flutter/foundation.dart';
 import 'package:flutter/gestures.dart';
 import 'package:flutter/material.dart';
@@ -12,6 +13,7 @@ import 'package:flutter/rendering.dart';
 import 'package:flutter/services.dart';
 
 part 'src/annotation.dart';
+part 'src/binary_feature_collection.dart';
 part 'src/callbacks.dart';
 part 'src/camera.dart';
 part 'src/circle.dart';
@@ -24,3 +26,5 @@ part 'src/ui.dart';
 part 'src/snapshot.dart';
 part 'src/mapbox_gl_platform_interface.dart';
 part 'src/source_properties.dart';
+part 'src/style_batch.dart';
+part 'src/sprite_sheet.dart';
@@ -0,0 +1,184 @@
+part of mapbox_gl_platform_interface;
+
+/// A collection of geojson features stored in a compact, packed layout.
+///
+/// Sending a [BinaryFeatureCollection] to the platform side avoids encoding
+/// and parsing the features as a JSON string: coordinates are transferred as
+/// a single [Float64List] and properties as one column of values per key.
+///
+/// ```dart
+/// final collection = BinaryFeatureCollection()
+///   ..addPoint(LatLng(48.85, 2.35), id: 'paris', properties: {'rank': 1})
+///   ..addLineString([LatLng(48.85, 2.35), LatLng(51.5, -0.12)]);
+/// await controller.addBinaryGeoJsonSource('cities', collection);
+/// ```
+class BinaryFeatureCollection {
+  static const int _point = 1;
+  static const int _lineString = 2;
+  static const int _polygon = 3;
+  static const int _multiPoint = 4;
+  static const int _multiLineString = 5;
+  static const int _multiPolygon = 6;
+
+  final List<int> _geometryTypes = [];
+  final List<int> _parts = [];
+  final List<double> _coordinates = [];
+  final List<String?> _ids = [];
+  final Map<String, List<dynamic>> _properties = {};
+
+  /// The number of features in this collection.
+  int get length => _geometryTypes.length;
+
+  /// Adds a feature with a point geometry.
+  void addPoint(LatLng point, {String? id, Map<String, dynamic>? properties}) {
+    _addCoordinate(point);
+    _addFeature(_point, id, properties);
+  }
+
+  /// Adds a feature with a multi point geometry.
+  void addMultiPoint(List<LatLng> points,
+      {String? id, Map<String, dynamic>? properties}) {
+    _addLine(points);
+    _addFeature(_multiPoint, id, properties);
+  }
+
+  /// Adds a feature with a line string geometry.
+  void addLineString(List<LatLng> line,
+      {String? id, Map<String, dynamic>? properties}) {
+    _addLine(line);
+    _addFeature(_lineString, id, properties);
+  }
+
+  /// Adds a feature with a multi line string geometry.
+  void addMultiLineString(List<List<LatLng>> lines,
+      {String? id, Map<String, dynamic>? properties}) {
+    _addLines(lines);
+    _addFeature(_multiLineString, id, properties);
+  }
+
+  /// Adds a feature with a polygon geometry. The first ring is the outer
+  /// ring, all following rings are holes.
+  void addPolygon(List<List<LatLng>> rings,
+      {String? id, Map<String, dynamic>? properties}) {
+    _addLines(rings);
+    _addFeature(_polygon, id, properties);
+  }
+
+  /// Adds a feature with a multi polygon geometry.
+  void addMultiPolygon(List<List<List<LatLng>>> polygons,
+      {String? id, Map<String, dynamic>? properties}) {
+    _parts.add(polygons.length);
+    for (final rings in polygons) {
+      _addLines(rings);
+    }
+    _addFeature(_multiPolygon, id, properties);
+  }
+
+  void _addCoordinate(LatLng latLng) {
+    _coordinates.add(latLng.longitude);
+    _coordinates.add(latLng.latitude);
+  }
+
+  void _addLine(List<LatLng> line) {
+    _parts.add(line.length);
+    line.forEach(_addCoordinate);
+  }
+
+  void _addLines(List<List<LatLng>> lines) {
+    _parts.add(lines.length);
+    lines.forEach(_addLine);
+  }
+
+  void _addFeature(
+      int geometryType, String? id, Map<String, dynamic>? properties) {
+    for (final entry in _properties.entries) {
+      entry.value.add(properties?[entry.key]);
+    }
+    properties?.forEach((key, value) {
+      if (!_properties.containsKey(key)) {
+        _properties[key] = List<dynamic>.filled(length, null, growable: true)
+          ..add(value);
+      }
+    });
+    _geometryTypes.add(geometryType);
+    _ids.add(id);
+  }
+
+  /// The packed layout as sent over the method channel.
+  Map<String, dynamic> toMap() {
+    return <String, dynamic>{
+      'geometryTypes': Uint8List.fromList(_geometryTypes),
+      'parts': Int32List.fromList(_parts),
+      'coordinates': Float64List.fromList(_coordinates),
+      'ids': _ids.any((id) => id != null) ? _ids : null,
+      'propertyKeys': _properties.keys.toList(),
+      'propertyValues': _properties.values.toList(),
+    };
+  }
+
+  /// Converts the collection to a geojson FeatureCollection, e.g. for
+  /// platforms without support for the packed layout.
+  Map<String, dynamic> toGeoJson() {
+    var partIndex = 0;
+    var coordinateIndex = 0;
+
+    List<double> readCoordinate() {
+      final coordinate = [
+        _coordinates[coordinateIndex],
+        _coordinates[coordinateIndex + 1]
+      ];
+      coordinateIndex += 2;
+      return coordinate;
+    }
+
+    List<List<double>> readLine() =>
+        List.generate(_parts[partIndex++], (_) => readCoordinate());
+
+    List<List<List<double>>> readLines() =>
+        List.generate(_parts[partIndex++], (_) => readLine());
+
+    final features = <Map<String, dynamic>>[];
+    for (var i = 0; i < length; i++) {
+      late final String type;
+      late final dynamic coordinates;
+      switch (_geometryTypes[i]) {
+        case _point:
+          type = 'Point';
+          coordinates = readCoordinate();
+          break;
+        case _lineString:
+          type = 'LineString';
+          coordinates = readLine();
+          break;
+        case _polygon:
+          type = 'Polygon';
+          coordinates = readLines();
+          break;
+        case _multiPoint:
+          type = 'MultiPoint';
+          coordinates = readLine();
+          break;
+        case _multiLineString:
+          type = 'MultiLineString';
+          coordinates = readLines();
+          break;
+        case _multiPolygon:
+          type = 'MultiPolygon';
+          coordinates =
+              List.generate(_parts[partIndex++], (_) => readLines());
+          break;
+      }
+      final properties = <String, dynamic>{
+        for (final entry in _properties.entries)
+          if (entry.value[i] != null) entry.key: entry.value[i]
+      };
+      features.add({
+        'type': 'Feature',
+        if (_ids[i] != null) 'id': _ids[i],
+        'properties': properties,
+        'geometry': {'type': type, 'coordinates': coordinates},
+      });
+    }
+    return {'type': 'FeatureCollection', 'features': features};
+  }
+}
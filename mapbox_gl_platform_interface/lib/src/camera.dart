@@ -192,3 +192,50 @@ class CameraUpdate {
 
   dynamic toJson() => _json;
 }
+
+/// Limits how often camera moves are reported while the camera is moving.
+///
+/// Skipped moves are not lost: the final position is always reported by the
+/// following camera idle event.
+class CameraMoveEventOptions {
+  const CameraMoveEventOptions({
+    this.maxRate,
+    this.minZoomDelta = 0.0,
+    this.minBearingDelta = 0.0,
+    this.minTiltDelta = 0.0,
+    this.minTargetDelta = 0.0,
+    this.compact = false,
+  });
+
+  /// The maximum number of move events per second, or null for no limit.
+  final double? maxRate;
+
+  /// The minimum zoom change since the last reported move.
+  final double minZoomDelta;
+
+  /// The minimum bearing change in degrees since the last reported move.
+  final double minBearingDelta;
+
+  /// The minimum tilt change in degrees since the last reported move.
+  final double minTiltDelta;
+
+  /// The minimum change of latitude or longitude in degrees since the last
+  /// reported move.
+  final double minTargetDelta;
+
+  /// Whether moves are sent as a packed list of doubles instead of a map,
+  /// which is cheaper to encode and decode.
+  final bool compact;
+
+  /// Reports every move as a map, which is the default.
+  static const CameraMoveEventOptions unlimited = CameraMoveEventOptions();
+
+  dynamic toJson() => <String, dynamic>{
+        'maxRate': maxRate,
+        'minZoomDelta': minZoomDelta,
+        'minBearingDelta': minBearingDelta,
+        'minTiltDelta': minTiltDelta,
+        'minTargetDelta': minTargetDelta,
+        'compact': compact,
+      };
+}
@@ -78,6 +78,8 @@ abstract class MapboxGlPlatform {
 
   Future<void> addImage(String name, Uint8List bytes, [bool sdf = false]);
 
+  Future<void> addImages(SpriteSheet spriteSheet);
+
   Future<void> addImageSource(
       String imageSourceId, Uint8List bytes, LatLngQuad coordinates);
 
@@ -105,13 +107,49 @@ abstract class MapboxGlPlatform {
   Future<double> getMetersPerPixelAtLatitude(double latitude);
 
   Future<void> addGeoJsonSource(String sourceId, Map<String, dynamic> geojson,
-      {String? promoteId});
+      {String? promoteId, bool? mutable});
 
   Future<void> setGeoJsonSource(String sourceId, Map<String, dynamic> geojson);
 
+  Future<void> addBinaryGeoJsonSource(
+      String sourceId, BinaryFeatureCollection features, {bool? mutable});
+
+  Future<void> setBinaryGeoJsonSource(
+      String sourceId, BinaryFeatureCollection features);
+
   Future<void> setFeatureForGeoJsonSource(
       String sourceId, Map<String, dynamic> geojsonFeature);
 
+  Future<void> setFeaturesForGeoJsonSource(
+      String sourceId, List<Map<String, dynamic>> geojsonFeatures);
+
+  Future<void> removeFeaturesFromGeoJsonSource(
+      String sourceId, List<String> featureIds);
+
+  Future<void> setGeoJsonUpdateInterval(Duration interval);
+
+  Future<Map<String, dynamic>> getGeoJsonUpdateStats();
+
+  Future<void> setMutableGeoJsonSourcesOnly(bool enabled);
+
+  Future<Map<String, dynamic>> getGeoJsonFeatureStoreStats();
+
+  Future<void> setGeoJsonSourceHitTestIndex(String sourceId, bool enabled);
+
+  Future<bool> setFeatureDragOptions(
+      {required bool nativeMove, double? maxEventRate});
+
+  Future<void> setExpressionCacheSize(int size);
+
+  Future<Map<String, dynamic>> getExpressionCacheStats();
+
+  Future<void> setImageCacheOptions(
+      {int? maxBytes, bool? reuseBitmaps, int? maxDimension});
+
+  Future<Map<String, dynamic>> getImageCacheStats();
+
+  Future<void> setCameraMoveEventOptions(CameraMoveEventOptions options);
+
   Future<void> removeSource(String sourceId);
 
   Future<void> addSymbolLayer(
@@ -182,8 +220,118 @@ abstract class MapboxGlPlatform {
 
   Future<void> addSource(String sourceId, SourceProperties properties);
 
+  /// Applies the operations of [batch] in order and returns the failed ones.
+  ///
+  /// The default implementation calls the single methods one after another,
+  /// platforms can override it to apply the whole batch in one call.
+  Future<List<StyleOperationFailure>> applyStyleBatch(StyleBatch batch) async {
+    final failures = <StyleOperationFailure>[];
+    for (var i = 0; i < batch.operations.length; i++) {
+      final operation = batch.operations[i];
+      try {
+        await _applyStyleOperation(operation);
+      } catch (e) {
+        failures.add(StyleOperationFailure(i, operation.method, e.toString()));
+      }
+    }
+    return failures;
+  }
+
+  Future<void> _applyStyleOperation(StyleOperation operation) {
+    final arguments = operation.arguments;
+    final String? sourceId = arguments['sourceId'];
+    final String? layerId = arguments['layerId'];
+    final Map<String, dynamic>? properties =
+        arguments['properties'] is Map<String, dynamic>
+            ? arguments['properties']
+            : null;
+    switch (operation.method) {
+      case 'style#addSource':
+        return addSource(sourceId!, arguments['properties']);
+      case 'style#removeSource':
+        return removeSource(sourceId!);
+      case 'style#removeLayer':
+        return removeLayer(layerId!);
+      case 'style#setFilter':
+        return setFilter(layerId!, arguments['filter']);
+      case 'style#setVisibility':
+        return setVisibility(layerId!, arguments['isVisible']);
+      case 'symbolLayer#add':
+        return addSymbolLayer(sourceId!, layerId!, properties!,
+            belowLayerId: arguments['belowLayerId'],
+            sourceLayer: arguments['sourceLayer'],
+            minzoom: arguments['minzoom'],
+            maxzoom: arguments['maxzoom'],
+            filter: arguments['filter'],
+            enableInteraction: arguments['enableInteraction']);
+      case 'lineLayer#add':
+        return addLineLayer(sourceId!, layerId!, properties!,
+            belowLayerId: arguments['belowLayerId'],
+            sourceLayer: arguments['sourceLayer'],
+            minzoom: arguments['minzoom'],
+            maxzoom: arguments['maxzoom'],
+            filter: arguments['filter'],
+            enableInteraction: arguments['enableInteraction']);
+      case 'circleLayer#add':
+        return addCircleLayer(sourceId!, layerId!, properties!,
+            belowLayerId: arguments['belowLayerId'],
+            sourceLayer: arguments['sourceLayer'],
+            minzoom: arguments['minzoom'],
+            maxzoom: arguments['maxzoom'],
+            filter: arguments['filter'],
+            enableInteraction: arguments['enableInteraction']);
+      case 'fillLayer#add':
+        return addFillLayer(sourceId!, layerId!, properties!,
+            belowLayerId: arguments['belowLayerId'],
+            sourceLayer: arguments['sourceLayer'],
+            minzoom: arguments['minzoom'],
+            maxzoom: arguments['maxzoom'],
+            filter: arguments['filter'],
+            enableInteraction: arguments['enableInteraction']);
+      case 'fillExtrusionLayer#add':
+        return addFillExtrusionLayer(sourceId!, layerId!, properties!,
+            belowLayerId: arguments['belowLayerId'],
+            sourceLayer: arguments['sourceLayer'],
+            minzoom: arguments['minzoom'],
+            maxzoom: arguments['maxzoom'],
+            filter: arguments['filter'],
+            enableInteraction: arguments['enableInteraction']);
+      case 'rasterLayer#add':
+        return addRasterLayer(sourceId!, layerId!, properties!,
+            belowLayerId: arguments['belowLayerId'],
+            sourceLayer: arguments['sourceLayer'],
+            minzoom: arguments['minzoom'],
+            maxzoom: arguments['maxzoom']);
+      case 'hillshadeLayer#add':
+        return addHillshadeLayer(sourceId!, layerId!, properties!,
+            belowLayerId: arguments['belowLayerId'],
+            sourceLayer: arguments['sourceLayer'],
+            minzoom: arguments['minzoom'],
+            maxzoom: arguments['maxzoom']);
+      case 'heatmapLayer#add':
+        return addHeatmapLayer(sourceId!, layerId!, properties!,
+            belowLayerId: arguments['belowLayerId'],
+            sourceLayer: arguments['sourceLayer'],
+            minzoom: arguments['minzoom'],
+            maxzoom: arguments['maxzoom']);
+      default:
+        throw UnsupportedError('Unknown style operation ${operation.method}');
+    }
+  }
+
   Future<String> takeSnapshot(SnapshotOptions snapshotOptions);
 
+  Future<Uint8List> takeSnapshotBytes(SnapshotOptions snapshotOptions);
+
+  Stream<SnapshotBatchResult> takeSnapshotBatch(List<SnapshotOptions> snapshots,
+      {int maxConcurrent = 2, bool asBytes = false});
+
+  Future<void> setSnapshotCacheOptions({bool? enabled, int? maxBytes});
+
+  Future<Map<String, dynamic>> getSnapshotCacheStats();
+
+  Future<void> clearSnapshotCache();
+
   @mustCallSuper
   void dispose() {
     // clear all callbacks to avoid cyclic refs
@@ -53,8 +53,16 @@ class MethodChannelMapboxGl extends MapboxGlPlatform {
         onCameraMoveStartedPlatform(null);
         break;
       case 'camera#onMove':
-        final cameraPosition =
-            CameraPosition.fromMap(call.arguments['position'])!;
+        final arguments = call.arguments;
+        final cameraPosition = arguments is List
+            // compact layout: [latitude, longitude, zoom, bearing, tilt]
+            ? CameraPosition(
+                target: LatLng(arguments[0], arguments[1]),
+                zoom: arguments[2],
+                bearing: arguments[3],
+                tilt: arguments[4],
+              )
+            : CameraPosition.fromMap(arguments['position'])!;
         onCameraMovePlatform(cameraPosition);
         break;
       case 'camera#onIdle':
@@ -378,6 +386,47 @@ class MethodChannelMapboxGl extends MapboxGlPlatform {
     }
   }
 
+  @override
+  Future<void> addImages(SpriteSheet spriteSheet) async {
+    try {
+      return await _channel.invokeMethod(
+          'style#addImages', spriteSheet.toMap());
+    } on MissingPluginException {
+      // not implemented on this platform, add the images one by one
+      await _addSpriteImages(spriteSheet);
+    } on PlatformException catch (e) {
+      return new Future.error(e);
+    }
+  }
+
+  /// Cuts the images out of the sheet and adds each of them with [addImage],
+  /// which uses the pixel ratio of the screen instead of the image's.
+  Future<void> _addSpriteImages(SpriteSheet spriteSheet) async {
+    final codec = await ui.instantiateImageCodec(spriteSheet.image);
+    final sheet = (await codec.getNextFrame()).image;
+    try {
+      for (final image in spriteSheet.images) {
+        final width = image.width.toDouble();
+        final height = image.height.toDouble();
+        final recorder = ui.PictureRecorder();
+        ui.Canvas(recorder).drawImageRect(
+            sheet,
+            ui.Rect.fromLTWH(
+                image.x.toDouble(), image.y.toDouble(), width, height),
+            ui.Rect.fromLTWH(0, 0, width, height),
+            ui.Paint());
+        final picture = recorder.endRecording();
+        final cut = await picture.toImage(image.width, image.height);
+        final png = await cut.toByteData(format: ui.ImageByteFormat.png);
+        picture.dispose();
+        cut.dispose();
+        await addImage(image.name, png!.buffer.asUint8List(), image.sdf);
+      }
+    } finally {
+      sheet.dispose();
+    }
+  }
+
   @override
   Future<void> addImageSource(
       String imageSourceId, Uint8List bytes, LatLngQuad coordinates) async {
@@ -548,10 +597,11 @@ class MethodChannelMapboxGl extends MapboxGlPlatform {
 
   @override
   Future<void> addGeoJsonSource(String sourceId, Map<String, dynamic> geojson,
-      {String? promoteId}) async {
+      {String? promoteId, bool? mutable}) async {
     await _channel.invokeMethod('source#addGeoJson', <String, dynamic>{
       'sourceId': sourceId,
       'geojson': jsonEncode(geojson),
+      'mutable': mutable,
     });
   }
 
@@ -564,6 +614,36 @@ class MethodChannelMapboxGl extends MapboxGlPlatform {
     });
   }
 
+  @override
+  Future<void> addBinaryGeoJsonSource(
+      String sourceId, BinaryFeatureCollection features,
+      {bool? mutable}) async {
+    try {
+      await _channel.invokeMethod('source#addBinary', <String, dynamic>{
+        'sourceId': sourceId,
+        'mutable': mutable,
+        ...features.toMap(),
+      });
+    } on MissingPluginException {
+      // not implemented on this platform, add the features as geojson
+      await addGeoJsonSource(sourceId, features.toGeoJson(), mutable: mutable);
+    }
+  }
+
+  @override
+  Future<void> setBinaryGeoJsonSource(
+      String sourceId, BinaryFeatureCollection features) async {
+    try {
+      await _channel.invokeMethod('source#setBinary', <String, dynamic>{
+        'sourceId': sourceId,
+        ...features.toMap(),
+      });
+    } on MissingPluginException {
+      // not implemented on this platform, set the features as geojson
+      await setGeoJsonSource(sourceId, features.toGeoJson());
+    }
+  }
+
   @override
   Future<void> addSymbolLayer(
       String sourceId, String layerId, Map<String, dynamic> properties,
@@ -693,6 +773,42 @@ class MethodChannelMapboxGl extends MapboxGlPlatform {
     });
   }
 
+  @override
+  Future<List<StyleOperationFailure>> applyStyleBatch(StyleBatch batch) async {
+    final List<dynamic>? reply;
+    try {
+      reply = await _channel.invokeMethod('style#applyBatch', <String, dynamic>{
+        'operations': batch.operations.map(_encodeStyleOperation).toList(),
+      });
+    } on MissingPluginException {
+      // not implemented on this platform, apply the operations one by one
+      return super.applyStyleBatch(batch);
+    }
+    return [
+      for (final failure in reply ?? [])
+        StyleOperationFailure(
+            failure['index'], failure['method'], failure['message'])
+    ];
+  }
+
+  Map<String, dynamic> _encodeStyleOperation(StyleOperation operation) {
+    final arguments = Map<String, dynamic>.of(operation.arguments);
+    final properties = arguments['properties'];
+    if (properties is SourceProperties) {
+      arguments['properties'] = properties.toJson();
+    } else if (properties is Map<String, dynamic>) {
+      arguments['properties'] = properties.map(
+          (key, value) => MapEntry<String, String>(key, jsonEncode(value)));
+    }
+    if (arguments.containsKey('filter')) {
+      arguments['filter'] = jsonEncode(arguments['filter']);
+    }
+    return <String, dynamic>{
+      'method': operation.method,
+      'arguments': arguments,
+    };
+  }
+
   @override
   Future<void> addRasterLayer(
       String sourceId, String layerId, Map<String, dynamic> properties,
@@ -755,6 +871,162 @@ class MethodChannelMapboxGl extends MapboxGlPlatform {
     });
   }
 
+  @override
+  Future<void> setFeaturesForGeoJsonSource(
+      String sourceId, List<Map<String, dynamic>> geojsonFeatures) async {
+    try {
+      await _channel.invokeMethod('source#setFeatures', <String, dynamic>{
+        'sourceId': sourceId,
+        'geojsonFeatures': geojsonFeatures.map((f) => jsonEncode(f)).toList()
+      });
+    } on MissingPluginException {
+      // not implemented on this platform, set the features one by one
+      for (final geojsonFeature in geojsonFeatures) {
+        await setFeatureForGeoJsonSource(sourceId, geojsonFeature);
+      }
+    }
+  }
+
+  @override
+  Future<void> removeFeaturesFromGeoJsonSource(
+      String sourceId, List<String> featureIds) async {
+    await _channel.invokeMethod('source#removeFeatures', <String, dynamic>{
+      'sourceId': sourceId,
+      'featureIds': featureIds
+    });
+  }
+
+  @override
+  Future<void> setGeoJsonUpdateInterval(Duration interval) async {
+    try {
+      await _channel.invokeMethod('source#setUpdateInterval', <String, dynamic>{
+        'interval': interval.inMilliseconds,
+      });
+    } on MissingPluginException {
+      // not implemented on this platform, nothing to tune
+    }
+  }
+
+  @override
+  Future<Map<String, dynamic>> getGeoJsonUpdateStats() async {
+    try {
+      final Map<dynamic, dynamic> reply =
+          await _channel.invokeMethod('source#getUpdateStats');
+      return reply.cast<String, dynamic>();
+    } on MissingPluginException {
+      // not implemented on this platform
+      return <String, dynamic>{};
+    }
+  }
+
+  @override
+  Future<void> setMutableGeoJsonSourcesOnly(bool enabled) async {
+    try {
+      await _channel.invokeMethod('source#setMutableOnly', <String, dynamic>{
+        'enabled': enabled,
+      });
+    } on MissingPluginException {
+      // not implemented on this platform, nothing to tune
+    }
+  }
+
+  @override
+  Future<Map<String, dynamic>> getGeoJsonFeatureStoreStats() async {
+    try {
+      final Map<dynamic, dynamic> reply =
+          await _channel.invokeMethod('source#getStoreStats');
+      return reply.cast<String, dynamic>();
+    } on MissingPluginException {
+      // not implemented on this platform
+      return <String, dynamic>{};
+    }
+  }
+
+  @override
+  Future<bool> setFeatureDragOptions(
+      {required bool nativeMove, double? maxEventRate}) async {
+    final bool? enabled = await _channel
+        .invokeMethod('feature#setDragOptions', <String, dynamic>{
+      'nativeMove': nativeMove,
+      'maxEventRate': maxEventRate,
+    });
+    return enabled ?? false;
+  }
+
+  @override
+  Future<void> setGeoJsonSourceHitTestIndex(
+      String sourceId, bool enabled) async {
+    try {
+      await _channel.invokeMethod('source#setHitTestIndex', <String, dynamic>{
+        'sourceId': sourceId,
+        'enabled': enabled,
+      });
+    } on MissingPluginException {
+      // not implemented on this platform, nothing to tune
+    }
+  }
+
+  @override
+  Future<void> setExpressionCacheSize(int size) async {
+    try {
+      await _channel
+          .invokeMethod('style#setExpressionCacheSize', <String, dynamic>{
+        'size': size,
+      });
+    } on MissingPluginException {
+      // not implemented on this platform, nothing to tune
+    }
+  }
+
+  @override
+  Future<Map<String, dynamic>> getExpressionCacheStats() async {
+    try {
+      final Map<dynamic, dynamic> reply =
+          await _channel.invokeMethod('style#getExpressionCacheStats');
+      return reply.cast<String, dynamic>();
+    } on MissingPluginException {
+      // not implemented on this platform
+      return <String, dynamic>{};
+    }
+  }
+
+  @override
+  Future<void> setImageCacheOptions(
+      {int? maxBytes, bool? reuseBitmaps, int? maxDimension}) async {
+    try {
+      await _channel
+          .invokeMethod('style#setImageCacheOptions', <String, dynamic>{
+        if (maxBytes != null) 'maxBytes': maxBytes,
+        if (reuseBitmaps != null) 'reuseBitmaps': reuseBitmaps,
+        if (maxDimension != null) 'maxDimension': maxDimension,
+      });
+    } on MissingPluginException {
+      // not implemented on this platform, nothing to tune
+    }
+  }
+
+  @override
+  Future<Map<String, dynamic>> getImageCacheStats() async {
+    try {
+      final Map<dynamic, dynamic> reply =
+          await _channel.invokeMethod('style#getImageCacheStats');
+      return reply.cast<String, dynamic>();
+    } on MissingPluginException {
+      // not implemented on this platform
+      return <String, dynamic>{};
+    }
+  }
+
+  @override
+  Future<void> setCameraMoveEventOptions(CameraMoveEventOptions options) async {
+    try {
+      await _channel.invokeMethod(
+          'camera#setMoveEventOptions', options.toJson());
+    } on MissingPluginException {
+      // not implemented on this platform, nothing to tune
+    }
+  }
+
   @override
   void forceResizeWebMap() {}
 
@@ -772,4 +1044,99 @@ class MethodChannelMapboxGl extends MapboxGlPlatform {
       return new Future.error(e);
     }
   }
+
+  @override
+  Future<Uint8List> takeSnapshotBytes(SnapshotOptions snapshotOptions) async {
+    final arguments = snapshotOptions.toJson();
+    arguments['writeToDisk'] = false;
+    arguments['output'] = 'bytes';
+    try {
+      final snapshot =
+          await _channel.invokeMethod('snapshot#takeSnapshot', arguments);
+      if (snapshot is String) {
+        // platforms without a bytes mode return a base64 data uri
+        return base64Decode(snapshot.substring(snapshot.indexOf(',') + 1));
+      }
+      return snapshot;
+    } on PlatformException catch (e) {
+      return new Future.error(e);
+    }
+  }
+
+  @override
+  Future<void> setSnapshotCacheOptions({bool? enabled, int? maxBytes}) async {
+    try {
+      await _channel.invokeMethod('snapshot#setCacheOptions', <String, dynamic>{
+        if (enabled != null) 'enabled': enabled,
+        if (maxBytes != null) 'maxBytes': maxBytes,
+      });
+    } on MissingPluginException {
+      // not implemented on this platform, nothing to tune
+    }
+  }
+
+  @override
+  Future<Map<String, dynamic>> getSnapshotCacheStats() async {
+    try {
+      final Map<dynamic, dynamic> reply =
+          await _channel.invokeMethod('snapshot#getCacheStats');
+      return reply.cast<String, dynamic>();
+    } on MissingPluginException {
+      // not implemented on this platform
+      return <String, dynamic>{};
+    }
+  }
+
+  @override
+  Future<void> clearSnapshotCache() async {
+    try {
+      await _channel.invokeMethod('snapshot#clearCache');
+    } on MissingPluginException {
+      // not implemented on this platform, there is no cache to clear
+    }
+  }
+
+  @override
+  Stream<SnapshotBatchResult> takeSnapshotBatch(List<SnapshotOptions> snapshots,
+      {int maxConcurrent = 2, bool asBytes = false}) async* {
+    final channelName =
+        'snapshotBatch_${DateTime.now().microsecondsSinceEpoch}';
+    try {
+      await _channel.invokeMethod('snapshot#takeSnapshots', <String, dynamic>{
+        'channelName': channelName,
+        'maxConcurrent': maxConcurrent,
+        'snapshots': snapshots.map((options) {
+          final json = options.toJson();
+          if (asBytes) {
+            json['output'] = 'bytes';
+          }
+          return json;
+        }).toList(),
+      });
+    } on MissingPluginException {
+      // not implemented on this platform, take the snapshots one by one
+      for (var i = 0; i < snapshots.length; i++) {
+        try {
+          if (asBytes) {
+            yield SnapshotBatchResult(i,
+                bytes: await takeSnapshotBytes(snapshots[i]));
+          } else {
+            yield SnapshotBatchResult(i,
+                snapshot: await takeSnapshot(snapshots[i]));
+          }
+        } on PlatformException catch (e) {
+          yield SnapshotBatchResult(i, error: e.message ?? e.code);
+        }
+      }
+      return;
+    }
+    // cancelling the subscription cancels the snapshots not taken yet
+    yield* EventChannel(channelName).receiveBroadcastStream().map((event) {
+      final snapshot = event['snapshot'];
+      return SnapshotBatchResult(event['index'],
+          snapshot: snapshot is String ? snapshot : null,
+          bytes: snapshot is Uint8List ? snapshot : null,
+          error: event['error']);
+    });
+  }
 }
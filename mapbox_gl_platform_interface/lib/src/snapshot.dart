@@ -1,5 +1,8 @@
 part of mapbox_gl_platform_interface;
 
+/// The image format a snapshot is encoded with
+enum SnapshotFormat { jpeg, png, webp }
+
 /// Set of options for taking map snapshot
 class SnapshotOptions {
   /// Dimensions of the snapshot
@@ -46,6 +49,16 @@ class SnapshotOptions {
   /// False: Return base64 value
   final bool writeToDisk;
 
+  /// Android Only: The image format of the snapshot, JPEG by default
+  final SnapshotFormat format;
+
+  /// Android Only: The compression quality from 0 to 100, ignored for PNG
+  final int quality;
+
+  /// Android Only: The file the snapshot is written to if [writeToDisk] is
+  /// true, instead of a new file in the cache directory
+  final String? filePath;
+
   ///The [width] and [height] arguments must not be null
   SnapshotOptions(
       {required this.width,
@@ -58,9 +71,14 @@ class SnapshotOptions {
       this.styleUri,
       this.styleJson,
       bool? withLogo,
-      bool? writeToDisk})
+      bool? writeToDisk,
+      SnapshotFormat? format,
+      int? quality,
+      this.filePath})
       : this.withLogo = withLogo ?? false,
         this.writeToDisk = writeToDisk ?? true,
+        this.format = format ?? SnapshotFormat.jpeg,
+        this.quality = quality ?? 100,
         this.pitch = pitch ?? 0,
         this.heading = heading ?? 0;
 
@@ -150,6 +168,30 @@ class SnapshotOptions {
     addIfPresent('styleJson', styleJson);
     addIfPresent('withLogo', withLogo);
     addIfPresent('writeToDisk', writeToDisk);
+    addIfPresent('format', describeEnum(format));
+    addIfPresent('quality', quality);
+    addIfPresent('filePath', filePath);
     return json;
   }
 }
+
+/// The outcome of one snapshot of a batch
+class SnapshotBatchResult {
+  /// The position of the snapshot in the list of [SnapshotOptions]
+  final int index;
+
+  /// The uri or base64 value of the snapshot, null if it failed or was taken
+  /// as bytes
+  final String? snapshot;
+
+  /// The encoded image, null if it failed or was not taken as bytes
+  final Uint8List? bytes;
+
+  /// Why the snapshot could not be taken, null if it succeeded
+  final String? error;
+
+  const SnapshotBatchResult(this.index,
+      {this.snapshot, this.bytes, this.error});
+
+  bool get isSuccess => error == null;
+}
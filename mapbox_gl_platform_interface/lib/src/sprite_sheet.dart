@@ -0,0 +1,86 @@
+part of mapbox_gl_platform_interface;
+
+/// The location of a single image within a [SpriteSheet].
+class SpriteImage {
+  /// The name the image is added to the style with.
+  final String name;
+
+  /// The left edge of the image in the sheet, in pixels.
+  final int x;
+
+  /// The top edge of the image in the sheet, in pixels.
+  final int y;
+
+  final int width;
+
+  final int height;
+
+  /// The number of image pixels per screen pixel, e.g. 2.0 for @2x images.
+  final double pixelRatio;
+
+  /// Whether the image is a signed distance field that can be recolored
+  /// with `iconColor`.
+  final bool sdf;
+
+  const SpriteImage(
+    this.name, {
+    required this.x,
+    required this.y,
+    required this.width,
+    required this.height,
+    this.pixelRatio = 1.0,
+    this.sdf = false,
+  });
+}
+
+/// Many images packed into a single image, added to the style at once.
+///
+/// Decoding one sheet instead of many small images and adding all of them
+/// with a single call is much faster for larger icon sets.
+class SpriteSheet {
+  /// The encoded sheet, e.g. the bytes of a PNG file.
+  final Uint8List image;
+
+  final List<SpriteImage> images;
+
+  const SpriteSheet(this.image, this.images);
+
+  /// Creates a sheet from an index in the format of the Mapbox sprite JSON
+  /// files, e.g. `{"airport": {"x": 0, "y": 0, "width": 32, "height": 32,
+  /// "pixelRatio": 2}}`.
+  factory SpriteSheet.fromJson(Uint8List image, String index) {
+    final Map<String, dynamic> entries = jsonDecode(index);
+    return SpriteSheet(image, [
+      for (final entry in entries.entries)
+        SpriteImage(
+          entry.key,
+          x: entry.value['x'],
+          y: entry.value['y'],
+          width: entry.value['width'],
+          height: entry.value['height'],
+          pixelRatio: (entry.value['pixelRatio'] ?? 1).toDouble(),
+          sdf: entry.value['sdf'] ?? false,
+        )
+    ]);
+  }
+
+  /// The packed layout as sent over the method channel.
+  Map<String, dynamic> toMap() {
+    final rects = Int32List(images.length * 4);
+    final pixelRatios = Float64List(images.length);
+    for (var i = 0; i < images.length; i++) {
+      rects[i * 4] = images[i].x;
+      rects[i * 4 + 1] = images[i].y;
+      rects[i * 4 + 2] = images[i].width;
+      rects[i * 4 + 3] = images[i].height;
+      pixelRatios[i] = images[i].pixelRatio;
+    }
+    return <String, dynamic>{
+      'sheet': image,
+      'names': [for (final image in images) image.name],
+      'rects': rects,
+      'pixelRatios': pixelRatios,
+      'sdf': [for (final image in images) image.sdf],
+    };
+  }
+}
@@ -0,0 +1,188 @@
+part of mapbox_gl_platform_interface;
+
+/// A single source or layer change of a [StyleBatch].
+class StyleOperation {
+  /// The platform method that performs the change, e.g. `symbolLayer#add`.
+  final String method;
+
+  /// The arguments of [method]. Layer properties and filters are kept as
+  /// they were passed to the batch and only encoded when the batch is sent.
+  final Map<String, dynamic> arguments;
+
+  const StyleOperation(this.method, this.arguments);
+}
+
+/// Describes an operation of a [StyleBatch] that could not be applied.
+class StyleOperationFailure {
+  /// The position of the failed operation in [StyleBatch.operations].
+  final int index;
+
+  /// The platform method of the failed operation, e.g. `style#setFilter`.
+  final String method;
+
+  final String message;
+
+  const StyleOperationFailure(this.index, this.method, this.message);
+
+  @override
+  String toString() => 'StyleOperationFailure($index, $method, $message)';
+}
+
+/// An ordered list of source and layer changes that is applied to the style
+/// of a map at once.
+///
+/// The operations are applied in the order they were added. An operation that
+/// fails does not stop the batch, it is reported as a [StyleOperationFailure]
+/// instead.
+class StyleBatch {
+  final List<StyleOperation> operations = [];
+
+  bool get isEmpty => operations.isEmpty;
+
+  void addSource(String sourceId, SourceProperties properties) {
+    operations.add(StyleOperation('style#addSource', <String, dynamic>{
+      'sourceId': sourceId,
+      'properties': properties,
+    }));
+  }
+
+  void removeSource(String sourceId) {
+    operations.add(StyleOperation('style#removeSource', <String, dynamic>{
+      'sourceId': sourceId,
+    }));
+  }
+
+  void addSymbolLayer(
+      String sourceId, String layerId, Map<String, dynamic> properties,
+      {String? belowLayerId,
+      String? sourceLayer,
+      double? minzoom,
+      double? maxzoom,
+      dynamic filter,
+      bool enableInteraction = true}) {
+    _addLayer('symbolLayer#add', sourceId, layerId, properties, belowLayerId,
+        sourceLayer, minzoom, maxzoom, filter, enableInteraction);
+  }
+
+  void addLineLayer(
+      String sourceId, String layerId, Map<String, dynamic> properties,
+      {String? belowLayerId,
+      String? sourceLayer,
+      double? minzoom,
+      double? maxzoom,
+      dynamic filter,
+      bool enableInteraction = true}) {
+    _addLayer('lineLayer#add', sourceId, layerId, properties, belowLayerId,
+        sourceLayer, minzoom, maxzoom, filter, enableInteraction);
+  }
+
+  void addCircleLayer(
+      String sourceId, String layerId, Map<String, dynamic> properties,
+      {String? belowLayerId,
+      String? sourceLayer,
+      double? minzoom,
+      double? maxzoom,
+      dynamic filter,
+      bool enableInteraction = true}) {
+    _addLayer('circleLayer#add', sourceId, layerId, properties, belowLayerId,
+        sourceLayer, minzoom, maxzoom, filter, enableInteraction);
+  }
+
+  void addFillLayer(
+      String sourceId, String layerId, Map<String, dynamic> properties,
+      {String? belowLayerId,
+      String? sourceLayer,
+      double? minzoom,
+      double? maxzoom,
+      dynamic filter,
+      bool enableInteraction = true}) {
+    _addLayer('fillLayer#add', sourceId, layerId, properties, belowLayerId,
+        sourceLayer, minzoom, maxzoom, filter, enableInteraction);
+  }
+
+  void addFillExtrusionLayer(
+      String sourceId, String layerId, Map<String, dynamic> properties,
+      {String? belowLayerId,
+      String? sourceLayer,
+      double? minzoom,
+      double? maxzoom,
+      dynamic filter,
+      bool enableInteraction = true}) {
+    _addLayer('fillExtrusionLayer#add', sourceId, layerId, properties,
+        belowLayerId, sourceLayer, minzoom, maxzoom, filter, enableInteraction);
+  }
+
+  void addRasterLayer(
+      String sourceId, String layerId, Map<String, dynamic> properties,
+      {String? belowLayerId,
+      String? sourceLayer,
+      double? minzoom,
+      double? maxzoom}) {
+    _addLayer('rasterLayer#add', sourceId, layerId, properties, belowLayerId,
+        sourceLayer, minzoom, maxzoom, null, false);
+  }
+
+  void addHillshadeLayer(
+      String sourceId, String layerId, Map<String, dynamic> properties,
+      {String? belowLayerId,
+      String? sourceLayer,
+      double? minzoom,
+      double? maxzoom}) {
+    _addLayer('hillshadeLayer#add', sourceId, layerId, properties,
+        belowLayerId, sourceLayer, minzoom, maxzoom, null, false);
+  }
+
+  void addHeatmapLayer(
+      String sourceId, String layerId, Map<String, dynamic> properties,
+      {String? belowLayerId,
+      String? sourceLayer,
+      double? minzoom,
+      double? maxzoom}) {
+    _addLayer('heatmapLayer#add', sourceId, layerId, properties, belowLayerId,
+        sourceLayer, minzoom, maxzoom, null, false);
+  }
+
+  void removeLayer(String layerId) {
+    operations.add(StyleOperation('style#removeLayer', <String, dynamic>{
+      'layerId': layerId,
+    }));
+  }
+
+  void setFilter(String layerId, dynamic filter) {
+    operations.add(StyleOperation('style#setFilter', <String, dynamic>{
+      'layerId': layerId,
+      'filter': filter,
+    }));
+  }
+
+  void setVisibility(String layerId, bool isVisible) {
+    operations.add(StyleOperation('style#setVisibility', <String, dynamic>{
+      'layerId': layerId,
+      'isVisible': isVisible,
+    }));
+  }
+
+  void _addLayer(
+      String method,
+      String sourceId,
+      String layerId,
+      Map<String, dynamic> properties,
+      String? belowLayerId,
+      String? sourceLayer,
+      double? minzoom,
+      double? maxzoom,
+      dynamic filter,
+      bool enableInteraction) {
+    operations.add(StyleOperation(method, <String, dynamic>{
+      'sourceId': sourceId,
+      'layerId': layerId,
+      'belowLayerId': belowLayerId,
+      'sourceLayer': sourceLayer,
+      'minzoom': minzoom,
+      'maxzoom': maxzoom,
+      'filter': filter,
+      'enableInteraction': enableInteraction,
+      'properties': properties,
+    }));
+  }
+}
@@ -354,6 +354,28 @@ class MapboxWebGlPlatform extends MapboxGlPlatform
     }
   }
 
+  @override
+  Future<void> addImages(SpriteSheet spriteSheet) async {
+    final sheet = decodeImage(spriteSheet.image)!;
+    final pixels = sheet.getBytes();
+    for (final image in spriteSheet.images) {
+      if (_map.hasImage(image.name)) {
+        continue;
+      }
+      final data = Uint8List(image.width * image.height * 4);
+      for (var row = 0; row < image.height; row++) {
+        final start = ((image.y + row) * sheet.width + image.x) * 4;
+        data.setRange(row * image.width * 4, (row + 1) * image.width * 4,
+            pixels, start);
+      }
+      _map.addImage(
+        image.name,
+        {'width': image.width, 'height': image.height, 'data': data},
+        {'sdf': image.sdf, 'pixelRatio': image.pixelRatio},
+      );
+    }
+  }
+
   @override
   Future<void> removeSource(String sourceId) async {
     _map.removeSource(sourceId);
@@ -714,7 +736,7 @@ class MapboxWebGlPlatform extends MapboxGlPlatform
 
   @override
   Future<void> addGeoJsonSource(String sourceId, Map<String, dynamic> geojson,
-      {String? promoteId}) async {
+      {String? promoteId, bool? mutable}) async {
     final data = _makeFeatureCollection(geojson);
     _addedFeaturesByLayer[sourceId] = data;
     _map.addSource(sourceId, {
@@ -747,6 +769,19 @@ class MapboxWebGlPlatform extends MapboxGlPlatform
     source.setData(data);
   }
 
+  @override
+  Future<void> addBinaryGeoJsonSource(
+      String sourceId, BinaryFeatureCollection features,
+      {bool? mutable}) {
+    return addGeoJsonSource(sourceId, features.toGeoJson(), mutable: mutable);
+  }
+
+  @override
+  Future<void> setBinaryGeoJsonSource(
+      String sourceId, BinaryFeatureCollection features) {
+    return setGeoJsonSource(sourceId, features.toGeoJson());
+  }
+
   @override
   Future<void> addCircleLayer(
       String sourceId, String layerId, Map<String, dynamic> properties,
@@ -1042,6 +1077,106 @@ class MapboxWebGlPlatform extends MapboxGlPlatform
     }
   }
 
+  @override
+  Future<void> setFeaturesForGeoJsonSource(
+      String sourceId, List<Map<String, dynamic>> geojsonFeatures) async {
+    final source = _map.getSource(sourceId) as GeoJsonSource?;
+    final data = _addedFeaturesByLayer[sourceId];
+
+    if (source != null && data != null) {
+      final features = data.features.toList();
+      for (final geojsonFeature in geojsonFeatures) {
+        final feature = _makeFeature(geojsonFeature);
+        final index = features.indexWhere((f) => f.id == feature.id);
+        if (index >= 0) {
+          features[index] = feature;
+        } else {
+          features.add(feature);
+        }
+      }
+      final newData = FeatureCollection(features: features);
+      _addedFeaturesByLayer[sourceId] = newData;
+
+      source.setData(newData);
+    }
+  }
+
+  @override
+  Future<void> setGeoJsonUpdateInterval(Duration interval) async {
+    // geojson updates are applied immediately on web
+  }
+
+  @override
+  Future<Map<String, dynamic>> getGeoJsonUpdateStats() async {
+    return <String, dynamic>{};
+  }
+
+  @override
+  Future<void> setMutableGeoJsonSourcesOnly(bool enabled) async {
+    // the feature copies are needed to update the source data on web
+  }
+
+  @override
+  Future<Map<String, dynamic>> getGeoJsonFeatureStoreStats() async {
+    return <String, dynamic>{};
+  }
+
+  @override
+  Future<bool> setFeatureDragOptions(
+      {required bool nativeMove, double? maxEventRate}) async {
+    // features are always moved by the annotation managers
+    return false;
+  }
+
+  @override
+  Future<void> setGeoJsonSourceHitTestIndex(
+      String sourceId, bool enabled) async {
+    // mapbox-gl-js hit-tests features itself
+  }
+
+  @override
+  Future<void> setExpressionCacheSize(int size) async {
+    // expressions are passed to mapbox-gl-js without conversion
+  }
+
+  @override
+  Future<Map<String, dynamic>> getExpressionCacheStats() async {
+    return <String, dynamic>{};
+  }
+
+  @override
+  Future<void> setImageCacheOptions(
+      {int? maxBytes, bool? reuseBitmaps, int? maxDimension}) async {
+    // missing images are loaded by the browser, which caches them itself
+  }
+
+  @override
+  Future<Map<String, dynamic>> getImageCacheStats() async {
+    return <String, dynamic>{};
+  }
+
+  @override
+  Future<void> setCameraMoveEventOptions(CameraMoveEventOptions options) async {
+    // camera moves are reported by mapbox-gl-js once per animation frame
+  }
+
+  @override
+  Future<void> removeFeaturesFromGeoJsonSource(
+      String sourceId, List<String> featureIds) async {
+    final source = _map.getSource(sourceId) as GeoJsonSource?;
+    final data = _addedFeaturesByLayer[sourceId];
+
+    if (source != null && data != null) {
+      final ids = featureIds.toSet();
+      final features =
+          data.features.where((f) => !ids.contains(f.id?.toString())).toList();
+      final newData = FeatureCollection(features: features);
+      _addedFeaturesByLayer[sourceId] = newData;
+
+      source.setData(newData);
+    }
+  }
+
   @override
   Future<String> takeSnapshot(SnapshotOptions snapshotOptions) async {
     if (snapshotOptions.styleUri != null || snapshotOptions.styleJson != null) {
@@ -1056,10 +1191,48 @@ class MapboxWebGlPlatform extends MapboxGlPlatform
         snapshotOptions.heading != 0) {
       throw UnsupportedError("camera posision option is not supported");
     }
-    final base64String = await _map.getCanvas().toDataUrl('image/jpeg');
+    final base64String = await _map.getCanvas().toDataUrl(
+        'image/${describeEnum(snapshotOptions.format)}',
+        snapshotOptions.quality / 100);
     return base64String;
   }
 
+  @override
+  Future<Uint8List> takeSnapshotBytes(SnapshotOptions snapshotOptions) async {
+    final dataUrl = await takeSnapshot(snapshotOptions);
+    return base64Decode(dataUrl.substring(dataUrl.indexOf(',') + 1));
+  }
+
+  @override
+  Future<void> setSnapshotCacheOptions({bool? enabled, int? maxBytes}) async {
+    // snapshots are copied from the canvas, which is faster than a cache lookup
+  }
+
+  @override
+  Future<Map<String, dynamic>> getSnapshotCacheStats() async {
+    return <String, dynamic>{};
+  }
+
+  @override
+  Future<void> clearSnapshotCache() async {}
+
+  @override
+  Stream<SnapshotBatchResult> takeSnapshotBatch(List<SnapshotOptions> snapshots,
+      {int maxConcurrent = 2, bool asBytes = false}) async* {
+    // the canvas is captured synchronously, so there is nothing to overlap
+    for (var i = 0; i < snapshots.length; i++) {
+      try {
+        yield asBytes
+            ? SnapshotBatchResult(i,
+                bytes: await takeSnapshotBytes(snapshots[i]))
+            : SnapshotBatchResult(i,
+                snapshot: await takeSnapshot(snapshots[i]));
+      } catch (e) {
+        yield SnapshotBatchResult(i, error: e.toString());
+      }
+    }
+  }
+
   @override
   void resizeWebMap() {
     _onMapResize();